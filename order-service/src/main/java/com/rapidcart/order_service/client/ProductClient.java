@@ -1,8 +1,23 @@
 package com.rapidcart.order_service.client;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rapidcart.order_service.dto.OrderItemRequestDto;
+import com.rapidcart.order_service.dto.ProductBatchDto;
 import com.rapidcart.order_service.dto.ProductDto;
+import com.rapidcart.order_service.dto.StockReservationBatchDto;
+import com.rapidcart.order_service.dto.StockReservationDto;
 import com.rapidcart.order_service.exception.InsufficientStockException;
 import com.rapidcart.order_service.exception.ProductNotFoundException;
+import com.rapidcart.order_service.exception.ProductServiceTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
@@ -12,7 +27,19 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * The {@code ProductClient} class serves as a REST client for interacting with
@@ -20,14 +47,27 @@ import java.util.Map;
  * <p>
  * It provides functionality to:
  * <ul>
- *     <li>Fetch product details by ID</li>
+ *     <li>Fetch product details by ID, individually or in batches</li>
  *     <li>Validate and check if sufficient stock is available</li>
  *     <li>Reduce stock quantity after a successful order</li>
+ *     <li>Reserve stock and fetch pricing for an order in a single call, for one or
+ *     several products</li>
+ *     <li>Return reserved units that were not sold</li>
  * </ul>
  * <p>
  * This class uses {@link RestTemplate} for RESTful communication and
  * handles specific exceptions from the Product Service gracefully.
  * <p>
+ * The {@code *Async} variants run on a non-blocking HTTP client and return a
+ * {@link CompletableFuture} instead, so that independent calls can run concurrently and the
+ * calling thread is not parked while a response is pending. Each takes an absolute
+ * {@code deadline} rather than a timeout: calls composed in sequence or in parallel share the
+ * caller's deadline, and each gets only the time that is left. A call that does not complete
+ * in time fails with {@link ProductServiceTimeoutException}, and its request is cancelled.
+ * A stock reservation is not cancelled at its deadline, since the Product Service may already
+ * have deducted the stock: if its response still arrives and reports units reserved, they are
+ * returned.
+ * <p>
  * The base URL for the Product Service can be configured via the
  * {@code product.service.url} property (defaults to {@code http://localhost:8081}).
  *
@@ -35,31 +75,44 @@ import java.util.Map;
  * <ul>
  *     <li>{@link ProductNotFoundException} – Thrown if the product does not exist.</li>
  *     <li>{@link InsufficientStockException} – Thrown if there is not enough stock.</li>
+ *     <li>{@link ProductServiceTimeoutException} – Thrown by asynchronous calls that miss their deadline.</li>
  *     <li>{@link RuntimeException} – Thrown for unexpected or connectivity issues.</li>
  * </ul>
  *
  * Example usage:
  * <pre>
  * {@code
- * ProductDto product = productClient.getProduct(1L);
- * if (productClient.checkStockAndValidate(1L, 5)) {
- *     productClient.reduceStock(1L, 5);
- * }
+ * StockReservationDto reservation = productClient.reserveStock(1L, 5);
+ * BigDecimal unitPrice = reservation.getPrice();
+ *
+ * Instant deadline = Instant.now().plusSeconds(2);
+ * CompletableFuture<ProductDto> product = productClient.getProductAsync(1L, deadline);
+ * CompletableFuture<Boolean> inStock = productClient.checkStockAsync(1L, 5, deadline);
  * }
  * </pre>
  *
  * @author
  * @since 1.0
  */
+@Slf4j
 @Component
 public class ProductClient {
 
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private CloseableHttpAsyncClient productServiceAsyncHttpClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Value("${product.service.url:http://localhost:8081}")
     private String productServiceUrl;
 
+    @Value("${product.client.response-timeout:5s}")
+    private Duration responseTimeout;
+
     /**
      * Fetches product details from the Product Service for the given product ID.
      *
@@ -80,6 +133,28 @@ public class ProductClient {
         }
     }
 
+    /**
+     * Fetches several products from the Product Service in a single request.
+     * <p>
+     * Uses the POST variant of the batch endpoint so that large ID sets are not limited
+     * by URL length. Products are returned in request order, and IDs that do not exist
+     * are reported in {@link ProductBatchDto#getMissingIds()} rather than raising an error.
+     *
+     * @param productIds the unique identifiers of the products (at most 1000)
+     * @return the {@link ProductBatchDto} containing the found products and missing IDs
+     * @throws RuntimeException if any error occurs during communication
+     */
+    public ProductBatchDto getProducts(Collection<Long> productIds) {
+        try {
+            String url = productServiceUrl + "/api/products/batch";
+            ResponseEntity<ProductBatchDto> response = restTemplate.postForEntity(
+                    url, Map.of("ids", productIds), ProductBatchDto.class);
+            return response.getBody();
+        } catch (Exception e) {
+            throw new RuntimeException("Error fetching products: " + e.getMessage());
+        }
+    }
+
     /**
      * Validates if the given product has sufficient stock available for the requested quantity.
      * <p>
@@ -133,4 +208,301 @@ public class ProductClient {
             throw new RuntimeException("Error reducing stock: " + e.getMessage());
         }
     }
+
+    /**
+     * Validates, deducts and prices a product for an order in a single request.
+     * <p>
+     * Makes a PUT request to the Product Service's stock reservation endpoint, which
+     * replaces the separate {@link #getProduct(Long)}, {@link #checkStockAndValidate(Long, Integer)}
+     * and {@link #reduceStock(Long, Integer)} calls with one round trip.
+     *
+     * @param productId the unique identifier of the product
+     * @param quantity the quantity to reserve
+     * @return the {@link StockReservationDto} with the product's name, price and version
+     * @throws ProductNotFoundException if the product does not exist or is inactive
+     * @throws InsufficientStockException if the available stock is insufficient
+     * @throws RuntimeException if any other error occurs during communication
+     */
+    public StockReservationDto reserveStock(Long productId, Integer quantity) {
+        try {
+            String url = productServiceUrl + "/api/products/" + productId + "/reserve-stock?quantity=" + quantity;
+            ResponseEntity<StockReservationDto> response = restTemplate.exchange(
+                    url, HttpMethod.PUT, null, StockReservationDto.class);
+            return response.getBody();
+        } catch (HttpClientErrorException.Conflict e) {
+            throw new InsufficientStockException("Insufficient stock");
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new ProductNotFoundException("Product not found");
+        } catch (HttpClientErrorException.UnprocessableEntity e) {
+            throw new ProductNotFoundException("Product not found or unavailable");
+        } catch (Exception e) {
+            throw new RuntimeException("Error reserving stock: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns units that were reserved earlier but not sold to the product's stock.
+     * <p>
+     * Makes a PUT request to the Product Service's stock return endpoint.
+     *
+     * @param productId the unique identifier of the product
+     * @param quantity the quantity to return
+     * @throws ProductNotFoundException if the product does not exist
+     * @throws RuntimeException if any other error occurs during communication
+     */
+    public void returnStock(Long productId, Integer quantity) {
+        try {
+            String url = productServiceUrl + "/api/products/" + productId + "/return-stock?quantity=" + quantity;
+            restTemplate.put(url, null);
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new ProductNotFoundException("Product not found");
+        } catch (Exception e) {
+            throw new RuntimeException("Error returning stock: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fetches product details without blocking the calling thread.
+     *
+     * @param productId the unique identifier of the product
+     * @param deadline the instant by which the call must complete
+     * @return a future completed with the {@link ProductDto}, or exceptionally with
+     *         {@link ProductNotFoundException} if the product does not exist
+     * @see #getProduct(Long)
+     */
+    public CompletableFuture<ProductDto> getProductAsync(Long productId, Instant deadline) {
+        SimpleHttpRequest request = SimpleRequestBuilder
+                .get(productServiceUrl + "/api/products/" + productId)
+                .build();
+        return exchange(request, deadline, "fetching product", response -> switch (response.getCode()) {
+            case 200 -> readBody(response, ProductDto.class);
+            case 404 -> throw new ProductNotFoundException("Product not found");
+            default -> throw unexpected("fetching product", response);
+        });
+    }
+
+    /**
+     * Checks whether a product has enough stock without blocking the calling thread.
+     *
+     * @param productId the unique identifier of the product
+     * @param quantity the desired quantity to check
+     * @param deadline the instant by which the call must complete
+     * @return a future completed with {@code true} if sufficient stock exists, or exceptionally
+     *         with {@link ProductNotFoundException} if the product does not exist
+     * @see #checkStockAndValidate(Long, Integer)
+     */
+    public CompletableFuture<Boolean> checkStockAsync(Long productId, Integer quantity, Instant deadline) {
+        SimpleHttpRequest request = SimpleRequestBuilder
+                .get(productServiceUrl + "/api/products/" + productId + "/stock?quantity=" + quantity)
+                .build();
+        return exchange(request, deadline, "checking stock", response -> switch (response.getCode()) {
+            case 200 -> readBody(response, JsonNode.class).path("hasStock").asBoolean(false);
+            case 404 -> throw new ProductNotFoundException("Product not found");
+            default -> throw unexpected("checking stock", response);
+        });
+    }
+
+    /**
+     * Validates, deducts and prices a product for an order without blocking the calling thread.
+     * <p>
+     * If the deadline passes first, the call fails with {@link ProductServiceTimeoutException},
+     * but its request is left to complete; should the Product Service still reserve the units,
+     * they are returned.
+     *
+     * @param productId the unique identifier of the product
+     * @param quantity the quantity to reserve
+     * @param deadline the instant by which the call must complete
+     * @return a future completed with the {@link StockReservationDto}, or exceptionally with
+     *         {@link ProductNotFoundException} if the product does not exist or is inactive, or
+     *         {@link InsufficientStockException} if the available stock is insufficient
+     * @see #reserveStock(Long, Integer)
+     */
+    public CompletableFuture<StockReservationDto> reserveStockAsync(Long productId, Integer quantity, Instant deadline) {
+        SimpleHttpRequest request = SimpleRequestBuilder
+                .put(productServiceUrl + "/api/products/" + productId + "/reserve-stock?quantity=" + quantity)
+                .build();
+        return exchange(request, deadline, "reserving stock", response -> switch (response.getCode()) {
+            case 200 -> readBody(response, StockReservationDto.class);
+            case 404 -> throw new ProductNotFoundException("Product not found");
+            case 409 -> throw new InsufficientStockException("Insufficient stock");
+            case 422 -> throw new ProductNotFoundException("Product not found or unavailable");
+            default -> throw unexpected("reserving stock", response);
+        }, reservation -> returnReserved(List.of(reservation)));
+    }
+
+    /**
+     * Validates, deducts and prices several products for a multi-line order in a single
+     * request, without blocking the calling thread.
+     * <p>
+     * Makes a PUT request to the Product Service's batched stock reservation endpoint, which
+     * reserves every line or none: if the future fails, no stock was deducted for any line, or
+     * the reservation missed its deadline and is returned should it still succeed. Lines for
+     * the same product are added up.
+     *
+     * @param items the products and quantities to reserve (at most 100 lines)
+     * @param deadline the instant by which the call must complete
+     * @return a future completed with one {@link StockReservationDto} per distinct product, or
+     *         exceptionally with {@link ProductNotFoundException} if a product does not exist or
+     *         is inactive, or {@link InsufficientStockException} if the available stock of a
+     *         product is insufficient
+     * @see #reserveStockAsync(Long, Integer, Instant)
+     */
+    public CompletableFuture<List<StockReservationDto>> reserveStockAsync(List<OrderItemRequestDto> items,
+                                                                         Instant deadline) {
+        SimpleHttpRequest request;
+        try {
+            request = SimpleRequestBuilder
+                    .put(productServiceUrl + "/api/products/reserve-stock")
+                    .setBody(objectMapper.writeValueAsBytes(Map.of("lines", items)), ContentType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(new RuntimeException("Error reserving stock: " + e.getMessage()));
+        }
+        return exchange(request, deadline, "reserving stock", response -> switch (response.getCode()) {
+            case 200 -> readBody(response, StockReservationBatchDto.class).getReservations();
+            case 404 -> throw new ProductNotFoundException(messageOf(response, "Product not found"));
+            case 409 -> throw new InsufficientStockException(messageOf(response, "Insufficient stock"));
+            case 422 -> throw new ProductNotFoundException(messageOf(response, "Product not found or unavailable"));
+            default -> throw unexpected("reserving stock", response);
+        }, this::returnReserved);
+    }
+
+    /**
+     * Returns units that were reserved earlier but not sold, without blocking the calling thread.
+     *
+     * @param productId the unique identifier of the product
+     * @param quantity the quantity to return
+     * @param deadline the instant by which the call must complete
+     * @return a future completed once the units are returned, or exceptionally with
+     *         {@link ProductNotFoundException} if the product does not exist
+     * @see #returnStock(Long, Integer)
+     */
+    public CompletableFuture<Void> returnStockAsync(Long productId, Integer quantity, Instant deadline) {
+        SimpleHttpRequest request = SimpleRequestBuilder
+                .put(productServiceUrl + "/api/products/" + productId + "/return-stock?quantity=" + quantity)
+                .build();
+        return exchange(request, deadline, "returning stock", response -> switch (response.getCode()) {
+            case 200 -> null;
+            case 404 -> throw new ProductNotFoundException("Product not found");
+            default -> throw unexpected("returning stock", response);
+        });
+    }
+
+    /**
+     * Returns the units of reservations whose response arrived after the caller gave up on them.
+     */
+    private void returnReserved(List<StockReservationDto> reservations) {
+        for (StockReservationDto reservation : reservations) {
+            returnStockAsync(reservation.getProductId(), reservation.getReservedQuantity(),
+                    Instant.now().plus(responseTimeout))
+                    .whenComplete((ignored, failure) -> {
+                        if (failure != null) {
+                            log.error("Could not return {} units of product {} reserved after their deadline; "
+                                            + "its stock must be corrected", reservation.getReservedQuantity(),
+                                    reservation.getProductId(), failure);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Sends a request on the non-blocking client and maps its response.
+     * <p>
+     * The exchange is cancelled if it is still pending at the deadline.
+     *
+     * @param request the request to send
+     * @param deadline the instant by which the call must complete
+     * @param action what the call does, for error messages
+     * @param mapper maps the response to a result, or throws to fail the call
+     * @return a future completed with the mapped result
+     */
+    private <T> CompletableFuture<T> exchange(SimpleHttpRequest request, Instant deadline, String action,
+                                              Function<SimpleHttpResponse, T> mapper) {
+        return exchange(request, deadline, action, mapper, null);
+    }
+
+    /**
+     * Sends a request on the non-blocking client and maps its response.
+     * <p>
+     * If {@code lateResult} is given, an exchange still pending at the deadline is not
+     * cancelled; should it then complete with a result, the result is passed to
+     * {@code lateResult} so that its effect can be undone. Otherwise the exchange is cancelled.
+     *
+     * @param request the request to send
+     * @param deadline the instant by which the call must complete
+     * @param action what the call does, for error messages
+     * @param mapper maps the response to a result, or throws to fail the call
+     * @param lateResult receives a result that arrives after the deadline, or {@code null}
+     * @return a future completed with the mapped result
+     */
+    private <T> CompletableFuture<T> exchange(SimpleHttpRequest request, Instant deadline, String action,
+                                              Function<SimpleHttpResponse, T> mapper, Consumer<T> lateResult) {
+        Duration remaining = Duration.between(Instant.now(), deadline);
+        if (remaining.isNegative() || remaining.isZero()) {
+            return CompletableFuture.failedFuture(
+                    new ProductServiceTimeoutException("Deadline passed before " + action));
+        }
+
+        CompletableFuture<SimpleHttpResponse> response = new CompletableFuture<>();
+        Future<SimpleHttpResponse> pending = productServiceAsyncHttpClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse result) {
+                response.complete(result);
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                response.completeExceptionally(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                response.cancel(false);
+            }
+        });
+
+        // Time out a copy, so that a late response still completes the original
+        return response.copy()
+                .orTimeout(remaining.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((result, failure) -> {
+                    if (failure == null) {
+                        return mapper.apply(result);
+                    }
+                    if (failure instanceof TimeoutException) {
+                        if (lateResult != null) {
+                            response.thenApply(mapper).thenAccept(lateResult);
+                        } else {
+                            pending.cancel(true);
+                        }
+                        throw new ProductServiceTimeoutException("Product Service did not respond in time while " + action);
+                    }
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause() : failure;
+                    throw new RuntimeException("Error " + action + ": " + cause.getMessage());
+                });
+    }
+
+    private <T> T readBody(SimpleHttpResponse response, Class<T> type) {
+        try {
+            return objectMapper.readValue(response.getBodyBytes(), type);
+        } catch (IOException e) {
+            throw new RuntimeException("Unreadable response from Product Service: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the error message of a Product Service error response, which names the product
+     * that failed.
+     */
+    private String messageOf(SimpleHttpResponse response, String fallback) {
+        try {
+            return objectMapper.readTree(response.getBodyBytes()).path("message").asText(fallback);
+        } catch (IOException | RuntimeException e) {
+            return fallback;
+        }
+    }
+
+    private static RuntimeException unexpected(String action, SimpleHttpResponse response) {
+        return new RuntimeException("Error " + action + ": HTTP " + response.getCode());
+    }
 }
@@ -0,0 +1,85 @@
+package com.rapidcart.order_service.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * One-off startup migration of the order tables.
+ *
+ * <p>Hibernate's {@code ddl-auto=update} creates new tables and columns but never drops
+ * columns, so databases created before orders had lines still carry {@code product_id},
+ * {@code product_name}, {@code unit_price} and {@code quantity} on {@code orders}, as
+ * {@code NOT NULL} columns that new orders no longer fill. Each such order is copied into a
+ * single line in {@code order_items}, and the columns are then dropped, in one transaction.
+ * On an up-to-date schema nothing is done.</p>
+ *
+ * <p>The {@link EntityManagerFactory} dependency guarantees Hibernate has created
+ * {@code order_items} and its sequence before this runs.</p>
+ */
+@Slf4j
+@Component
+public class OrderItemMigration implements InitializingBean {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderItemMigration(DataSource dataSource,
+                              EntityManagerFactory entityManagerFactory,
+                              PlatformTransactionManager transactionManager) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        moveLinesOutOfOrders();
+    }
+
+    private void moveLinesOutOfOrders() throws SQLException {
+        if (!hasColumn("orders", "product_id")) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            int copied = jdbcTemplate.update(
+                    "INSERT INTO order_items (id, order_id, product_id, product_name, unit_price, quantity, total_price) " +
+                            "SELECT nextval('order_items_seq'), o.id, o.product_id, o.product_name, o.unit_price, " +
+                            "o.quantity, o.total_price FROM orders o " +
+                            "WHERE NOT EXISTS (SELECT 1 FROM order_items i WHERE i.order_id = o.id)");
+            for (String column : new String[]{"product_id", "product_name", "unit_price", "quantity"}) {
+                jdbcTemplate.execute("ALTER TABLE orders DROP COLUMN " + column);
+            }
+            log.info("Moved the lines of {} orders into order_items", copied);
+        });
+    }
+
+    private boolean hasColumn(String table, String column) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : new String[]{column, column.toUpperCase()}) {
+                try (ResultSet columns = metaData.getColumns(null, null, tableName(metaData, table), name)) {
+                    if (columns.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private static String tableName(DatabaseMetaData metaData, String table) throws SQLException {
+        return metaData.storesUpperCaseIdentifiers() ? table.toUpperCase() : table;
+    }
+}
@@ -0,0 +1,64 @@
+package com.rapidcart.order_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection settings for the HTTP client used by
+ * {@link com.rapidcart.order_service.client.ProductClient}.
+ * <p>
+ * Bound from properties prefixed with {@code product.client}, for example:
+ * <pre>
+ * product.client.max-connections-per-route=50
+ * product.client.connect-timeout=2s
+ * product.client.response-timeout=5s
+ * product.client.http2-cleartext=false
+ * </pre>
+ *
+ * @since 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "product.client")
+public class ProductClientProperties {
+
+    /** Maximum number of pooled connections across all routes. */
+    private int maxConnectionsTotal = 200;
+
+    /** Maximum number of pooled connections to a single host (the Product Service). */
+    private int maxConnectionsPerRoute = 50;
+
+    /** Maximum time to establish a TCP connection. */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /** Maximum time to wait for a response once the request has been sent. */
+    private Duration responseTimeout = Duration.ofSeconds(5);
+
+    /** Maximum time to wait for a free connection from the pool. */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+    /** Idle connections older than this are evicted from the pool by a background thread. */
+    private Duration idleEvictionTimeout = Duration.ofSeconds(30);
+
+    /** Maximum lifetime of a pooled connection, regardless of activity. */
+    private Duration connectionTimeToLive = Duration.ofMinutes(5);
+
+    /** Connections idle for longer than this are re-validated before being leased. */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * Number of I/O reactor threads of the non-blocking client used for asynchronous calls.
+     * <p>
+     * Each thread multiplexes many connections, so this stays small however many calls are in flight.
+     */
+    private int ioThreads = 2;
+
+    /**
+     * Whether to talk to the Product Service over HTTP/2 cleartext (h2c) using the JDK client.
+     * <p>
+     * HTTP/2 multiplexes requests over a single connection per host, so the pool sizing
+     * settings above only apply when this is {@code false}.
+     */
+    private boolean http2Cleartext = false;
+}
@@ -20,7 +20,8 @@ import org.springframework.context.annotation.Profile;
  * <li>A durable {@link Queue} for consuming product events</li>
  * <li>A {@link Binding} to connect the queue and exchange using a routing
  * key</li>
- * <li>A {@link RabbitTemplate} configured with a JSON message converter</li>
+ * <li>A {@link RabbitTemplate} configured with a JSON message converter, sending
+ * messages as mandatory so unroutable ones are returned</li>
  * </ul>
  * <p>
  * The configuration ensures that messages are serialized and deserialized using
@@ -110,7 +111,9 @@ public class RabbitMQConfig {
 
     /**
      * Configures a {@link RabbitTemplate} with a JSON message converter for sending
-     * messages.
+     * messages. Messages are sent as mandatory, so that the broker returns messages no
+     * queue accepts instead of dropping them; the confirm and returns callbacks are
+     * registered by {@link com.rapidcart.order_service.service.PublisherConfirmPipeline}.
      *
      * @param connectionFactory the RabbitMQ {@link ConnectionFactory}
      * @return a configured {@link RabbitTemplate}
@@ -119,6 +122,7 @@ public class RabbitMQConfig {
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(jsonMessageConverter());
+        template.setMandatory(true);
         return template;
     }
 }
@@ -1,13 +1,198 @@
 package com.rapidcart.order_service.config;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+
+/**
+ * Configures the {@link RestTemplate} used to call the Product Service.
+ * <p>
+ * By default requests go through a pooled Apache HttpClient that keeps connections alive
+ * between calls, bounds connect and response times, and evicts idle connections in the
+ * background. Pool utilization is published as {@code httpcomponents.httpclient.pool.*}
+ * metrics tagged with {@code httpclient=product-service}.
+ * <p>
+ * Setting {@code product.client.http2-cleartext=true} switches to the JDK
+ * {@link HttpClient} speaking HTTP/2 over cleartext (h2c) instead.
+ * <p>
+ * The asynchronous calls of {@link com.rapidcart.order_service.client.ProductClient} go through
+ * a separate non-blocking Apache client, whose few I/O reactor threads multiplex all requests
+ * in flight, so no thread is parked on a socket read while a call is pending. It uses the same
+ * pool limits and timeouts, speaks HTTP/2 when {@code product.client.http2-cleartext=true},
+ * and publishes its pool metrics tagged with {@code httpclient=product-service-async}.
+ *
+ * @see ProductClientProperties
+ */
 @Configuration
+@EnableConfigurationProperties(ProductClientProperties.class)
 public class RestTemplateConfig {
+
+    @Bean
+    public RestTemplate restTemplate(ProductClientProperties properties,
+                                     ObjectProvider<CloseableHttpClient> productServiceHttpClient) {
+        ClientHttpRequestFactory requestFactory = properties.isHttp2Cleartext()
+                ? http2CleartextRequestFactory(properties)
+                : new HttpComponentsClientHttpRequestFactory(productServiceHttpClient.getObject());
+        return new RestTemplate(requestFactory);
+    }
+
+    /**
+     * Creates the connection pool shared by all Product Service calls.
+     *
+     * @param properties the configured client settings
+     * @return a configured {@link PoolingHttpClientConnectionManager}
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "product.client", name = "http2-cleartext", havingValue = "false", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager productServiceConnectionManager(ProductClientProperties properties) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnectionsTotal())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .setTimeToLive(TimeValue.of(properties.getConnectionTimeToLive()))
+                        .setValidateAfterInactivity(TimeValue.of(properties.getValidateAfterInactivity()))
+                        .build())
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setTcpNoDelay(true)
+                        .setSoKeepAlive(true)
+                        .build())
+                .build();
+    }
+
+    /**
+     * Creates the keep-alive HTTP client backed by {@link #productServiceConnectionManager}.
+     *
+     * @param connectionManager the pooled connection manager
+     * @param properties the configured client settings
+     * @return a configured {@link CloseableHttpClient}
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "product.client", name = "http2-cleartext", havingValue = "false", matchIfMissing = true)
+    public CloseableHttpClient productServiceHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                        ProductClientProperties properties) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleEvictionTimeout()))
+                .build();
+    }
+
+    /**
+     * Publishes leased, available, pending and maximum connection counts for the pool.
+     *
+     * @param connectionManager the pooled connection manager
+     * @return a {@link MeterBinder} registered with the actuator metrics registry
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @ConditionalOnProperty(prefix = "product.client", name = "http2-cleartext", havingValue = "false", matchIfMissing = true)
+    public MeterBinder productServiceConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "product-service");
+    }
+
+    /**
+     * Creates the connection pool shared by all asynchronous Product Service calls.
+     *
+     * @param properties the configured client settings
+     * @return a configured {@link PoolingAsyncClientConnectionManager}
+     */
+    @Bean
+    public PoolingAsyncClientConnectionManager productServiceAsyncConnectionManager(ProductClientProperties properties) {
+        return PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnectionsTotal())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .setTimeToLive(TimeValue.of(properties.getConnectionTimeToLive()))
+                        .setValidateAfterInactivity(TimeValue.of(properties.getValidateAfterInactivity()))
+                        .build())
+                .setDefaultTlsConfig(TlsConfig.custom()
+                        .setVersionPolicy(properties.isHttp2Cleartext()
+                                ? HttpVersionPolicy.FORCE_HTTP_2
+                                : HttpVersionPolicy.FORCE_HTTP_1)
+                        .build())
+                .build();
+    }
+
+    /**
+     * Creates and starts the non-blocking HTTP client backed by
+     * {@link #productServiceAsyncConnectionManager}.
+     *
+     * @param connectionManager the pooled asynchronous connection manager
+     * @param properties the configured client settings
+     * @return a started {@link CloseableHttpAsyncClient}
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient productServiceAsyncHttpClient(PoolingAsyncClientConnectionManager connectionManager,
+                                                                  ProductClientProperties properties) {
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setIoThreadCount(properties.getIoThreads())
+                        .setTcpNoDelay(true)
+                        .setSoKeepAlive(true)
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleEvictionTimeout()))
+                .build();
+        client.start();
+        return client;
+    }
+
+    /**
+     * Publishes leased, available, pending and maximum connection counts for the asynchronous pool.
+     *
+     * @param connectionManager the pooled asynchronous connection manager
+     * @return a {@link MeterBinder} registered with the actuator metrics registry
+     */
+    @Bean
+    public MeterBinder productServiceAsyncConnectionPoolMetrics(PoolingAsyncClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "product-service-async");
+    }
+
+    private ClientHttpRequestFactory http2CleartextRequestFactory(ProductClientProperties properties) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.getResponseTimeout());
+        return requestFactory;
     }
 }
@@ -1,8 +1,11 @@
 package com.rapidcart.order_service.controller;
 
+import com.rapidcart.order_service.dto.FlashSaleStatusDto;
 import com.rapidcart.order_service.dto.OrderRequestDto;
 import com.rapidcart.order_service.dto.OrderResponseDto;
+import com.rapidcart.order_service.service.FlashSaleService;
 import com.rapidcart.order_service.service.OrderService;
+import com.rapidcart.order_service.service.OrderSortField;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +17,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The {@code OrderController} class exposes RESTful APIs for managing customer orders
@@ -25,6 +29,7 @@ import java.util.List;
  *     <li>Fetching an order by its ID</li>
  *     <li>Retrieving all orders with pagination and sorting</li>
  *     <li>Fetching all orders placed by a specific customer</li>
+ *     <li>Enabling, inspecting and disabling flash-sale mode for a product</li>
  * </ul>
  * <p>
  * The controller delegates all business logic to the {@link OrderService}, ensuring
@@ -38,6 +43,10 @@ import java.util.List;
  * GET    /api/orders/{id}
  * GET    /api/orders?page=0&size=10&sortBy=id&sortDir=asc
  * GET    /api/orders/customer/{customerId}
+ * POST   /api/orders/flash-sales/{productId}?units=500
+ * GET    /api/orders/flash-sales
+ * GET    /api/orders/flash-sales/{productId}
+ * DELETE /api/orders/flash-sales/{productId}
  * </pre>
  *
  * @author
@@ -50,26 +59,34 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private FlashSaleService flashSaleService;
+
     /**
      * Creates a new order for a given customer and product.
      * <p>
      * The request body must include product ID, quantity, and customer ID.
      * Validation is applied to ensure that required fields are provided and valid.
+     * The request is processed asynchronously, so the servlet thread is released while
+     * stock is being reserved from the Product Service.
      *
      * @param orderRequestDto the request payload containing order details
-     * @return a {@link ResponseEntity} containing the created {@link OrderResponseDto}
+     * @return a future of a {@link ResponseEntity} containing the created {@link OrderResponseDto}
      *         and HTTP status {@code 201 Created}
      *
      * <p><b>Possible Errors:</b></p>
      * <ul>
      *     <li>{@code 404 Not Found} – Product does not exist</li>
      *     <li>{@code 400 Bad Request} – Insufficient stock or invalid input</li>
+     *     <li>{@code 409 Conflict} – The product's flash sale is sold out</li>
+     *     <li>{@code 503 Service Unavailable} – Too many flash-sale orders are waiting to be written</li>
+     *     <li>{@code 504 Gateway Timeout} – The Product Service did not respond within {@code order.create-timeout}</li>
      * </ul>
      */
     @PostMapping
-    public ResponseEntity<OrderResponseDto> createOrder(@Valid @RequestBody OrderRequestDto orderRequestDto) {
-        OrderResponseDto order = orderService.createOrder(orderRequestDto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(order);
+    public CompletableFuture<ResponseEntity<OrderResponseDto>> createOrder(@Valid @RequestBody OrderRequestDto orderRequestDto) {
+        return orderService.createOrderAsync(orderRequestDto)
+                .thenApply(order -> ResponseEntity.status(HttpStatus.CREATED).body(order));
     }
 
     /**
@@ -97,9 +114,14 @@ public class OrderController {
      *
      * @param page the page number (default: 0)
      * @param size the number of records per page (default: 10)
-     * @param sortBy the field to sort by (default: "id")
+     * @param sortBy the field to sort by: id, createdAt, totalPrice or customerId (default: "id")
      * @param sortDir the sorting direction ("asc" or "desc", default: "asc")
      * @return a {@link ResponseEntity} containing a list of {@link OrderResponseDto}
+     *
+     * <p><b>Possible Errors:</b></p>
+     * <ul>
+     *     <li>{@code 400 Bad Request} – The field is not sortable</li>
+     * </ul>
      */
     @GetMapping
     public ResponseEntity<List<OrderResponseDto>> getAllOrders(
@@ -109,7 +131,7 @@ public class OrderController {
             @RequestParam(defaultValue = "asc") String sortDir
     ) {
         Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        Pageable pageable = PageRequest.of(page, size, OrderSortField.fromProperty(sortBy).sort(direction));
 
         List<OrderResponseDto> orders = orderService.getAllOrders(pageable);
         return ResponseEntity.ok(orders);
@@ -127,4 +149,71 @@ public class OrderController {
         List<OrderResponseDto> orders = orderService.getOrdersByCustomerId(customerId);
         return ResponseEntity.ok(orders);
     }
+
+    /**
+     * Enables flash-sale mode for a product.
+     * <p>
+     * The units are reserved from the Product Service up front and sold from memory: orders
+     * beyond them are rejected immediately with {@code 409 Conflict}.
+     *
+     * @param productId the ID of the product to put on sale
+     * @param units the number of units to sell
+     * @return a {@link ResponseEntity} containing the {@link FlashSaleStatusDto}
+     *         and HTTP status {@code 201 Created}
+     *
+     * <p><b>Possible Errors:</b></p>
+     * <ul>
+     *     <li>{@code 404 Not Found} – Product does not exist</li>
+     *     <li>{@code 400 Bad Request} – Insufficient stock, or a sale is already enabled</li>
+     * </ul>
+     */
+    @PostMapping("/flash-sales/{productId}")
+    public ResponseEntity<FlashSaleStatusDto> enableFlashSale(
+            @PathVariable Long productId,
+            @RequestParam @Min(1) int units
+    ) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(flashSaleService.enable(productId, units));
+    }
+
+    /**
+     * Retrieves the status of every enabled flash sale.
+     *
+     * @return a {@link ResponseEntity} containing a list of {@link FlashSaleStatusDto}
+     */
+    @GetMapping("/flash-sales")
+    public ResponseEntity<List<FlashSaleStatusDto>> getFlashSales() {
+        return ResponseEntity.ok(flashSaleService.getAllStatuses());
+    }
+
+    /**
+     * Retrieves the status of a product's flash sale.
+     *
+     * @param productId the ID of the product on sale
+     * @return a {@link ResponseEntity} containing the {@link FlashSaleStatusDto}
+     *
+     * <p><b>Possible Errors:</b></p>
+     * <ul>
+     *     <li>{@code 404 Not Found} – No sale is enabled for the product</li>
+     * </ul>
+     */
+    @GetMapping("/flash-sales/{productId}")
+    public ResponseEntity<FlashSaleStatusDto> getFlashSale(@PathVariable Long productId) {
+        return ResponseEntity.ok(flashSaleService.getStatus(productId));
+    }
+
+    /**
+     * Disables flash-sale mode for a product and returns its unsold units to the Product Service.
+     *
+     * @param productId the ID of the product on sale
+     * @return a {@link ResponseEntity} containing the final {@link FlashSaleStatusDto}
+     *
+     * <p><b>Possible Errors:</b></p>
+     * <ul>
+     *     <li>{@code 404 Not Found} – No sale is enabled for the product</li>
+     * </ul>
+     */
+    @DeleteMapping("/flash-sales/{productId}")
+    public ResponseEntity<FlashSaleStatusDto> disableFlashSale(@PathVariable Long productId) {
+        return ResponseEntity.ok(flashSaleService.disable(productId));
+    }
 }
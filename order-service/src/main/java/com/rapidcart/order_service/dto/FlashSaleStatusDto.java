@@ -0,0 +1,46 @@
+package com.rapidcart.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object (DTO) describing the flash sale of a product.
+ * <p>
+ * The sale's units were reserved from the Product Service when it was enabled, at the
+ * product's price at that time. {@code returnedUnits} is only set when the sale is disabled
+ * and reports the unsold units given back to the Product Service.
+ *
+ * Example JSON response:
+ * <pre>
+ * {
+ *   "productId": 5001,
+ *   "productName": "Limited Sneaker",
+ *   "unitPrice": 199.99,
+ *   "allocatedUnits": 500,
+ *   "remainingUnits": 120,
+ *   "soldUnits": 380,
+ *   "rejectedRequests": 14211,
+ *   "active": true,
+ *   "returnedUnits": null
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FlashSaleStatusDto {
+    private Long productId;
+    private String productName;
+    private BigDecimal unitPrice;
+    private Integer allocatedUnits;
+    private Integer remainingUnits;
+    private Long soldUnits;
+    private Long rejectedRequests;
+    private Boolean active;
+    private Integer returnedUnits;
+}
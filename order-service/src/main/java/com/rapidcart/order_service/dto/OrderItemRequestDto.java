@@ -0,0 +1,37 @@
+package com.rapidcart.order_service.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing one line of a multi-line order request.
+ *
+ * Fields:
+ * - {@code productId}: The unique ID of the product being ordered.
+ * - {@code quantity}: The number of product units requested (must be positive).
+ *
+ * Example JSON:
+ *
+ * <pre>
+ * {
+ *   "productId": 5001,
+ *   "quantity": 3
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemRequestDto {
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    @NotNull(message = "Quantity is required")
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;
+}
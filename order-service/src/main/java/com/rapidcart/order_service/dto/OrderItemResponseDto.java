@@ -0,0 +1,41 @@
+package com.rapidcart.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object (DTO) representing one line of an order in responses.
+ *
+ * Fields:
+ * - {@code productId}: The ID of the product ordered.
+ * - {@code productName}: The name of the product at the time of ordering.
+ * - {@code unitPrice}: The price per unit of the product at the time of ordering.
+ * - {@code quantity}: The number of product units ordered.
+ * - {@code totalPrice}: The price of the line (unitPrice × quantity).
+ *
+ * Example JSON:
+ * <pre>
+ * {
+ *   "productId": 5001,
+ *   "productName": "Wireless Mouse",
+ *   "unitPrice": 599.99,
+ *   "quantity": 2,
+ *   "totalPrice": 1199.98
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderItemResponseDto {
+    private Long productId;
+    private String productName;
+    private BigDecimal unitPrice;
+    private Integer quantity;
+    private BigDecimal totalPrice;
+}
@@ -1,12 +1,18 @@
 package com.rapidcart.order_service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * Data Transfer Object (DTO) representing the payload required to create a new
  * order.
@@ -15,17 +21,23 @@ import lombok.NoArgsConstructor;
  * It includes validation annotations to ensure that all required fields are
  * provided
  * and contain valid values before processing.
+ * <p>
+ * An order for a single product can name it directly with {@code productId} and
+ * {@code quantity}; an order for several products (a cart checkout) lists them in
+ * {@code items} instead. Either form is accepted, but not both.
  *
  * Fields:
  * - {@code customerId}: The unique ID of the customer placing the order.
  * - {@code productId}: The unique ID of the product being ordered.
  * - {@code quantity}: The number of product units requested (must be positive).
+ * - {@code items}: The products and quantities of a multi-line order (at most 100).
  *
  * Validation:
- * - {@link NotNull} ensures none of the fields are null.
- * - {@link Positive} ensures the quantity is greater than zero.
+ * - {@link NotNull} ensures the customer ID is present.
+ * - {@link Positive} ensures the quantities are greater than zero.
+ * - {@link AssertTrue} ensures exactly one of the two forms is used.
  *
- * Example JSON request:
+ * Example JSON requests:
  * 
  * <pre>
  * {
@@ -33,6 +45,14 @@ import lombok.NoArgsConstructor;
  *   "productId": 5001,
  *   "quantity": 3
  * }
+ *
+ * {
+ *   "customerId": 101,
+ *   "items": [
+ *     {"productId": 5001, "quantity": 3},
+ *     {"productId": 5002, "quantity": 1}
+ *   ]
+ * }
  * </pre>
  */
 @Data
@@ -43,10 +63,38 @@ public class OrderRequestDto {
     @NotNull(message = "Customer ID is required")
     private Long customerId;
 
-    @NotNull(message = "Product ID is required")
     private Long productId;
 
-    @NotNull(message = "Quantity is required")
     @Positive(message = "Quantity must be positive")
     private Integer quantity;
+
+    @Valid
+    @Size(max = 100, message = "An order can have at most 100 items")
+    private List<@NotNull(message = "Item cannot be null") OrderItemRequestDto> items;
+
+    /**
+     * Checks that the order names either a single product or a list of items, but not both.
+     *
+     * @return {@code true} if exactly one of the two forms is complete
+     */
+    @JsonIgnore
+    @AssertTrue(message = "Either productId and quantity, or items, is required")
+    public boolean isSingleProductOrItems() {
+        if (items == null || items.isEmpty()) {
+            return productId != null && quantity != null;
+        }
+        return productId == null && quantity == null;
+    }
+
+    /**
+     * Returns the lines of the order, whichever form it was requested in.
+     *
+     * @return the items, or a single line for {@code productId} and {@code quantity}
+     */
+    public List<OrderItemRequestDto> lines() {
+        if (items == null || items.isEmpty()) {
+            return List.of(new OrderItemRequestDto(productId, quantity));
+        }
+        return items;
+    }
 }
@@ -7,22 +7,28 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 /**
  * Data Transfer Object (DTO) representing the response returned to clients after
  * an order is created or retrieved.
  * <p>
  * This class encapsulates all relevant order details such as product information,
  * pricing, quantity, customer details, and order creation time.
+ * <p>
+ * Every order lists its lines in {@code items}. Orders with a single line also repeat that
+ * line's product, price and quantity at the top level, as before orders could have several
+ * lines; for multi-line orders those fields are {@code null}.
  *
  * Fields:
  * - {@code id}: The unique identifier of the order.
- * - {@code productId}: The ID of the product associated with the order.
- * - {@code productName}: The name of the product.
- * - {@code unitPrice}: The price per unit of the product at the time of ordering.
- * - {@code quantity}: The number of product units ordered.
- * - {@code totalPrice}: The total price (unitPrice × quantity) for the order.
+ * - {@code productId}: The ID of the product of a single-line order.
+ * - {@code productName}: The name of the product of a single-line order.
+ * - {@code unitPrice}: The price per unit of the product of a single-line order.
+ * - {@code quantity}: The number of product units of a single-line order.
+ * - {@code totalPrice}: The total price of all lines of the order.
  * - {@code customerId}: The unique identifier of the customer who placed the order.
  * - {@code createdAt}: The timestamp when the order was created.
+ * - {@code items}: The lines of the order.
  *
  * Example JSON response:
  * <pre>
@@ -34,7 +40,11 @@ import java.time.LocalDateTime;
  *   "quantity": 2,
  *   "totalPrice": 1199.98,
  *   "customerId": 101,
- *   "createdAt": "2025-10-31T10:45:00"
+ *   "createdAt": "2025-10-31T10:45:00",
+ *   "items": [
+ *     {"productId": 5001, "productName": "Wireless Mouse", "unitPrice": 599.99,
+ *      "quantity": 2, "totalPrice": 1199.98}
+ *   ]
  * }
  * </pre>
  */
@@ -51,5 +61,5 @@ public class OrderResponseDto {
     private BigDecimal totalPrice;
     private Long customerId;
     private LocalDateTime createdAt;
-
+    private List<OrderItemResponseDto> items;
 }
@@ -0,0 +1,34 @@
+package com.rapidcart.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing the result of a batch product lookup in the Product Service.
+ * <p>
+ * Fields:
+ * - {@code products}: The products that were found, in the order their IDs were requested.
+ * - {@code missingIds}: The requested IDs for which no product exists.
+ *
+ * Example JSON representation:
+ * <pre>
+ * {
+ *   "products": [
+ *     { "id": 5001, "name": "Wireless Mouse", ... }
+ *   ],
+ *   "missingIds": [5002]
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBatchDto {
+    private List<ProductDto> products;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,38 @@
+package com.rapidcart.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing the stock reservations of a multi-line order,
+ * returned by the Product Service's batched reservation endpoint.
+ * <p>
+ * The reservation is all or nothing: if it is returned, every line has been reserved.
+ *
+ * Fields:
+ * - {@code reservations}: One {@link StockReservationDto} per distinct product, in the order
+ *   the products first appear in the request.
+ *
+ * Example JSON representation:
+ * <pre>
+ * {
+ *   "reservations": [
+ *     {"productId": 5001, "name": "Wireless Mouse", "price": 599.99, "version": 7,
+ *      "reservedQuantity": 2, "remainingStock": 23},
+ *     {"productId": 5002, "name": "Mouse Pad", "price": 99.99, "version": 2,
+ *      "reservedQuantity": 1, "remainingStock": 140}
+ *   ]
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReservationBatchDto {
+    private List<StockReservationDto> reservations;
+}
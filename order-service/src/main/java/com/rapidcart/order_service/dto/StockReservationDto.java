@@ -0,0 +1,47 @@
+package com.rapidcart.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object (DTO) representing a stock reservation returned by the Product Service.
+ * <p>
+ * A reservation confirms that the product was active, that the requested quantity has been
+ * deducted from stock, and carries the name and price to copy into the order.
+ *
+ * Fields:
+ * - {@code productId}: The unique identifier of the product.
+ * - {@code name}: The product name at the time of reservation.
+ * - {@code price}: The unit price at the time of reservation.
+ * - {@code version}: The product version after the stock was deducted.
+ * - {@code reservedQuantity}: The number of units deducted from stock.
+ * - {@code remainingStock}: The number of units left in stock.
+ *
+ * Example JSON representation:
+ * <pre>
+ * {
+ *   "productId": 5001,
+ *   "name": "Wireless Mouse",
+ *   "price": 599.99,
+ *   "version": 7,
+ *   "reservedQuantity": 2,
+ *   "remainingStock": 23
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReservationDto {
+    private Long productId;
+    private String name;
+    private BigDecimal price;
+    private Integer version;
+    private Integer reservedQuantity;
+    private Integer remainingStock;
+}
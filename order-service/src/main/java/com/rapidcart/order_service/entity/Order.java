@@ -2,17 +2,34 @@ package com.rapidcart.order_service.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Entity representing a customer order, mapped to the {@code orders} table.
+ *
+ * <p>The order itself is a header with the customer and the total price; what was ordered is
+ * held in its {@link OrderItem lines}, which are saved and deleted with it. Lines are loaded
+ * lazily, for up to 100 orders per query.</p>
+ *
+ * <p>Every sortable column (see {@link com.rapidcart.order_service.service.OrderSortField})
+ * is covered by an index ending in {@code id}, so that listings are read in index order
+ * instead of sorting the table.</p>
+ */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_orders_total_price_id", columnList = "total_price, id"),
+        @Index(name = "idx_orders_customer_id_id", columnList = "customer_id, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -22,24 +39,6 @@ public class Order {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @NotNull(message = "Product ID is required")
-    @Column(name = "product_id", nullable = false)
-    private Long productId;
-
-    @NotNull(message = "Product name is required")
-    @Column(name = "product_name", nullable = false)
-    private String productName;
-
-    @NotNull(message = "Unit price is required")
-    @Positive(message = "Unit price must be positive")
-    @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
-    private BigDecimal unitPrice;
-
-    @NotNull(message = "Quantity is required")
-    @Positive(message = "Quantity must be positive")
-    @Column(nullable = false)
-    private Integer quantity;
-
     @NotNull(message = "Total price is required")
     @Column(name = "total_price", nullable = false, precision = 10, scale = 2)
     private BigDecimal totalPrice;
@@ -51,6 +50,22 @@ public class Order {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    @OrderBy("id")
+    @BatchSize(size = 100)
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Builder.Default
+    private List<OrderItem> items = new ArrayList<>();
+
+    /**
+     * Adds a line to this order.
+     *
+     * @param item the line to add
+     */
+    public void addItem(OrderItem item) {
+        item.setOrder(this);
+        items.add(item);
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,69 @@
+package com.rapidcart.order_service.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Entity representing one line of an {@link Order}, mapped to the {@code order_items} table.
+ *
+ * <p>Identifiers come from a sequence rather than an identity column, with blocks of
+ * {@value #ID_ALLOCATION_SIZE} IDs handed out at a time, so that Hibernate can insert all
+ * lines of an order, or of a batch of orders, in one JDBC batch.</p>
+ */
+@Entity
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order_id", columnList = "order_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItem {
+
+    /** The number of IDs reserved from {@code order_items_seq} at a time. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "order_id", nullable = false)
+    private Order order;
+
+    @NotNull(message = "Product ID is required")
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @NotNull(message = "Product name is required")
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+
+    @NotNull(message = "Unit price is required")
+    @Positive(message = "Unit price must be positive")
+    @Column(name = "unit_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal unitPrice;
+
+    @NotNull(message = "Quantity is required")
+    @Positive(message = "Quantity must be positive")
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @NotNull(message = "Total price is required")
+    @Column(name = "total_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalPrice;
+}
@@ -0,0 +1,83 @@
+package com.rapidcart.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Entity representing an order event waiting to be published, mapped to the
+ * {@code order_outbox} table.
+ *
+ * <p>Events are written in the same transaction as the change they describe, so an event
+ * exists if and only if its change committed. IDs come from a pooled sequence, so that inserts
+ * can be batched; they are unique but, across concurrent transactions and instances, not in
+ * commit order. The relay therefore orders events per order by {@code createdAt}, then
+ * {@code id}: the transactions that write the events of one order change its row and commit
+ * one after the other. An event is claimed by a relay while its confirm is awaited, and
+ * deleted once RabbitMQ has confirmed it.</p>
+ */
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_order_outbox_aggregate_id", columnList = "aggregate_id, created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderOutboxEvent {
+
+    /** The number of IDs reserved from {@code order_outbox_seq} at a time. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * The unique identifier of the event. Increasing per instance, but not in commit order
+     * across instances.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+
+    /**
+     * The ID of the order the event is about.
+     */
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    /**
+     * The type of event, such as {@code ORDER_CREATED}.
+     */
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    /**
+     * The message body, serialized as JSON.
+     */
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    /**
+     * When the event was written.
+     */
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /**
+     * Until when a relay has claimed the event to publish it, or {@code null} if it is not
+     * claimed. Other relays skip claimed events, and the claim lapses if its relay never
+     * finishes.
+     */
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.rapidcart.order_service.exception;
+
+/**
+ * Thrown when a flash-sale order won a unit but the queue of orders waiting to be written is full.
+ */
+public class FlashSaleBusyException extends RuntimeException {
+
+    public FlashSaleBusyException(String message) {
+        super(message);
+    }
+}
@@ -231,6 +231,39 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.BAD_REQUEST, "Insufficient stock", ex.getMessage(), null);
     }
 
+    /**
+     * Handles flash-sale orders that found no units left in the sale.
+     *
+     * @param ex the {@link SoldOutException} indicating the sale is sold out
+     * @return a {@link ResponseEntity} with a 409 Conflict response
+     */
+    @ExceptionHandler(SoldOutException.class)
+    public ResponseEntity<Map<String, Object>> handleSoldOutException(SoldOutException ex) {
+        return buildResponse(HttpStatus.CONFLICT, "Sold out", ex.getMessage(), null);
+    }
+
+    /**
+     * Handles flash-sale orders that won their units but could not be queued for writing.
+     *
+     * @param ex the {@link FlashSaleBusyException} indicating the write queue is full
+     * @return a {@link ResponseEntity} with a 503 Service Unavailable response
+     */
+    @ExceptionHandler(FlashSaleBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleFlashSaleBusyException(FlashSaleBusyException ex) {
+        return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, "Service busy", ex.getMessage(), null);
+    }
+
+    /**
+     * Handles calls to the Product Service that did not complete before their deadline.
+     *
+     * @param ex the {@link ProductServiceTimeoutException} indicating the deadline passed
+     * @return a {@link ResponseEntity} with a 504 Gateway Timeout response
+     */
+    @ExceptionHandler(ProductServiceTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleProductServiceTimeoutException(ProductServiceTimeoutException ex) {
+        return buildResponse(HttpStatus.GATEWAY_TIMEOUT, "Product Service timeout", ex.getMessage(), null);
+    }
+
     /**
      * Handles failures in inter-service communication via message brokers (e.g., RabbitMQ).
      *
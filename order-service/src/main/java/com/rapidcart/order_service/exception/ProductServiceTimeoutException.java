@@ -0,0 +1,11 @@
+package com.rapidcart.order_service.exception;
+
+/**
+ * Thrown when a call to the Product Service does not complete before its deadline.
+ */
+public class ProductServiceTimeoutException extends RuntimeException {
+
+    public ProductServiceTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.rapidcart.order_service.exception;
+
+/**
+ * Thrown when a flash-sale order finds no units left in the sale's token pool.
+ */
+public class SoldOutException extends RuntimeException {
+
+    public SoldOutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,50 @@
+package com.rapidcart.order_service.repository;
+
+import com.rapidcart.order_service.entity.OrderOutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    /**
+     * Locks the unclaimed events that are next in line for their order.
+     *
+     * <p>An event is next in line if no older event of the same order, claimed or not, is
+     * still in the outbox, so at most one event per order is returned and an order's events
+     * are published one after the other. The rows stay locked only until the caller claims them
+     * and commits; a relay on another instance waits for that commit and then skips the
+     * claimed events.</p>
+     *
+     * @param now   the current time; claims that lapsed before it are ignored
+     * @param limit the maximum batch size
+     * @return the locked events, oldest first
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OrderOutboxEvent e "
+            + "WHERE (e.claimedUntil IS NULL OR e.claimedUntil < :now) "
+            + "AND NOT EXISTS (SELECT o.id FROM OrderOutboxEvent o WHERE o.aggregateId = e.aggregateId "
+            + "AND (o.createdAt < e.createdAt OR (o.createdAt = e.createdAt AND o.id < e.id))) "
+            + "ORDER BY e.createdAt, e.id")
+    List<OrderOutboxEvent> findNextPerAggregate(@Param("now") Instant now, Limit limit);
+
+    /**
+     * Releases the claims on events, so that the next poll publishes them again.
+     *
+     * @param ids the event IDs
+     * @return the number of events released
+     */
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.claimedUntil = NULL WHERE e.id IN :ids")
+    int releaseClaims(@Param("ids") Collection<Long> ids);
+}
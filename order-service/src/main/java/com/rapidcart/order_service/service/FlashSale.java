@@ -0,0 +1,127 @@
+package com.rapidcart.order_service.service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The in-memory token pool of one product's flash sale.
+ * <p>
+ * Each token is one unit that was reserved from the Product Service when the sale was
+ * enabled. Orders claim tokens with a compare-and-set on a single counter, so admission
+ * takes no lock and does no I/O, and a request that finds too few tokens is turned away
+ * immediately. Once the sale is closed the counter holds a negative sentinel, so that no
+ * further tokens can be claimed or given back.
+ * <p>
+ * Instances are created and closed by {@link FlashSaleService}.
+ */
+public class FlashSale {
+
+    private static final int CLOSED = Integer.MIN_VALUE;
+
+    private final Long productId;
+    private final String productName;
+    private final BigDecimal unitPrice;
+    private final int allocatedUnits;
+    private final AtomicInteger remainingUnits;
+    private final LongAdder soldUnits = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    FlashSale(Long productId, String productName, BigDecimal unitPrice, int allocatedUnits) {
+        this.productId = productId;
+        this.productName = productName;
+        this.unitPrice = unitPrice;
+        this.allocatedUnits = allocatedUnits;
+        this.remainingUnits = new AtomicInteger(allocatedUnits);
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+
+    public int getAllocatedUnits() {
+        return allocatedUnits;
+    }
+
+    /**
+     * @return the number of unclaimed units, or {@code 0} once the sale is closed
+     */
+    public int getRemainingUnits() {
+        return Math.max(remainingUnits.get(), 0);
+    }
+
+    public long getSoldUnits() {
+        return soldUnits.sum();
+    }
+
+    public long getRejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    public boolean isClosed() {
+        return remainingUnits.get() == CLOSED;
+    }
+
+    /**
+     * Claims units for an order if enough are left, without blocking.
+     *
+     * @param quantity the number of units
+     * @return {@code true} if the units were claimed; {@code false} if too few are left or the
+     *         sale is closed, in which case the request is counted as rejected
+     */
+    boolean tryClaim(int quantity) {
+        int current;
+        do {
+            current = remainingUnits.get();
+            if (current < quantity) {
+                rejectedRequests.increment();
+                return false;
+            }
+        } while (!remainingUnits.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    /**
+     * Gives back units claimed by an order that was not written.
+     *
+     * @param quantity the number of units
+     * @return {@code true} if the units went back into the pool; {@code false} if the sale is
+     *         already closed, in which case the caller must return them to the Product Service
+     */
+    boolean giveBack(int quantity) {
+        int current;
+        do {
+            current = remainingUnits.get();
+            if (current == CLOSED) {
+                return false;
+            }
+        } while (!remainingUnits.compareAndSet(current, current + quantity));
+        return true;
+    }
+
+    /**
+     * Records units of a written order as sold.
+     *
+     * @param quantity the number of units
+     */
+    void sold(int quantity) {
+        soldUnits.add(quantity);
+    }
+
+    /**
+     * Closes the sale, so that no more units can be claimed.
+     *
+     * @return the units that were left unclaimed
+     */
+    int close() {
+        return Math.max(remainingUnits.getAndSet(CLOSED), 0);
+    }
+}
@@ -0,0 +1,361 @@
+package com.rapidcart.order_service.service;
+
+import com.rapidcart.order_service.client.ProductClient;
+import com.rapidcart.order_service.dto.FlashSaleStatusDto;
+import com.rapidcart.order_service.dto.OrderItemRequestDto;
+import com.rapidcart.order_service.dto.OrderRequestDto;
+import com.rapidcart.order_service.dto.StockReservationDto;
+import com.rapidcart.order_service.entity.Order;
+import com.rapidcart.order_service.entity.OrderItem;
+import com.rapidcart.order_service.exception.FlashSaleBusyException;
+import com.rapidcart.order_service.exception.ProductNotFoundException;
+import com.rapidcart.order_service.exception.ResourceNotFoundException;
+import com.rapidcart.order_service.exception.SoldOutException;
+import com.rapidcart.order_service.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code FlashSaleService} admits orders for products in flash-sale mode.
+ * <p>
+ * When a limited product drops, most of a stampede of requests cannot be served. In
+ * flash-sale mode those requests are turned away before doing any work:
+ * <ol>
+ *     <li>An operator enables the sale with a number of units, which are reserved from the
+ *         Product Service in one call and preloaded into the sale's {@link FlashSale} token pool,
+ *         together with the product's name and price.</li>
+ *     <li>Each order claims tokens with a lock-free compare-and-set. Requests that find too
+ *         few tokens fail at once with {@link SoldOutException}, without any HTTP call or
+ *         database access.</li>
+ *     <li>Winners are handed to a bounded queue drained by a single writer thread, which
+ *         inserts them in batches of up to {@code order.flash-sale.batch-size} per transaction,
+ *         together with their events in the outbox. The caller receives a future completed once its own order
+ *         is written. If the queue stays full for {@code order.flash-sale.enqueue-timeout}, the
+ *         tokens are given back and the request fails with {@link FlashSaleBusyException}.</li>
+ *     <li>Disabling the sale closes the pool and returns the unsold units to the Product Service.</li>
+ * </ol>
+ * <p>
+ * The work done per sale is therefore bounded by the number of units, not by the number of
+ * requests, and the database sees one writer however large the stampede. Sales are held in
+ * memory by each instance: when several instances run, each must be enabled with its share of
+ * the units, and units of a sale still open when an instance stops stay deducted in the
+ * Product Service.
+ */
+@Slf4j
+@Service
+public class FlashSaleService {
+
+    private final OrderRepository orderRepository;
+    private final ProductClient productClient;
+    private final ProductEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration enqueueTimeout;
+
+    private final Map<Long, FlashSale> sales = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingOrder> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public FlashSaleService(
+            OrderRepository orderRepository,
+            ProductClient productClient,
+            ProductEventPublisher eventPublisher,
+            TransactionTemplate transactionTemplate,
+            @Value("${order.flash-sale.queue-capacity:10000}") int queueCapacity,
+            @Value("${order.flash-sale.batch-size:200}") int batchSize,
+            @Value("${order.flash-sale.enqueue-timeout:100ms}") Duration enqueueTimeout
+    ) {
+        this.orderRepository = orderRepository;
+        this.productClient = productClient;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.enqueueTimeout = enqueueTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::writeOrders, "flash-sale-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    void start() {
+        writer.start();
+    }
+
+    /**
+     * Stops the writer once the orders already queued have been written.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(Duration.ofSeconds(10).toMillis());
+    }
+
+    /**
+     * Enables flash-sale mode for a product.
+     *
+     * @param productId the product ID
+     * @param units     the number of units to sell, reserved from the Product Service up front
+     * @return the status of the new sale
+     * @throws IllegalArgumentException if a sale is already enabled for the product
+     * @throws ProductNotFoundException if the product does not exist or is unavailable
+     * @throws com.rapidcart.order_service.exception.InsufficientStockException if the product has
+     *         fewer units in stock
+     */
+    public synchronized FlashSaleStatusDto enable(Long productId, int units) {
+        if (sales.containsKey(productId)) {
+            throw new IllegalArgumentException("A flash sale is already enabled for product with ID " + productId);
+        }
+        StockReservationDto reservation = productClient.reserveStock(productId, units);
+        if (reservation == null) {
+            throw new ProductNotFoundException("Product not found or unavailable");
+        }
+
+        FlashSale sale = new FlashSale(productId, reservation.getName(), reservation.getPrice(), units);
+        sales.put(productId, sale);
+        log.info("Enabled flash sale of {} units of product {}", units, productId);
+        return mapToStatusDto(sale, null);
+    }
+
+    /**
+     * Disables flash-sale mode for a product and returns its unsold units to the Product Service.
+     * <p>
+     * Orders that already won units are still written.
+     *
+     * @param productId the product ID
+     * @return the final status of the sale, including the units returned
+     * @throws ResourceNotFoundException if no sale is enabled for the product
+     */
+    public synchronized FlashSaleStatusDto disable(Long productId) {
+        FlashSale sale = sales.remove(productId);
+        if (sale == null) {
+            throw new ResourceNotFoundException("No flash sale is enabled for product with ID " + productId);
+        }
+        int unsold = sale.close();
+        if (unsold > 0) {
+            returnUnits(productId, unsold);
+        }
+        log.info("Disabled flash sale of product {}: {} units sold, {} returned", productId, sale.getSoldUnits(), unsold);
+        return mapToStatusDto(sale, unsold);
+    }
+
+    /**
+     * Retrieves the status of a product's flash sale.
+     *
+     * @param productId the product ID
+     * @return the status of the sale
+     * @throws ResourceNotFoundException if no sale is enabled for the product
+     */
+    public FlashSaleStatusDto getStatus(Long productId) {
+        FlashSale sale = sales.get(productId);
+        if (sale == null) {
+            throw new ResourceNotFoundException("No flash sale is enabled for product with ID " + productId);
+        }
+        return mapToStatusDto(sale, null);
+    }
+
+    /**
+     * Retrieves the status of every enabled flash sale.
+     *
+     * @return the statuses, ordered by product ID
+     */
+    public List<FlashSaleStatusDto> getAllStatuses() {
+        return sales.values().stream()
+                .sorted(Comparator.comparing(FlashSale::getProductId))
+                .map(sale -> mapToStatusDto(sale, null))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Places an order through the product's flash sale, if one is enabled.
+     * <p>
+     * Only single-line orders are admitted through a sale. Flash-sale products cannot be part of
+     * a multi-line order, since its lines are reserved together from the Product Service, which
+     * no longer holds the sale's units.
+     *
+     * @param orderRequestDto the order request
+     * @return a future completed with the order once it is written, or empty if no sale is
+     *         enabled for the product or the order has several lines
+     * @throws SoldOutException if the sale has too few units left
+     * @throws FlashSaleBusyException if the order won its units but could not be queued for writing
+     * @throws IllegalArgumentException if a multi-line order includes a product in flash-sale mode
+     */
+    public Optional<CompletableFuture<Order>> placeOrder(OrderRequestDto orderRequestDto) {
+        List<OrderItemRequestDto> lines = orderRequestDto.lines();
+        if (lines.size() != 1) {
+            lines.stream()
+                    .filter(line -> sales.containsKey(line.getProductId()))
+                    .findFirst()
+                    .ifPresent(line -> {
+                        throw new IllegalArgumentException("Product with ID " + line.getProductId()
+                                + " is in a flash sale and must be ordered on its own");
+                    });
+            return Optional.empty();
+        }
+        FlashSale sale = sales.get(lines.get(0).getProductId());
+        if (sale == null) {
+            return Optional.empty();
+        }
+        int quantity = lines.get(0).getQuantity();
+        if (!sale.tryClaim(quantity)) {
+            throw new SoldOutException("Product with ID " + sale.getProductId() + " is sold out");
+        }
+
+        BigDecimal totalPrice = sale.getUnitPrice().multiply(BigDecimal.valueOf(quantity));
+        Order order = Order.builder()
+                .totalPrice(totalPrice)
+                .customerId(orderRequestDto.getCustomerId())
+                .build();
+        order.addItem(OrderItem.builder()
+                .productId(sale.getProductId())
+                .productName(sale.getProductName())
+                .unitPrice(sale.getUnitPrice())
+                .quantity(quantity)
+                .totalPrice(totalPrice)
+                .build());
+        PendingOrder pending = new PendingOrder(sale, quantity, order, new CompletableFuture<>());
+
+        if (!enqueue(pending)) {
+            giveBack(sale, quantity);
+            throw new FlashSaleBusyException("Too many orders for product with ID " + sale.getProductId()
+                    + " are waiting to be written; please retry");
+        }
+        return Optional.of(pending.written());
+    }
+
+    private boolean enqueue(PendingOrder pending) {
+        try {
+            return queue.offer(pending, enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Runs on the writer thread: drains the queue in batches until the service stops.
+     * <p>
+     * A failed batch, even one failed by an {@link Error}, does not stop the thread: its orders
+     * are failed and their units given back, and the orders queued behind it are still written.
+     */
+    private void writeOrders() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                log.error("Flash sale writer failed", e);
+                fail(batch, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingOrder> batch) {
+        List<Order> saved;
+        try {
+            List<Order> orders = batch.stream().map(PendingOrder::order).collect(Collectors.toList());
+            saved = transactionTemplate.execute(status -> {
+                List<Order> written = orderRepository.saveAll(orders);
+                written.forEach(order -> eventPublisher.publishProductEvent("ORDER_CREATED", order));
+                return written;
+            });
+        } catch (Throwable e) {
+            fail(batch, e);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingOrder pending = batch.get(i);
+            pending.sale().sold(pending.quantity());
+            pending.written().complete(saved.get(i));
+        }
+    }
+
+    /**
+     * Fails the orders of a batch that have not been completed yet and gives their units back.
+     */
+    private void fail(List<PendingOrder> batch, Throwable cause) {
+        for (PendingOrder pending : batch) {
+            if (pending.written().isDone()) {
+                continue;
+            }
+            try {
+                giveBack(pending.sale(), pending.quantity());
+            } finally {
+                pending.written().completeExceptionally(cause);
+            }
+        }
+    }
+
+    /**
+     * Gives claimed units back to the sale, or to the Product Service if the sale has closed since.
+     */
+    private void giveBack(FlashSale sale, int quantity) {
+        if (!sale.giveBack(quantity)) {
+            try {
+                returnUnits(sale.getProductId(), quantity);
+            } catch (RuntimeException e) {
+                // Already logged; the order's own failure is what the caller reports
+            }
+        }
+    }
+
+    private void returnUnits(Long productId, int units) {
+        try {
+            productClient.returnStock(productId, units);
+        } catch (RuntimeException e) {
+            log.error("Could not return {} unsold flash-sale units of product {}; its stock must be corrected",
+                    units, productId, e);
+            throw e;
+        }
+    }
+
+    private FlashSaleStatusDto mapToStatusDto(FlashSale sale, Integer returnedUnits) {
+        return FlashSaleStatusDto.builder()
+                .productId(sale.getProductId())
+                .productName(sale.getProductName())
+                .unitPrice(sale.getUnitPrice())
+                .allocatedUnits(sale.getAllocatedUnits())
+                .remainingUnits(sale.getRemainingUnits())
+                .soldUnits(sale.getSoldUnits())
+                .rejectedRequests(sale.getRejectedRequests())
+                .active(!sale.isClosed())
+                .returnedUnits(returnedUnits)
+                .build();
+    }
+
+    /**
+     * An order that won its units and is waiting to be written.
+     */
+    private record PendingOrder(FlashSale sale, int quantity, Order order, CompletableFuture<Order> written) {
+    }
+}
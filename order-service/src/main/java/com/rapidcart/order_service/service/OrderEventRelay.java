@@ -0,0 +1,190 @@
+package com.rapidcart.order_service.service;
+
+import com.rapidcart.order_service.config.RabbitMQConfig;
+import com.rapidcart.order_service.dto.OrderEvent;
+import com.rapidcart.order_service.entity.OrderOutboxEvent;
+import com.rapidcart.order_service.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes the order events recorded in the outbox by {@link ProductEventPublisher}.
+ *
+ * <p>Every {@code order.outbox.poll-interval} the relay claims up to
+ * {@code order.outbox.batch-size} events in a short transaction and publishes them through the
+ * {@link PublisherConfirmPipeline}, so their confirms are awaited together rather than one
+ * round trip per event. Once all of them are confirmed or {@code order.outbox.confirm-timeout}
+ * has passed, a second transaction deletes the confirmed events and releases the claims on the
+ * others. No row lock or connection is held while the broker is awaited. Batches follow one
+ * another until the outbox is drained or an event fails.</p>
+ *
+ * <p>A batch holds only the oldest waiting event of each order, and an order's next event is
+ * not claimed while an older one is still in the outbox, so that retries of a nacked or
+ * returned event cannot reorder the events of one order. Events that are not confirmed are
+ * retried on the next poll. Relays on several instances claim disjoint batches; a claim lasts
+ * twice the confirm timeout, after which the events of a relay that never finished are
+ * claimed again. Delivery is at least once: an event whose confirm was lost is published
+ * again, with the same {@code messageId}, which consumers can use to drop duplicates.</p>
+ *
+ * <p>Published and failed events are counted in {@code order.outbox.published} and
+ * {@code order.outbox.failed}, and the delay between writing and confirming an event is
+ * recorded in {@code order.outbox.lag}. When no {@link RabbitTemplate} is configured, as in
+ * tests, the relay does nothing and events stay in the outbox.</p>
+ */
+@Slf4j
+@Component
+public class OrderEventRelay {
+
+    private final OrderOutboxRepository outboxRepository;
+    private final ObjectProvider<RabbitTemplate> rabbitTemplate;
+    private final PublisherConfirmPipeline confirmPipeline;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration confirmTimeout;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer lag;
+
+    public OrderEventRelay(
+            OrderOutboxRepository outboxRepository,
+            ObjectProvider<RabbitTemplate> rabbitTemplate,
+            PublisherConfirmPipeline confirmPipeline,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${order.outbox.batch-size:100}") int batchSize,
+            @Value("${order.outbox.confirm-timeout:5s}") Duration confirmTimeout
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.confirmPipeline = confirmPipeline;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+        this.publishedCounter = Counter.builder("order.outbox.published")
+                .description("Number of order events published from the outbox")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("order.outbox.failed")
+                .description("Number of order events that could not be published")
+                .register(meterRegistry);
+        this.lag = Timer.builder("order.outbox.lag")
+                .description("Delay between writing an order event and its publication being confirmed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes waiting events until the outbox is drained or an event fails.
+     */
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval:100ms}")
+    public void relay() {
+        if (rabbitTemplate.getIfAvailable() == null) {
+            return;
+        }
+        boolean moreWaiting;
+        do {
+            moreWaiting = relayBatch();
+        } while (moreWaiting);
+    }
+
+    /**
+     * Publishes one batch of events, deletes the confirmed ones and releases the others.
+     *
+     * @return {@code true} if every event was confirmed and more events may be waiting
+     */
+    private boolean relayBatch() {
+        List<OrderOutboxEvent> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.isEmpty()) {
+            return false;
+        }
+        Map<OrderOutboxEvent, CompletableFuture<Void>> published = new LinkedHashMap<>();
+        for (OrderOutboxEvent event : batch) {
+            published.put(event, confirmPipeline.publish(
+                    RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY, toMessage(event)));
+        }
+
+        try {
+            CompletableFuture.allOf(published.values().toArray(CompletableFuture[]::new))
+                    .exceptionally(e -> null)
+                    .get(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Not all outbox events were confirmed within {}; they are retried on the next poll",
+                    confirmTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+
+        Instant confirmedAt = Instant.now();
+        List<Long> confirmed = new ArrayList<>();
+        List<Long> unconfirmed = new ArrayList<>();
+        published.forEach((event, confirm) -> {
+            if (confirm.isDone() && !confirm.isCompletedExceptionally()) {
+                confirmed.add(event.getId());
+                lag.record(Duration.between(event.getCreatedAt(), confirmedAt));
+            } else {
+                unconfirmed.add(event.getId());
+                failedCounter.increment();
+                confirm.exceptionally(e -> {
+                    log.warn("Could not publish outbox event {}; it is retried on the next poll", event.getId(), e);
+                    return null;
+                });
+            }
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxRepository.deleteAllByIdInBatch(confirmed);
+            if (!unconfirmed.isEmpty()) {
+                outboxRepository.releaseClaims(unconfirmed);
+            }
+        });
+        publishedCounter.increment(confirmed.size());
+        return unconfirmed.isEmpty();
+    }
+
+    /**
+     * Claims the next event of up to {@code batchSize} orders, within the caller's transaction.
+     */
+    private List<OrderOutboxEvent> claimBatch() {
+        Instant now = Instant.now();
+        List<OrderOutboxEvent> batch = outboxRepository.findNextPerAggregate(now, Limit.of(batchSize));
+        Instant claimedUntil = now.plus(confirmTimeout.multipliedBy(2));
+        batch.forEach(event -> event.setClaimedUntil(claimedUntil));
+        return batch;
+    }
+
+    private Message toMessage(OrderOutboxEvent event) {
+        return MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setMessageId("order-outbox-" + event.getId())
+                .setTimestamp(Date.from(event.getCreatedAt()))
+                .setHeader("__TypeId__", OrderEvent.class.getName())
+                .setHeader("eventType", event.getEventType())
+                .build();
+    }
+}
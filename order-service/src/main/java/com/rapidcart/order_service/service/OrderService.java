@@ -1,21 +1,39 @@
 package com.rapidcart.order_service.service;
 
 import com.rapidcart.order_service.client.ProductClient;
+import com.rapidcart.order_service.dto.OrderItemRequestDto;
+import com.rapidcart.order_service.dto.OrderItemResponseDto;
 import com.rapidcart.order_service.dto.OrderRequestDto;
 import com.rapidcart.order_service.dto.OrderResponseDto;
-import com.rapidcart.order_service.dto.ProductDto;
+import com.rapidcart.order_service.dto.StockReservationDto;
 import com.rapidcart.order_service.entity.Order;
+import com.rapidcart.order_service.entity.OrderItem;
 import com.rapidcart.order_service.exception.InsufficientStockException;
 import com.rapidcart.order_service.exception.ProductNotFoundException;
+import com.rapidcart.order_service.exception.ProductServiceTimeoutException;
 import com.rapidcart.order_service.exception.ResourceNotFoundException;
 import com.rapidcart.order_service.repository.OrderRepository;
-import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -26,8 +44,15 @@ import java.util.stream.Collectors;
  * {@link ProductClient} to validate product details and stock availability, and
  * publishing product-related events using {@link ProductEventPublisher}.
  * <p>
- * All methods are annotated with {@link Transactional} to ensure atomic operations,
- * especially during order creation and stock reduction.
+ * Order creation runs in phases so that remote calls never hold a database connection:
+ * stock for all lines is reserved over non-blocking HTTP first, then the order, its lines and
+ * its event are written in one short transaction via {@link TransactionTemplate}. The event goes to the outbox
+ * table and is published by {@link OrderEventRelay} after the commit, so placing an order
+ * never waits for RabbitMQ. The Product Service commits the reservation before the order is
+ * written, so if writing the order fails, the reserved units are returned to it.
+ * <p>
+ * Orders for a product in flash-sale mode are admitted by {@link FlashSaleService} instead,
+ * which turns away requests it cannot serve before any remote call or database access.
  *
  * <p><b>Responsibilities:</b></p>
  * <ul>
@@ -48,8 +73,8 @@ import java.util.stream.Collectors;
  * @author
  * @since 1.0
  */
+@Slf4j
 @Service
-@Transactional
 public class OrderService {
 
     @Autowired
@@ -61,52 +86,163 @@ public class OrderService {
     @Autowired
     private ProductEventPublisher eventPublisher;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    @Value("${order.create-timeout:5s}")
+    private Duration createTimeout;
+
     /**
-     * Creates a new order after validating product details and stock availability.
+     * Creates a new order after reserving stock for the requested products, without blocking
+     * the calling thread on the Product Service.
      * <p>
      * This method performs the following steps:
      * <ol>
-     *     <li>Fetches product details using {@link ProductClient#getProduct(Long)}</li>
-     *     <li>Checks if sufficient stock is available for the requested quantity</li>
-     *     <li>Calculates total order price</li>
-     *     <li>Saves the order to the database</li>
-     *     <li>Reduces the product stock accordingly</li>
-     *     <li>Publishes an event to notify other services of the new order</li>
+     *     <li>Reserves the requested quantities using
+     *         {@link ProductClient#reserveStockAsync(Long, Integer, Instant)}, or for a multi-line
+     *         order {@link ProductClient#reserveStockAsync(List, Instant)}, which validate the
+     *         products, deduct stock and return their names and prices in one call, within
+     *         {@code order.create-timeout}. A multi-line reservation is all or nothing.</li>
+     *     <li>Calculates the price of each line and of the order</li>
+     *     <li>Saves the order with its lines, and one event notifying other services of it, to
+     *         the database in one short transaction</li>
      * </ol>
+     * <p>
+     * If the order cannot be saved, the reserved units are returned to the Product Service
+     * before the future fails. A reservation that misses its deadline is returned by
+     * {@link ProductClient} should it still succeed.
+     * <p>
+     * An order therefore costs one round trip to the Product Service, one insert of the order,
+     * one batch of inserts of its lines and one event, however many lines it has.
+     * <p>
+     * The reservation runs on the non-blocking HTTP client, so no thread waits for its
+     * response; the remaining steps run on the application task executor once it arrives.
+     * Only the inserts run inside a transaction; no database connection is checked out while
+     * the Product Service is being called, and the message broker is not called at all.
+     * <p>
+     * If the product of a single-line order is in flash-sale mode, the order is placed through
+     * {@link FlashSaleService#placeOrder(OrderRequestDto)} instead.
+     *
+     * @param orderRequestDto the order request containing the customer ID and the products and
+     *                        quantities to order
+     * @return a future completed with the created {@link OrderResponseDto}, or exceptionally with
+     *         {@link ProductNotFoundException} if a product does not exist or is unavailable,
+     *         {@link InsufficientStockException} if a product has insufficient stock, or
+     *         {@link ProductServiceTimeoutException} if the reservation misses its deadline
+     * @throws com.rapidcart.order_service.exception.SoldOutException if the product's flash sale is sold out
+     * @throws IllegalArgumentException if a multi-line order includes a product in flash-sale mode
+     */
+    public CompletableFuture<OrderResponseDto> createOrderAsync(OrderRequestDto orderRequestDto) {
+        Optional<CompletableFuture<Order>> flashSaleOrder = flashSaleService.placeOrder(orderRequestDto);
+        if (flashSaleOrder.isPresent()) {
+            return flashSaleOrder.get().thenApply(this::mapToResponseDto);
+        }
+
+        Instant deadline = Instant.now().plus(createTimeout);
+        List<OrderItemRequestDto> lines = orderRequestDto.lines();
+        CompletableFuture<List<StockReservationDto>> reservations = lines.size() == 1
+                ? productClient.reserveStockAsync(lines.get(0).getProductId(), lines.get(0).getQuantity(), deadline)
+                        .thenApply(Collections::singletonList)
+                : productClient.reserveStockAsync(lines, deadline);
+        return reservations.thenApplyAsync(reserved -> saveOrder(orderRequestDto, reserved), taskExecutor);
+    }
+
+    /**
+     * Creates a new order, waiting for it to be written.
      *
-     * @param orderRequestDto the order request containing product ID, quantity, and customer ID
+     * @param orderRequestDto the order request containing the customer ID and the products and
+     *                        quantities to order
      * @return the created {@link OrderResponseDto}
-     * @throws ProductNotFoundException if the product does not exist
-     * @throws InsufficientStockException if the product has insufficient stock
+     * @throws ProductNotFoundException if a product does not exist or is unavailable
+     * @throws InsufficientStockException if a product has insufficient stock
+     * @throws ProductServiceTimeoutException if the reservation misses its deadline
+     * @throws com.rapidcart.order_service.exception.SoldOutException if the product's flash sale is sold out
+     * @see #createOrderAsync(OrderRequestDto)
      */
     public OrderResponseDto createOrder(OrderRequestDto orderRequestDto) {
-        ProductDto product = productClient.getProduct(orderRequestDto.getProductId());
+        try {
+            return createOrderAsync(orderRequestDto).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
 
-        if (product == null || !product.getActiveStatus()) {
-            throw new ProductNotFoundException("Product not found or unavailable");
+    /**
+     * Saves an order for reserved stock, returning the reserved units if it cannot be saved.
+     */
+    private OrderResponseDto saveOrder(OrderRequestDto orderRequestDto, List<StockReservationDto> reservations) {
+        try {
+            return writeOrder(orderRequestDto, reservations);
+        } catch (RuntimeException | Error e) {
+            List<OrderItemRequestDto> lines = orderRequestDto.lines();
+            if (lines.size() == 1) {
+                // The reservation of a single-line order was made for its line
+                returnUnits(lines.get(0).getProductId(), lines.get(0).getQuantity());
+            } else {
+                reservations.stream()
+                        .filter(Objects::nonNull)
+                        .forEach(reservation -> returnUnits(reservation.getProductId(), reservation.getReservedQuantity()));
+            }
+            throw e;
         }
+    }
 
-        if (!productClient.checkStockAndValidate(orderRequestDto.getProductId(), orderRequestDto.getQuantity())) {
-            throw new InsufficientStockException("Insufficient stock");
+    private void returnUnits(Long productId, int units) {
+        try {
+            productClient.returnStock(productId, units);
+        } catch (RuntimeException e) {
+            log.error("Could not return {} units of product {} reserved for an order that was not saved; "
+                    + "its stock must be corrected", units, productId, e);
         }
+    }
 
-        BigDecimal totalPrice = product.getPrice().multiply(BigDecimal.valueOf(orderRequestDto.getQuantity()));
+    private OrderResponseDto writeOrder(OrderRequestDto orderRequestDto, List<StockReservationDto> reservations) {
+        List<OrderItemRequestDto> lines = orderRequestDto.lines();
+        Map<Long, StockReservationDto> reservationsByProduct = new HashMap<>();
+        if (lines.size() == 1) {
+            // The reservation of a single-line order was made for its line
+            reservationsByProduct.put(lines.get(0).getProductId(), reservations.get(0));
+        } else {
+            reservations.stream()
+                    .filter(Objects::nonNull)
+                    .forEach(reservation -> reservationsByProduct.put(reservation.getProductId(), reservation));
+        }
 
         Order order = Order.builder()
-                .productId(orderRequestDto.getProductId())
-                .productName(product.getName())
-                .unitPrice(product.getPrice())
-                .quantity(orderRequestDto.getQuantity())
-                .totalPrice(totalPrice)
                 .customerId(orderRequestDto.getCustomerId())
                 .build();
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        for (OrderItemRequestDto line : lines) {
+            StockReservationDto reservation = reservationsByProduct.get(line.getProductId());
+            if (reservation == null) {
+                throw new ProductNotFoundException("Product not found or unavailable");
+            }
+            BigDecimal lineTotal = reservation.getPrice().multiply(BigDecimal.valueOf(line.getQuantity()));
+            order.addItem(OrderItem.builder()
+                    .productId(line.getProductId())
+                    .productName(reservation.getName())
+                    .unitPrice(reservation.getPrice())
+                    .quantity(line.getQuantity())
+                    .totalPrice(lineTotal)
+                    .build());
+            totalPrice = totalPrice.add(lineTotal);
+        }
+        order.setTotalPrice(totalPrice);
 
-        Order savedOrder = orderRepository.save(order);
-
-        productClient.reduceStock(orderRequestDto.getProductId(), orderRequestDto.getQuantity());
-
-        // Trigger the event to notify other services about the new order
-        eventPublisher.publishProductEvent("ORDER_CREATED", savedOrder);
+        Order savedOrder = transactionTemplate.execute(status -> {
+            // Saves the header, then all lines in one JDBC batch
+            Order saved = orderRepository.save(order);
+            // Record the event in the outbox; OrderEventRelay publishes it once this commits
+            eventPublisher.publishProductEvent("ORDER_CREATED", saved);
+            return saved;
+        });
 
         return mapToResponseDto(savedOrder);
     }
@@ -118,15 +254,25 @@ public class OrderService {
      * @return a mapped {@link OrderResponseDto}
      */
     private OrderResponseDto mapToResponseDto(Order order) {
+        List<OrderItemResponseDto> items = order.getItems().stream()
+                .map(item -> new OrderItemResponseDto(
+                        item.getProductId(),
+                        item.getProductName(),
+                        item.getUnitPrice(),
+                        item.getQuantity(),
+                        item.getTotalPrice()))
+                .collect(Collectors.toList());
+        OrderItemResponseDto onlyItem = items.size() == 1 ? items.get(0) : new OrderItemResponseDto();
         return new OrderResponseDto(
                 order.getId(),
-                order.getProductId(),
-                order.getProductName(),
-                order.getUnitPrice(),
-                order.getQuantity(),
+                onlyItem.getProductId(),
+                onlyItem.getProductName(),
+                onlyItem.getUnitPrice(),
+                onlyItem.getQuantity(),
                 order.getTotalPrice(),
                 order.getCustomerId(),
-                order.getCreatedAt()
+                order.getCreatedAt(),
+                items
         );
     }
 
@@ -137,6 +283,7 @@ public class OrderService {
      * @return the corresponding {@link OrderResponseDto}
      * @throws RuntimeException if the order is not found
      */
+    @Transactional(readOnly = true)
     public OrderResponseDto getOrderById(Long id) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
@@ -149,6 +296,7 @@ public class OrderService {
      * @param pageable the pagination configuration
      * @return a list of {@link OrderResponseDto} representing all paginated orders
      */
+    @Transactional(readOnly = true)
     public List<OrderResponseDto> getAllOrders(Pageable pageable) {
         return orderRepository.findAll(pageable)
                 .stream()
@@ -162,6 +310,7 @@ public class OrderService {
      * @param customerId the unique ID of the customer
      * @return a list of {@link OrderResponseDto} for the given customer
      */
+    @Transactional(readOnly = true)
     public List<OrderResponseDto> getOrdersByCustomerId(Long customerId) {
         return orderRepository.findByCustomerIdOrderByCreatedAtDesc(customerId)
                 .stream()
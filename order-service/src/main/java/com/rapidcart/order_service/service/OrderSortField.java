@@ -0,0 +1,60 @@
+package com.rapidcart.order_service.service;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * The order attributes that listings may be sorted by.
+ *
+ * <p>Each field is backed by an index whose trailing column is {@code id} (see
+ * {@link com.rapidcart.order_service.entity.Order}), so that a page is read in index order
+ * instead of sorting the whole table.</p>
+ */
+public enum OrderSortField {
+
+    ID("id"),
+    CREATED_AT("createdAt"),
+    TOTAL_PRICE("totalPrice"),
+    CUSTOMER_ID("customerId");
+
+    private final String property;
+
+    OrderSortField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Builds the sort order for this field, with {@code id} as the tie-breaker so that the
+     * order is total and matches the supporting index.
+     *
+     * @param direction the sort direction, applied to both columns
+     * @return the sort order
+     */
+    public Sort sort(Sort.Direction direction) {
+        Sort sort = Sort.by(direction, property);
+        return this == ID ? sort : sort.and(Sort.by(direction, ID.property));
+    }
+
+    /**
+     * Resolves a sort field from its property name.
+     *
+     * @param property the property name supplied by the client
+     * @return the matching sort field
+     * @throws IllegalArgumentException if the property is not sortable
+     */
+    public static OrderSortField fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equals(property))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Cannot sort orders by '" + property
+                        + "'. Allowed fields: " + Arrays.stream(values())
+                        .map(OrderSortField::getProperty)
+                        .collect(Collectors.joining(", "))));
+    }
+}
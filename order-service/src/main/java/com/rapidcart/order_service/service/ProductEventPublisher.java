@@ -1,24 +1,49 @@
 package com.rapidcart.order_service.service;
 
-import com.rapidcart.order_service.config.RabbitMQConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rapidcart.order_service.dto.OrderEvent;
 import com.rapidcart.order_service.entity.Order;
+import com.rapidcart.order_service.entity.OrderOutboxEvent;
+import com.rapidcart.order_service.repository.OrderOutboxRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Records order events in the transactional outbox.
+ * <p>
+ * Events are written to the {@code order_outbox} table in the caller's transaction, together
+ * with the order they describe, and published to RabbitMQ by {@link OrderEventRelay} once
+ * that transaction has committed. Placing an order therefore never waits for the broker, and
+ * an event is published if and only if its order was saved.
+ */
 @Service
 @RequiredArgsConstructor
 public class ProductEventPublisher {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OrderOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * Records an event about an order in the outbox.
+     *
+     * @param eventType the type of event, such as {@code ORDER_CREATED}
+     * @param payload   the saved order
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishProductEvent(String eventType, Order payload) {
         OrderEvent event = new OrderEvent(eventType, payload);
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.EXCHANGE_NAME,
-                RabbitMQConfig.ROUTING_KEY,
-                event
-        );
+        try {
+            outboxRepository.save(OrderOutboxEvent.builder()
+                    .aggregateId(payload.getId())
+                    .eventType(eventType)
+                    .payload(objectMapper.writeValueAsString(event))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + eventType + " event for order " + payload.getId(), e);
+        }
     }
-}
\ No newline at end of file
+}
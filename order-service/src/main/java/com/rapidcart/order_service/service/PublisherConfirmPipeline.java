@@ -0,0 +1,286 @@
+package com.rapidcart.order_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes messages with asynchronous publisher confirms, keeping many messages in flight.
+ *
+ * <p>Each message is sent with its own {@link CorrelationData} and tracked in a concurrent map
+ * until RabbitMQ confirms it. The caller gets a future instead of waiting for the confirm, so
+ * confirms of consecutive messages overlap rather than each costing a round trip. At most
+ * {@code order.events.max-in-flight} messages are unconfirmed at a time; further publishes
+ * wait for a slot, up to {@code order.events.in-flight-wait}.</p>
+ *
+ * <p>Messages are sent as mandatory, so a message that no queue accepts is returned rather than
+ * dropped. Nacked and returned messages, and attempts whose confirm has not arrived within
+ * {@code order.events.confirm-timeout}, are sent again after {@code order.events.retry-backoff}
+ * times the attempt number, up to {@code order.events.max-attempts} attempts in all, after which
+ * their future fails and their slot is freed, so lost confirms cannot use up the slots. A
+ * confirm arriving after its attempt expired is ignored. Messages can therefore overtake earlier messages that are being retried;
+ * callers that need an order must not have two related messages in flight at once.</p>
+ *
+ * <p>The pipeline registers itself as the {@link RabbitTemplate}'s confirm and returns callback.
+ * Unconfirmed messages are exposed as the {@code order.events.in-flight} gauge, and outcomes are
+ * counted in {@code order.events.confirmed}, {@code order.events.retried} (tagged by reason) and
+ * {@code order.events.failed}. When no {@link RabbitTemplate} is configured, as in tests,
+ * publishes fail at once. When the pipeline stops, the futures of messages not yet confirmed
+ * fail.</p>
+ */
+@Slf4j
+@Component
+public class PublisherConfirmPipeline {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final Semaphore slots;
+    private final Duration inFlightWait;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration confirmTimeout;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    // Messages whose future is not complete yet, including those waiting for a retry
+    private final Set<InFlight> outstanding = ConcurrentHashMap.newKeySet();
+    private final ScheduledThreadPoolExecutor retries = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "publisher-confirm-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter confirmedCounter;
+    private final Counter nackedCounter;
+    private final Counter returnedCounter;
+    private final Counter expiredCounter;
+    private final Counter failedCounter;
+
+    public PublisherConfirmPipeline(
+            ObjectProvider<RabbitTemplate> rabbitTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${order.events.max-in-flight:256}") int maxInFlight,
+            @Value("${order.events.in-flight-wait:5s}") Duration inFlightWait,
+            @Value("${order.events.max-attempts:3}") int maxAttempts,
+            @Value("${order.events.retry-backoff:200ms}") Duration retryBackoff,
+            @Value("${order.events.confirm-timeout:5s}") Duration confirmTimeout
+    ) {
+        this.rabbitTemplate = rabbitTemplate.getIfAvailable();
+        this.slots = new Semaphore(maxInFlight);
+        this.inFlightWait = inFlightWait;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.confirmTimeout = confirmTimeout;
+        // Expiries are cancelled by almost every confirm; do not keep them queued until they are due
+        this.retries.setRemoveOnCancelPolicy(true);
+        if (this.rabbitTemplate != null) {
+            this.rabbitTemplate.setConfirmCallback(this::confirm);
+            this.rabbitTemplate.setReturnsCallback(this::returned);
+        }
+
+        Gauge.builder("order.events.in-flight", inFlight, Map::size)
+                .description("Number of published messages waiting for a publisher confirm")
+                .register(meterRegistry);
+        this.confirmedCounter = Counter.builder("order.events.confirmed")
+                .description("Number of messages confirmed by the broker")
+                .register(meterRegistry);
+        this.nackedCounter = Counter.builder("order.events.retried")
+                .description("Number of messages sent again after a failed attempt")
+                .tag("reason", "nack")
+                .register(meterRegistry);
+        this.returnedCounter = Counter.builder("order.events.retried")
+                .description("Number of messages sent again after a failed attempt")
+                .tag("reason", "returned")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("order.events.retried")
+                .description("Number of messages sent again after a failed attempt")
+                .tag("reason", "timeout")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("order.events.failed")
+                .description("Number of messages not confirmed after every attempt")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes a message and returns without waiting for its confirm, unless the pipeline is full.
+     *
+     * @param exchange   the exchange to publish to
+     * @param routingKey the routing key
+     * @param message    the message
+     * @return a future completed once the broker has confirmed the message, or exceptionally with
+     *         an {@link AmqpException} once every attempt failed or if no slot became free in time
+     */
+    public CompletableFuture<Void> publish(String exchange, String routingKey, Message message) {
+        if (rabbitTemplate == null) {
+            return CompletableFuture.failedFuture(new AmqpException("No RabbitTemplate is configured"));
+        }
+        try {
+            if (!slots.tryAcquire(inFlightWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                return CompletableFuture.failedFuture(
+                        new AmqpException("Too many unconfirmed messages; none confirmed within " + inFlightWait));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(new AmqpException("Interrupted while waiting to publish", e));
+        }
+
+        InFlight pending = new InFlight(exchange, routingKey, message, new CompletableFuture<>());
+        outstanding.add(pending);
+        // The slot is held across attempts and freed however the message ends
+        pending.confirmed().whenComplete((result, failure) -> {
+            outstanding.remove(pending);
+            slots.release();
+        });
+        if (retries.isShutdown()) {
+            pending.confirmed().completeExceptionally(new AmqpException("Publisher confirm pipeline is stopped"));
+        } else {
+            send(pending, 1);
+        }
+        return pending.confirmed();
+    }
+
+    /**
+     * Called by the {@link RabbitTemplate} when the broker acks or nacks a message.
+     *
+     * @param correlation the correlation the message was sent with
+     * @param ack         whether the broker accepted the message
+     * @param cause       why the message was nacked, if it was
+     */
+    void confirm(CorrelationData correlation, boolean ack, String cause) {
+        if (correlation == null) {
+            return;
+        }
+        InFlight message = inFlight.remove(correlation.getId());
+        if (message == null) {
+            return;
+        }
+        int attempt = 1;
+        if (correlation instanceof Attempt sent) {
+            attempt = sent.number;
+            sent.cancelExpiry();
+        }
+        if (!ack) {
+            retryOrFail(message, attempt, nackedCounter, "nacked: " + cause);
+        } else if (correlation.getReturned() != null) {
+            ReturnedMessage returned = correlation.getReturned();
+            retryOrFail(message, attempt, returnedCounter,
+                    "returned: " + returned.getReplyCode() + " " + returned.getReplyText());
+        } else {
+            confirmedCounter.increment();
+            message.confirmed().complete(null);
+        }
+    }
+
+    /**
+     * Called by the {@link RabbitTemplate} when a mandatory message could not be routed. The
+     * message is retried once its confirm arrives, which carries the same return.
+     */
+    void returned(ReturnedMessage returned) {
+        log.debug("Message returned by {} with {} {}", returned.getExchange(),
+                returned.getReplyCode(), returned.getReplyText());
+    }
+
+    private void send(InFlight message, int attempt) {
+        Attempt correlation = new Attempt(UUID.randomUUID().toString(), attempt);
+        inFlight.put(correlation.getId(), message);
+        try {
+            correlation.expiry = retries.schedule(() -> expire(correlation, message),
+                    confirmTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(correlation.getId());
+            message.confirmed().completeExceptionally(new AmqpException("Publisher confirm pipeline is stopped"));
+            return;
+        }
+        try {
+            rabbitTemplate.send(message.exchange(), message.routingKey(), message.message(), correlation);
+        } catch (AmqpException e) {
+            if (inFlight.remove(correlation.getId()) != null) {
+                correlation.cancelExpiry();
+                retryOrFail(message, attempt, nackedCounter, "not sent: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gives up on an attempt whose confirm has not arrived in time.
+     */
+    private void expire(Attempt correlation, InFlight message) {
+        if (inFlight.remove(correlation.getId(), message)) {
+            retryOrFail(message, correlation.number, expiredCounter, "not confirmed within " + confirmTimeout);
+        }
+    }
+
+    private void retryOrFail(InFlight message, int attempt, Counter reason, String cause) {
+        if (attempt < maxAttempts) {
+            reason.increment();
+            long delay = retryBackoff.toMillis() * attempt;
+            try {
+                retries.schedule(() -> send(message, attempt + 1), delay, TimeUnit.MILLISECONDS);
+                return;
+            } catch (RejectedExecutionException e) {
+                // Stopped; fail below
+            }
+        }
+        failedCounter.increment();
+        message.confirmed().completeExceptionally(
+                new AmqpException("Message not confirmed after " + attempt + " attempts, last " + cause));
+    }
+
+    /**
+     * Stops retrying and fails the futures of the messages not confirmed yet.
+     */
+    @PreDestroy
+    void stop() {
+        retries.shutdownNow();
+        inFlight.clear();
+        AmqpException stopped = new AmqpException("Publisher confirm pipeline stopped before the message was confirmed");
+        for (InFlight message : outstanding) {
+            message.confirmed().completeExceptionally(stopped);
+        }
+    }
+
+    /**
+     * A message waiting for its confirm, across attempts.
+     */
+    private record InFlight(String exchange, String routingKey, Message message, CompletableFuture<Void> confirmed) {
+    }
+
+    /**
+     * The correlation of one attempt at sending a message.
+     */
+    private static final class Attempt extends CorrelationData {
+
+        private final int number;
+        private volatile ScheduledFuture<?> expiry;
+
+        private Attempt(String id, int number) {
+            super(id);
+            this.number = number;
+        }
+
+        void cancelExpiry() {
+            ScheduledFuture<?> scheduled = expiry;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+}
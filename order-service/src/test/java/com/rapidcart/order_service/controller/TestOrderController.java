@@ -2,9 +2,13 @@ package com.rapidcart.order_service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rapidcart.order_service.client.ProductClient;
+import com.rapidcart.order_service.dto.OrderItemRequestDto;
 import com.rapidcart.order_service.dto.OrderRequestDto;
-import com.rapidcart.order_service.dto.ProductDto;
+import com.rapidcart.order_service.dto.StockReservationDto;
 import com.rapidcart.order_service.entity.Order;
+import com.rapidcart.order_service.entity.OrderItem;
+import com.rapidcart.order_service.exception.InsufficientStockException;
+import com.rapidcart.order_service.exception.ProductServiceTimeoutException;
 import com.rapidcart.order_service.repository.OrderRepository;
 import com.rapidcart.order_service.service.ProductEventPublisher;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,14 +20,22 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.Matchers.*;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -49,7 +61,7 @@ public class TestOrderController {
     private ProductEventPublisher productEventPublisher;
 
     private OrderRequestDto testOrderRequest;
-    private ProductDto testProduct;
+    private StockReservationDto testReservation;
     private Order testOrder;
 
     @BeforeEach
@@ -63,37 +75,25 @@ public class TestOrderController {
                 .quantity(2)
                 .build();
 
-        testProduct = ProductDto.builder()
-                .id(101L)
+        testReservation = StockReservationDto.builder()
+                .productId(101L)
                 .name("Test Product")
-                .sku("TEST-SKU-001")
                 .price(new BigDecimal("99.99"))
-                .stock(50)
-                .activeStatus(true)
+                .version(1)
+                .reservedQuantity(2)
+                .remainingStock(48)
                 .build();
 
-        testOrder = Order.builder()
-                .customerId(1L)
-                .productId(101L)
-                .productName("Test Product")
-                .unitPrice(new BigDecimal("99.99"))
-                .quantity(2)
-                .totalPrice(new BigDecimal("199.98"))
-                .createdAt(LocalDateTime.now())
-                .build();
+        testOrder = order(1L, 101L, "Test Product", new BigDecimal("99.99"), 2, LocalDateTime.now());
     }
 
     @Test
     void shouldCreateOrderSuccessfully() throws Exception {
         // Mock product client responses
-        when(productClient.getProduct(101L)).thenReturn(testProduct);
-        when(productClient.checkStockAndValidate(101L, 2)).thenReturn(true);
-        doNothing().when(productClient).reduceStock(101L, 2);
+        when(productClient.reserveStockAsync(eq(101L), eq(2), any())).thenReturn(completedFuture(testReservation));
         doNothing().when(productEventPublisher).publishProductEvent(anyString(), any());
 
-        mockMvc.perform(post("/api/orders")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(testOrderRequest)))
+        createOrder(testOrderRequest)
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.customerId").value(1))
                 .andExpect(jsonPath("$.productId").value(101))
@@ -104,10 +104,9 @@ public class TestOrderController {
                 .andExpect(jsonPath("$.id").exists())
                 .andExpect(jsonPath("$.createdAt").exists());
 
-        // Verify interactions with mocked services
-        verify(productClient).getProduct(101L);
-        verify(productClient).checkStockAndValidate(101L, 2);
-        verify(productClient).reduceStock(101L, 2);
+        // Verify a single product-service call was made
+        verify(productClient).reserveStockAsync(eq(101L), eq(2), any());
+        verifyNoMoreInteractions(productClient);
         verify(productEventPublisher).publishProductEvent(anyString(), any());
     }
 
@@ -148,8 +147,8 @@ public class TestOrderController {
 
     @Test
     void shouldReturnNotFoundWhenCreatingOrderForNonExistentProduct() throws Exception {
-        when(productClient.getProduct(999L))
-                .thenThrow(new RuntimeException("Product not found"));
+        when(productClient.reserveStockAsync(eq(999L), eq(1), any()))
+                .thenReturn(failedFuture(new RuntimeException("Product not found")));
 
         OrderRequestDto orderForNonExistentProduct = OrderRequestDto.builder()
                 .customerId(1L)
@@ -157,20 +156,18 @@ public class TestOrderController {
                 .quantity(1)
                 .build();
 
-        mockMvc.perform(post("/api/orders")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(orderForNonExistentProduct)))
+        createOrder(orderForNonExistentProduct)
                 .andExpect(status().isInternalServerError());
 
-        verify(productClient).getProduct(999L);
+        verify(productClient).reserveStockAsync(eq(999L), eq(1), any());
         verifyNoMoreInteractions(productClient);
         verifyNoInteractions(productEventPublisher);
     }
 
     @Test
     void shouldReturnBadRequestWhenInsufficientStock() throws Exception {
-        when(productClient.getProduct(101L)).thenReturn(testProduct);
-        when(productClient.checkStockAndValidate(101L, 100)).thenReturn(false);
+        when(productClient.reserveStockAsync(eq(101L), eq(100), any()))
+                .thenReturn(failedFuture(new InsufficientStockException("Insufficient stock")));
 
         OrderRequestDto orderWithInsufficientStock = OrderRequestDto.builder()
                 .customerId(1L)
@@ -178,14 +175,11 @@ public class TestOrderController {
                 .quantity(100) // More than available stock
                 .build();
 
-        mockMvc.perform(post("/api/orders")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(orderWithInsufficientStock)))
+        createOrder(orderWithInsufficientStock)
                 .andExpect(status().isBadRequest());
 
-        verify(productClient).getProduct(101L);
-        verify(productClient).checkStockAndValidate(101L, 100);
-        verify(productClient, never()).reduceStock(anyLong(), anyInt());
+        verify(productClient).reserveStockAsync(eq(101L), eq(100), any());
+        verifyNoMoreInteractions(productClient);
         verifyNoInteractions(productEventPublisher);
     }
 
@@ -215,15 +209,8 @@ public class TestOrderController {
     void shouldGetAllOrdersSuccessfully() throws Exception {
         // Save test orders
         Order order1 = orderRepository.save(testOrder);
-        Order order2 = orderRepository.save(Order.builder()
-                .customerId(2L)
-                .productId(102L)
-                .productName("Second Product")
-                .unitPrice(new BigDecimal("149.99"))
-                .quantity(1)
-                .totalPrice(new BigDecimal("149.99"))
-                .createdAt(LocalDateTime.now())
-                .build());
+        Order order2 = orderRepository.save(
+                order(2L, 102L, "Second Product", new BigDecimal("149.99"), 1, LocalDateTime.now()));
 
         mockMvc.perform(get("/api/orders"))
                 .andExpect(status().isOk())
@@ -238,15 +225,8 @@ public class TestOrderController {
     void shouldGetAllOrdersWithPaginationAndSorting() throws Exception {
         // Save multiple test orders
         for (int i = 1; i <= 5; i++) {
-            orderRepository.save(Order.builder()
-                    .customerId((long) i)
-                    .productId((long) (100 + i))
-                    .productName("Product " + i)
-                    .unitPrice(new BigDecimal("100.00").add(new BigDecimal(i)))
-                    .quantity(i)
-                    .totalPrice(new BigDecimal("100.00").add(new BigDecimal(i)).multiply(new BigDecimal(i)))
-                    .createdAt(LocalDateTime.now().minusMinutes(i))
-                    .build());
+            orderRepository.save(order((long) i, (long) (100 + i), "Product " + i,
+                    new BigDecimal("100.00").add(new BigDecimal(i)), i, LocalDateTime.now().minusMinutes(i)));
         }
 
         // Test pagination and sorting
@@ -259,30 +239,24 @@ public class TestOrderController {
                 .andExpect(jsonPath("$", hasSize(3)));
     }
 
+    @Test
+    void shouldRejectSortingByUnknownField() throws Exception {
+        mockMvc.perform(get("/api/orders")
+                .param("sortBy", "productName"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Cannot sort orders by 'productName'")));
+    }
+
     @Test
     void shouldGetOrdersByCustomerIdSuccessfully() throws Exception {
         // Save orders for different customers
         Order customerOrder1 = orderRepository.save(testOrder);
-        Order customerOrder2 = orderRepository.save(Order.builder()
-                .customerId(1L) // Same customer
-                .productId(102L)
-                .productName("Second Product")
-                .unitPrice(new BigDecimal("149.99"))
-                .quantity(1)
-                .totalPrice(new BigDecimal("149.99"))
-                .createdAt(LocalDateTime.now())
-                .build());
+        // Same customer
+        Order customerOrder2 = orderRepository.save(
+                order(1L, 102L, "Second Product", new BigDecimal("149.99"), 1, LocalDateTime.now()));
 
         // Order for different customer
-        orderRepository.save(Order.builder()
-                .customerId(2L) // Different customer
-                .productId(103L)
-                .productName("Third Product")
-                .unitPrice(new BigDecimal("199.99"))
-                .quantity(1)
-                .totalPrice(new BigDecimal("199.99"))
-                .createdAt(LocalDateTime.now())
-                .build());
+        orderRepository.save(order(2L, 103L, "Third Product", new BigDecimal("199.99"), 1, LocalDateTime.now()));
 
         mockMvc.perform(get("/api/orders/customer/{customerId}", 1L))
                 .andExpect(status().isOk())
@@ -316,15 +290,11 @@ public class TestOrderController {
     @Test
     void shouldCreateMultipleOrdersForSameCustomer() throws Exception {
         // Mock product client for multiple calls
-        when(productClient.getProduct(anyLong())).thenReturn(testProduct);
-        when(productClient.checkStockAndValidate(anyLong(), anyInt())).thenReturn(true);
-        doNothing().when(productClient).reduceStock(anyLong(), anyInt());
+        when(productClient.reserveStockAsync(anyLong(), anyInt(), any())).thenReturn(completedFuture(testReservation));
         doNothing().when(productEventPublisher).publishProductEvent(anyString(), any());
 
         // Create first order
-        mockMvc.perform(post("/api/orders")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(testOrderRequest)))
+        createOrder(testOrderRequest)
                 .andExpect(status().isCreated());
 
         // Create second order for same customer
@@ -334,9 +304,7 @@ public class TestOrderController {
                 .quantity(1)
                 .build();
 
-        mockMvc.perform(post("/api/orders")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(secondOrder)))
+        createOrder(secondOrder)
                 .andExpect(status().isCreated());
 
         // Verify both orders exist for the customer
@@ -347,18 +315,16 @@ public class TestOrderController {
 
     @Test
     void shouldCalculateTotalPriceCorrectly() throws Exception {
-        ProductDto expensiveProduct = ProductDto.builder()
-                .id(201L)
+        StockReservationDto expensiveReservation = StockReservationDto.builder()
+                .productId(201L)
                 .name("Expensive Product")
-                .sku("EXP-001")
                 .price(new BigDecimal("999.99"))
-                .stock(10)
-                .activeStatus(true)
+                .version(1)
+                .reservedQuantity(3)
+                .remainingStock(7)
                 .build();
 
-        when(productClient.getProduct(201L)).thenReturn(expensiveProduct);
-        when(productClient.checkStockAndValidate(201L, 3)).thenReturn(true);
-        doNothing().when(productClient).reduceStock(201L, 3);
+        when(productClient.reserveStockAsync(eq(201L), eq(3), any())).thenReturn(completedFuture(expensiveReservation));
         doNothing().when(productEventPublisher).publishProductEvent(anyString(), any());
 
         OrderRequestDto expensiveOrder = OrderRequestDto.builder()
@@ -367,12 +333,258 @@ public class TestOrderController {
                 .quantity(3)
                 .build();
 
-        mockMvc.perform(post("/api/orders")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(expensiveOrder)))
+        createOrder(expensiveOrder)
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.unitPrice").value(999.99))
                 .andExpect(jsonPath("$.quantity").value(3))
                 .andExpect(jsonPath("$.totalPrice").value(2999.97)); // 999.99 * 3
     }
+
+    @Test
+    void shouldSellFlashSaleUnitsFromMemoryAndRejectTheRest() throws Exception {
+        when(productClient.reserveStock(301L, 3)).thenReturn(StockReservationDto.builder()
+                .productId(301L)
+                .name("Limited Sneaker")
+                .price(new BigDecimal("199.99"))
+                .version(1)
+                .reservedQuantity(3)
+                .remainingStock(0)
+                .build());
+
+        mockMvc.perform(post("/api/orders/flash-sales/{productId}", 301L)
+                .param("units", "3"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.productName").value("Limited Sneaker"))
+                .andExpect(jsonPath("$.allocatedUnits").value(3))
+                .andExpect(jsonPath("$.remainingUnits").value(3))
+                .andExpect(jsonPath("$.active").value(true));
+
+        OrderRequestDto flashSaleOrder = OrderRequestDto.builder()
+                .customerId(1L)
+                .productId(301L)
+                .quantity(1)
+                .build();
+        for (int i = 0; i < 3; i++) {
+            createOrder(flashSaleOrder)
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.productName").value("Limited Sneaker"))
+                    .andExpect(jsonPath("$.totalPrice").value(199.99));
+        }
+        mockMvc.perform(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(flashSaleOrder)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Sold out"));
+
+        mockMvc.perform(get("/api/orders/flash-sales/{productId}", 301L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.remainingUnits").value(0))
+                .andExpect(jsonPath("$.soldUnits").value(3))
+                .andExpect(jsonPath("$.rejectedRequests").value(1));
+
+        mockMvc.perform(delete("/api/orders/flash-sales/{productId}", 301L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(false))
+                .andExpect(jsonPath("$.returnedUnits").value(0));
+
+        // The stock was reserved once for the whole sale and nothing was left to return
+        verify(productClient).reserveStock(301L, 3);
+        verifyNoMoreInteractions(productClient);
+        assertEquals(3, orderRepository.count());
+    }
+
+    @Test
+    void shouldReturnUnsoldFlashSaleUnitsWhenDisabled() throws Exception {
+        when(productClient.reserveStock(302L, 5)).thenReturn(StockReservationDto.builder()
+                .productId(302L)
+                .name("Limited Watch")
+                .price(new BigDecimal("49.99"))
+                .version(1)
+                .reservedQuantity(5)
+                .remainingStock(10)
+                .build());
+
+        mockMvc.perform(post("/api/orders/flash-sales/{productId}", 302L)
+                .param("units", "5"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/orders/flash-sales/{productId}", 302L)
+                .param("units", "5"))
+                .andExpect(status().isBadRequest());
+
+        createOrder(OrderRequestDto.builder()
+                .customerId(1L)
+                .productId(302L)
+                .quantity(2)
+                .build())
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(delete("/api/orders/flash-sales/{productId}", 302L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.soldUnits").value(2))
+                .andExpect(jsonPath("$.returnedUnits").value(3));
+        verify(productClient).returnStock(302L, 3);
+
+        mockMvc.perform(get("/api/orders/flash-sales/{productId}", 302L))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/orders/flash-sales/{productId}", 302L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReturnGatewayTimeoutWhenProductServiceMissesDeadline() throws Exception {
+        when(productClient.reserveStockAsync(eq(101L), eq(2), any()))
+                .thenReturn(failedFuture(new ProductServiceTimeoutException("Product Service did not respond in time")));
+
+        createOrder(testOrderRequest)
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.error").value("Product Service timeout"));
+
+        verifyNoInteractions(productEventPublisher);
+        assertEquals(0, orderRepository.count());
+    }
+
+    @Test
+    void shouldCreateMultiLineOrderWithOneBatchedReservation() throws Exception {
+        when(productClient.reserveStockAsync(anyList(), any())).thenReturn(completedFuture(List.of(
+                testReservation,
+                StockReservationDto.builder()
+                        .productId(102L)
+                        .name("Second Product")
+                        .price(new BigDecimal("149.99"))
+                        .version(3)
+                        .reservedQuantity(1)
+                        .remainingStock(9)
+                        .build())));
+
+        OrderRequestDto cart = OrderRequestDto.builder()
+                .customerId(1L)
+                .items(List.of(new OrderItemRequestDto(101L, 2), new OrderItemRequestDto(102L, 1)))
+                .build();
+
+        MvcResult created = createOrder(cart)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.totalPrice").value(349.97))
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].productId").value(101))
+                .andExpect(jsonPath("$.items[0].quantity").value(2))
+                .andExpect(jsonPath("$.items[0].totalPrice").value(199.98))
+                .andExpect(jsonPath("$.items[1].productName").value("Second Product"))
+                .andExpect(jsonPath("$.items[1].totalPrice").value(149.99))
+                .andExpect(jsonPath("$.productId").doesNotExist())
+                .andExpect(jsonPath("$.productName").doesNotExist())
+                .andReturn();
+
+        // One product-service call for the whole cart, one event for the whole order
+        verify(productClient).reserveStockAsync(eq(cart.getItems()), any());
+        verifyNoMoreInteractions(productClient);
+        verify(productEventPublisher).publishProductEvent(eq("ORDER_CREATED"), any());
+
+        Long orderId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(get("/api/orders/{id}", orderId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[1].productId").value(102));
+    }
+
+    @Test
+    void shouldCreateNoOrderWhenAnyLineCannotBeReserved() throws Exception {
+        when(productClient.reserveStockAsync(anyList(), any()))
+                .thenReturn(failedFuture(new InsufficientStockException("Insufficient stock for product 102")));
+
+        createOrder(OrderRequestDto.builder()
+                .customerId(1L)
+                .items(List.of(new OrderItemRequestDto(101L, 2), new OrderItemRequestDto(102L, 100)))
+                .build())
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productEventPublisher);
+        assertEquals(0, orderRepository.count());
+    }
+
+    @Test
+    void shouldRejectOrderWithBothProductAndItems() throws Exception {
+        OrderRequestDto ambiguousOrder = OrderRequestDto.builder()
+                .customerId(1L)
+                .productId(101L)
+                .quantity(1)
+                .items(List.of(new OrderItemRequestDto(102L, 1)))
+                .build();
+
+        mockMvc.perform(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ambiguousOrder)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(OrderRequestDto.builder()
+                        .customerId(1L)
+                        .items(List.of(new OrderItemRequestDto(102L, 0)))
+                        .build())))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productClient);
+    }
+
+    @Test
+    void shouldRejectMultiLineOrderContainingFlashSaleProduct() throws Exception {
+        when(productClient.reserveStock(303L, 2)).thenReturn(StockReservationDto.builder()
+                .productId(303L)
+                .name("Limited Hoodie")
+                .price(new BigDecimal("79.99"))
+                .version(1)
+                .reservedQuantity(2)
+                .remainingStock(0)
+                .build());
+        mockMvc.perform(post("/api/orders/flash-sales/{productId}", 303L)
+                .param("units", "2"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(OrderRequestDto.builder()
+                        .customerId(1L)
+                        .items(List.of(new OrderItemRequestDto(101L, 1), new OrderItemRequestDto(303L, 1)))
+                        .build())))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(delete("/api/orders/flash-sales/{productId}", 303L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.soldUnits").value(0));
+        verify(productClient, never()).reserveStockAsync(anyList(), any());
+        assertEquals(0, orderRepository.count());
+    }
+
+    /**
+     * Posts an order and, as the endpoint completes asynchronously, dispatches its result.
+     */
+    private ResultActions createOrder(OrderRequestDto orderRequestDto) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderRequestDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    /**
+     * Builds a single-line order.
+     */
+    private static Order order(Long customerId, Long productId, String productName, BigDecimal unitPrice,
+                               int quantity, LocalDateTime createdAt) {
+        BigDecimal totalPrice = unitPrice.multiply(BigDecimal.valueOf(quantity));
+        Order order = Order.builder()
+                .customerId(customerId)
+                .totalPrice(totalPrice)
+                .createdAt(createdAt)
+                .build();
+        order.addItem(OrderItem.builder()
+                .productId(productId)
+                .productName(productName)
+                .unitPrice(unitPrice)
+                .quantity(quantity)
+                .totalPrice(totalPrice)
+                .build());
+        return order;
+    }
 }
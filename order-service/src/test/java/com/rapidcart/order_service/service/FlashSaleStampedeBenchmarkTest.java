@@ -0,0 +1,122 @@
+package com.rapidcart.order_service.service;
+
+import com.rapidcart.order_service.client.ProductClient;
+import com.rapidcart.order_service.dto.OrderRequestDto;
+import com.rapidcart.order_service.dto.StockReservationDto;
+import com.rapidcart.order_service.exception.SoldOutException;
+import com.rapidcart.order_service.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load benchmark for {@link FlashSaleService} under a stampede on a single SKU.
+ *
+ * <p>Fires small and large stampedes of concurrent single-unit orders at a product in
+ * flash-sale mode and verifies in both that exactly the sale's units are sold and written,
+ * the rest are rejected as sold out, and the Product Service is called once per sale.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class FlashSaleStampedeBenchmarkTest {
+
+    private static final int UNITS = 200;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @MockitoBean
+    private ProductClient productClient;
+
+    @MockitoBean
+    private ProductEventPublisher productEventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        when(productClient.reserveStock(anyLong(), anyInt())).thenAnswer(invocation -> StockReservationDto.builder()
+                .productId(invocation.getArgument(0))
+                .name("Limited Sneaker")
+                .price(new BigDecimal("199.99"))
+                .version(1)
+                .reservedQuantity(invocation.getArgument(1))
+                .remainingStock(0)
+                .build());
+    }
+
+    @Test
+    void stampedesShouldSellExactlyTheSaleUnits() throws Exception {
+        run(901L, 1_000);
+        run(902L, 10_000);
+
+        verify(productClient, never()).returnStock(anyLong(), anyInt());
+    }
+
+    private void run(Long productId, int requests) throws Exception {
+        flashSaleService.enable(productId, UNITS);
+        long ordersBefore = orderRepository.count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < requests; i++) {
+            int request = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    orderService.createOrder(OrderRequestDto.builder()
+                            .customerId((long) request)
+                            .productId(productId)
+                            .quantity(1)
+                            .build());
+                    sold.incrementAndGet();
+                } catch (SoldOutException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(UNITS, sold.get());
+        assertEquals(requests - UNITS, rejected.get());
+        assertEquals(UNITS, orderRepository.count() - ordersBefore);
+        assertEquals(0, flashSaleService.disable(productId).getReturnedUnits());
+        verify(productClient).reserveStock(productId, UNITS);
+    }
+}
@@ -0,0 +1,102 @@
+package com.rapidcart.order_service.service;
+
+import com.rapidcart.order_service.client.ProductClient;
+import com.rapidcart.order_service.dto.OrderRequestDto;
+import com.rapidcart.order_service.dto.StockReservationDto;
+import com.rapidcart.order_service.entity.Order;
+import com.rapidcart.order_service.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that a batch write failing with an {@link Error} fails the orders waiting on it,
+ * gives their units back to the sale and leaves the writer thread running.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class FlashSaleWriterFailureTest {
+
+    private static final Long PRODUCT_ID = 911L;
+    private static final int UNITS = 5;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @MockitoBean
+    private ProductClient productClient;
+
+    @MockitoBean
+    private ProductEventPublisher productEventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        when(productClient.reserveStock(anyLong(), anyInt())).thenAnswer(invocation -> StockReservationDto.builder()
+                .productId(invocation.getArgument(0))
+                .name("Limited Sneaker")
+                .price(new BigDecimal("199.99"))
+                .version(1)
+                .reservedQuantity(invocation.getArgument(1))
+                .remainingStock(0)
+                .build());
+        flashSaleService.enable(PRODUCT_ID, UNITS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        flashSaleService.disable(PRODUCT_ID);
+    }
+
+    @Test
+    void errorInBatchWriteShouldFailTheOrderAndGiveBackItsUnits() throws Exception {
+        StackOverflowError error = new StackOverflowError("publisher blew the stack");
+        doThrow(error).when(productEventPublisher).publishProductEvent(anyString(), any());
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> placeOrder(2).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, failure.getCause());
+        assertEquals(UNITS, flashSaleService.getStatus(PRODUCT_ID).getRemainingUnits());
+        assertEquals(0, orderRepository.count());
+
+        // The writer survived the Error and still writes later orders
+        doNothing().when(productEventPublisher).publishProductEvent(anyString(), any());
+        Order order = placeOrder(2).get(5, TimeUnit.SECONDS);
+
+        assertNotNull(order.getId());
+        assertEquals(UNITS - 2, flashSaleService.getStatus(PRODUCT_ID).getRemainingUnits());
+        assertEquals(2L, flashSaleService.getStatus(PRODUCT_ID).getSoldUnits());
+    }
+
+    private CompletableFuture<Order> placeOrder(int quantity) {
+        return flashSaleService.placeOrder(OrderRequestDto.builder()
+                .customerId(1L)
+                .productId(PRODUCT_ID)
+                .quantity(quantity)
+                .build()).orElseThrow();
+    }
+}
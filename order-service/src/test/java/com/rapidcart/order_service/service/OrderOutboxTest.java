@@ -0,0 +1,250 @@
+package com.rapidcart.order_service.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rapidcart.order_service.client.ProductClient;
+import com.rapidcart.order_service.dto.OrderRequestDto;
+import com.rapidcart.order_service.dto.OrderResponseDto;
+import com.rapidcart.order_service.dto.StockReservationDto;
+import com.rapidcart.order_service.entity.Order;
+import com.rapidcart.order_service.entity.OrderOutboxEvent;
+import com.rapidcart.order_service.repository.OrderOutboxRepository;
+import com.rapidcart.order_service.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.IllegalTransactionStateException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that order events are written to the outbox with their orders, without touching
+ * the broker, and that {@link OrderEventRelay} publishes them through the
+ * {@link PublisherConfirmPipeline}, retrying nacked and returned events, keeping the events of
+ * an order in order, skipping events claimed by another relay and deleting events only once
+ * confirmed.
+ */
+@SpringBootTest(properties = {
+        "order.outbox.poll-interval=1h",
+        "order.events.max-attempts=2",
+        "order.events.retry-backoff=1ms"
+})
+@ActiveProfiles("test")
+public class OrderOutboxTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductEventPublisher productEventPublisher;
+
+    @Autowired
+    private OrderEventRelay orderEventRelay;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private ProductClient productClient;
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private PublisherConfirmPipeline confirmPipeline;
+
+    private final List<Message> sent = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        orderRepository.deleteAll();
+        sent.clear();
+        when(productClient.reserveStockAsync(anyLong(), anyInt(), any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(StockReservationDto.builder()
+                        .productId(invocation.getArgument(0))
+                        .name("Test Product")
+                        .price(new BigDecimal("99.99"))
+                        .version(1)
+                        .reservedQuantity(invocation.getArgument(1))
+                        .remainingStock(10)
+                        .build()));
+    }
+
+    @Test
+    void shouldRecordEventWithOrderWithoutCallingBroker() throws Exception {
+        OrderResponseDto order = orderService.createOrder(orderRequest(101L));
+
+        verify(rabbitTemplate, never()).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        List<OrderOutboxEvent> events = outboxRepository.findAll();
+        assertEquals(1, events.size());
+        assertEquals(order.getId(), events.get(0).getAggregateId());
+        assertEquals("ORDER_CREATED", events.get(0).getEventType());
+
+        JsonNode payload = objectMapper.readTree(events.get(0).getPayload());
+        assertEquals("ORDER_CREATED", payload.get("eventType").asText());
+        assertEquals(order.getId(), payload.get("data").get("id").asLong());
+        assertEquals("Test Product", payload.get("data").get("items").get(0).get("productName").asText());
+    }
+
+    @Test
+    void shouldRefuseToRecordEventsOutsideTransaction() {
+        Order order = Order.builder().id(1L).build();
+        assertThrows(IllegalTransactionStateException.class,
+                () -> productEventPublisher.publishProductEvent("ORDER_CREATED", order));
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void relayShouldRetryNackedAndReturnedEventsAndDeleteOnlyConfirmedOnes() {
+        OrderResponseDto first = orderService.createOrder(orderRequest(101L));
+        OrderResponseDto second = orderService.createOrder(orderRequest(102L));
+        OrderResponseDto third = orderService.createOrder(orderRequest(103L));
+
+        // The second event is nacked on every attempt, the third is returned once
+        Map<Long, Integer> attempts = new ConcurrentHashMap<>();
+        broker((orderId, correlation) -> {
+            int attempt = attempts.merge(orderId, 1, Integer::sum);
+            if (orderId.equals(second.getId())) {
+                return false;
+            }
+            if (orderId.equals(third.getId()) && attempt == 1) {
+                correlation.setReturned(new ReturnedMessage(
+                        new Message(new byte[0]), 312, "NO_ROUTE", "order.exchange", "order.event"));
+            }
+            return true;
+        });
+        orderEventRelay.relay();
+
+        assertEquals(List.of(second.getId()), outboxRepository.findAll().stream()
+                .map(OrderOutboxEvent::getAggregateId).toList());
+        assertEquals(Map.of(first.getId(), 1, second.getId(), 2, third.getId(), 2), attempts);
+
+        // The next poll publishes the remaining event again, with the same message ID
+        broker((orderId, correlation) -> true);
+        orderEventRelay.relay();
+        assertEquals(0, outboxRepository.count());
+
+        List<Message> toSecond = sent.stream()
+                .filter(message -> orderId(message).equals(second.getId()))
+                .toList();
+        assertEquals(3, toSecond.size());
+        assertEquals(1, toSecond.stream().map(message -> message.getMessageProperties().getMessageId())
+                .distinct().count());
+    }
+
+    @Test
+    void relayShouldPublishEventsOfOneOrderInWriteOrder() {
+        OrderResponseDto order = orderService.createOrder(orderRequest(101L));
+        OrderOutboxEvent created = outboxRepository.findAll().get(0);
+        outboxRepository.save(OrderOutboxEvent.builder()
+                .aggregateId(order.getId())
+                .eventType("ORDER_CANCELLED")
+                .payload(created.getPayload().replace("ORDER_CREATED", "ORDER_CANCELLED"))
+                .build());
+
+        broker((orderId, correlation) -> true);
+        orderEventRelay.relay();
+
+        assertEquals(0, outboxRepository.count());
+        assertEquals(List.of("ORDER_CREATED", "ORDER_CANCELLED"), sent.stream()
+                .map(message -> (String) message.getMessageProperties().getHeader("eventType"))
+                .toList());
+    }
+
+    @Test
+    void relayShouldSkipOrdersWithAnEventClaimedByAnotherRelay() {
+        OrderResponseDto claimedOrder = orderService.createOrder(orderRequest(101L));
+        OrderOutboxEvent created = outboxRepository.findAll().get(0);
+        created.setClaimedUntil(Instant.now().plusSeconds(60));
+        outboxRepository.save(created);
+        outboxRepository.save(OrderOutboxEvent.builder()
+                .aggregateId(claimedOrder.getId())
+                .eventType("ORDER_CANCELLED")
+                .payload(created.getPayload().replace("ORDER_CREATED", "ORDER_CANCELLED"))
+                .build());
+        OrderResponseDto other = orderService.createOrder(orderRequest(102L));
+
+        broker((orderId, correlation) -> true);
+        orderEventRelay.relay();
+
+        assertEquals(List.of(other.getId()), sent.stream().map(this::orderId).toList());
+        assertEquals(2, outboxRepository.count());
+
+        // Once the other relay's claim lapses, the order's events are published in write order
+        created = outboxRepository.findById(created.getId()).orElseThrow();
+        created.setClaimedUntil(Instant.now().minusSeconds(1));
+        outboxRepository.save(created);
+        sent.clear();
+        orderEventRelay.relay();
+
+        assertEquals(0, outboxRepository.count());
+        assertEquals(List.of("ORDER_CREATED", "ORDER_CANCELLED"), sent.stream()
+                .map(message -> (String) message.getMessageProperties().getHeader("eventType"))
+                .toList());
+    }
+
+    /**
+     * Answers every send on the mocked template with a confirm, acked or nacked as decided by
+     * the given broker, and records the sent messages.
+     */
+    private void broker(BiFunction<Long, CorrelationData, Boolean> acks) {
+        doAnswer(invocation -> {
+            Message message = invocation.getArgument(2);
+            CorrelationData correlation = invocation.getArgument(3);
+            sent.add(message);
+            boolean ack = acks.apply(orderId(message), correlation);
+            confirmPipeline.confirm(correlation, ack, ack ? null : "test nack");
+            return null;
+        }).when(rabbitTemplate).send(eq("order.exchange"), eq("order.event"), any(Message.class),
+                any(CorrelationData.class));
+    }
+
+    private Long orderId(Message message) {
+        try {
+            return objectMapper.readTree(message.getBody()).get("data").get("id").asLong();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static OrderRequestDto orderRequest(Long productId) {
+        return OrderRequestDto.builder()
+                .customerId(1L)
+                .productId(productId)
+                .quantity(1)
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.rapidcart.order_service.service;
+
+import com.rapidcart.order_service.client.ProductClient;
+import com.rapidcart.order_service.dto.OrderRequestDto;
+import com.rapidcart.order_service.dto.StockReservationDto;
+import com.rapidcart.order_service.repository.OrderRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that {@link OrderService#createOrder(OrderRequestDto)} does not hold a pooled
+ * database connection or an open transaction while calling the Product Service, and that its
+ * event is recorded in the same transaction as the order.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderServiceConnectionUsageTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @MockitoBean
+    private ProductClient productClient;
+
+    @MockitoBean
+    private ProductEventPublisher productEventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void shouldNotHoldConnectionWhileCallingProductService() {
+        AtomicInteger activeConnectionsDuringHttpCall = new AtomicInteger(-1);
+        AtomicReference<Boolean> transactionActiveDuringHttpCall = new AtomicReference<>();
+        AtomicInteger activeConnectionsDuringPublish = new AtomicInteger(-1);
+        AtomicReference<Boolean> transactionActiveDuringPublish = new AtomicReference<>();
+
+        when(productClient.reserveStockAsync(eq(101L), eq(2), any())).thenAnswer(invocation -> {
+            activeConnectionsDuringHttpCall.set(dataSource.getHikariPoolMXBean().getActiveConnections());
+            transactionActiveDuringHttpCall.set(TransactionSynchronizationManager.isActualTransactionActive());
+            return CompletableFuture.completedFuture(StockReservationDto.builder()
+                    .productId(101L)
+                    .name("Test Product")
+                    .price(new BigDecimal("99.99"))
+                    .version(1)
+                    .reservedQuantity(2)
+                    .remainingStock(48)
+                    .build());
+        });
+        doAnswer(invocation -> {
+            activeConnectionsDuringPublish.set(dataSource.getHikariPoolMXBean().getActiveConnections());
+            transactionActiveDuringPublish.set(TransactionSynchronizationManager.isActualTransactionActive());
+            return null;
+        }).when(productEventPublisher).publishProductEvent(anyString(), any());
+
+        orderService.createOrder(OrderRequestDto.builder()
+                .customerId(1L)
+                .productId(101L)
+                .quantity(2)
+                .build());
+
+        assertEquals(0, activeConnectionsDuringHttpCall.get());
+        assertFalse(transactionActiveDuringHttpCall.get());
+        assertEquals(1, activeConnectionsDuringPublish.get());
+        assertTrue(transactionActiveDuringPublish.get());
+        assertEquals(1, orderRepository.count());
+    }
+}
@@ -0,0 +1,80 @@
+package com.rapidcart.order_service.service;
+
+import com.rapidcart.order_service.client.ProductClient;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies with {@code EXPLAIN} that every {@link OrderSortField}, in both directions, is
+ * served by an index, so that a page of the order listing never sorts the whole table.
+ *
+ * <p>The explained query is the one Hibernate issues for
+ * {@link OrderService#getAllOrders}, captured with a {@link StatementInspector}.</p>
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.rapidcart.order_service.service.OrderSortIndexTest$CapturedStatements")
+@ActiveProfiles("test")
+public class OrderSortIndexTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private ProductClient productClient;
+
+    @MockitoBean
+    private ProductEventPublisher productEventPublisher;
+
+    @Test
+    void everySortFieldShouldReadRowsInIndexOrder() {
+        for (OrderSortField field : OrderSortField.values()) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                CapturedStatements.SQL.clear();
+                orderService.getAllOrders(PageRequest.of(0, PAGE_SIZE, field.sort(direction)));
+
+                List<String> listings = CapturedStatements.SQL.stream()
+                        .filter(sql -> sql.contains(" order by "))
+                        .toList();
+                assertEquals(1, listings.size(), "Expected one listing query, got " + listings);
+                String sql = listings.get(0);
+                String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, PAGE_SIZE);
+
+                assertTrue(plan.contains("index sorted"),
+                        "Sorting orders by " + field + " " + direction + " is not served by an index:\n"
+                                + sql + "\n" + plan);
+            }
+        }
+    }
+
+    /**
+     * Records the SQL of every statement Hibernate prepares.
+     */
+    public static class CapturedStatements implements StatementInspector {
+
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
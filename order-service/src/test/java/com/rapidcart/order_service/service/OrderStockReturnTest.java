@@ -0,0 +1,97 @@
+package com.rapidcart.order_service.service;
+
+import com.rapidcart.order_service.client.ProductClient;
+import com.rapidcart.order_service.dto.OrderItemRequestDto;
+import com.rapidcart.order_service.dto.OrderRequestDto;
+import com.rapidcart.order_service.dto.StockReservationDto;
+import com.rapidcart.order_service.entity.Order;
+import com.rapidcart.order_service.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that stock reserved for an order is returned to the Product Service when the order
+ * cannot be saved.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderStockReturnTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @MockitoSpyBean
+    private OrderRepository orderRepository;
+
+    @MockitoBean
+    private ProductClient productClient;
+
+    @MockitoBean
+    private ProductEventPublisher productEventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        doThrow(new DataAccessResourceFailureException("Database unavailable"))
+                .when(orderRepository).save(any(Order.class));
+    }
+
+    @Test
+    void failedSaveShouldReturnReservedStock() {
+        when(productClient.reserveStockAsync(eq(101L), eq(2), any()))
+                .thenReturn(completedFuture(reservation(101L, 2)));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> orderService.createOrder(OrderRequestDto.builder()
+                .customerId(1L)
+                .productId(101L)
+                .quantity(2)
+                .build()));
+
+        verify(productClient).returnStock(101L, 2);
+        assertEquals(0, orderRepository.count());
+    }
+
+    @Test
+    void failedSaveShouldReturnEveryReservedLine() {
+        when(productClient.reserveStockAsync(anyList(), any()))
+                .thenReturn(completedFuture(List.of(reservation(101L, 2), reservation(102L, 3))));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> orderService.createOrder(OrderRequestDto.builder()
+                .customerId(1L)
+                .items(List.of(new OrderItemRequestDto(101L, 2), new OrderItemRequestDto(102L, 3)))
+                .build()));
+
+        verify(productClient).returnStock(101L, 2);
+        verify(productClient).returnStock(102L, 3);
+        assertEquals(0, orderRepository.count());
+    }
+
+    private static StockReservationDto reservation(Long productId, int quantity) {
+        return StockReservationDto.builder()
+                .productId(productId)
+                .name("Product " + productId)
+                .price(new BigDecimal("9.99"))
+                .version(1)
+                .reservedQuantity(quantity)
+                .remainingStock(10)
+                .build();
+    }
+}
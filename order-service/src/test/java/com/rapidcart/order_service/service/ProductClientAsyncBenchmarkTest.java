@@ -0,0 +1,272 @@
+package com.rapidcart.order_service.service;
+
+import com.rapidcart.order_service.client.ProductClient;
+import com.rapidcart.order_service.dto.OrderItemRequestDto;
+import com.rapidcart.order_service.dto.OrderRequestDto;
+import com.rapidcart.order_service.dto.OrderResponseDto;
+import com.rapidcart.order_service.dto.ProductDto;
+import com.rapidcart.order_service.dto.StockReservationDto;
+import com.rapidcart.order_service.exception.ProductNotFoundException;
+import com.rapidcart.order_service.exception.ProductServiceTimeoutException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark for the non-blocking calls of {@link ProductClient}.
+ *
+ * <p>Runs against a stub Product Service that answers every request after
+ * {@value #DELAY_MS} ms. Looking up a product and checking its stock one after the other
+ * with the blocking client costs two delays; composing the async calls costs about one, which
+ * is verified. Also verifies that deadlines and error statuses surface as the
+ * client's exceptions, that stock reserved after a reservation's deadline is returned, that a
+ * single thread can keep many calls in flight, and that a
+ * {@value #CART_LINES}-line order costs one round trip, like a single-line order.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProductClientAsyncBenchmarkTest {
+
+    private static final int DELAY_MS = 50;
+    private static final int ROUNDS = 10;
+    private static final int CONCURRENT_CALLS = 40;
+    private static final int CART_LINES = 10;
+    private static final Pattern LINE = Pattern.compile("\\{\"productId\":(\\d+),\"quantity\":(\\d+)}");
+
+    private static final AtomicInteger reservationRequests = new AtomicInteger();
+    private static final AtomicInteger returnedUnits = new AtomicInteger();
+    private static final HttpServer productService = startProductService();
+
+    @Autowired
+    private ProductClient productClient;
+
+    @Autowired
+    private OrderService orderService;
+
+    @MockitoBean
+    private ProductEventPublisher productEventPublisher;
+
+    @DynamicPropertySource
+    static void productServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("product.service.url", () -> "http://localhost:" + productService.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopProductService() {
+        productService.stop(0);
+    }
+
+    @Test
+    void parallelLookupShouldTakeAboutOneRoundTrip() {
+        // Warm up connections and JIT
+        productClient.getProduct(1L);
+        productClient.getProductAsync(1L, deadline()).join();
+
+        long sequentialNanos = 0;
+        long parallelNanos = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long startedAt = System.nanoTime();
+            ProductDto product = productClient.getProduct(1L);
+            boolean hasStock = productClient.checkStockAndValidate(1L, 2);
+            sequentialNanos += System.nanoTime() - startedAt;
+            assertEquals("Stub Product", product.getName());
+            assertTrue(hasStock);
+
+            startedAt = System.nanoTime();
+            Instant deadline = deadline();
+            CompletableFuture<ProductDto> productFuture = productClient.getProductAsync(1L, deadline);
+            CompletableFuture<Boolean> stockFuture = productClient.checkStockAsync(1L, 2, deadline);
+            boolean available = productFuture.thenCombine(stockFuture, (p, stock) -> stock && p.getActiveStatus()).join();
+            parallelNanos += System.nanoTime() - startedAt;
+            assertTrue(available);
+        }
+
+        double sequentialMs = sequentialNanos / 1_000_000.0 / ROUNDS;
+        double parallelMs = parallelNanos / 1_000_000.0 / ROUNDS;
+        assertTrue(parallelMs < sequentialMs * 0.8,
+                "Parallel lookup took " + parallelMs + " ms against " + sequentialMs + " ms sequentially");
+    }
+
+    @Test
+    void oneThreadShouldKeepManyCallsInFlight() {
+        productClient.reserveStockAsync(1L, 1, deadline()).join();
+
+        long startedAt = System.nanoTime();
+        List<CompletableFuture<StockReservationDto>> calls = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_CALLS; i++) {
+            calls.add(productClient.reserveStockAsync(1L, 1, deadline()));
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+        double elapsedMs = (System.nanoTime() - startedAt) / 1_000_000.0;
+
+        calls.forEach(call -> assertEquals(1, call.join().getReservedQuantity()));
+        assertTrue(elapsedMs < CONCURRENT_CALLS * DELAY_MS / 2.0,
+                CONCURRENT_CALLS + " concurrent reservations from one thread took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void callsShouldFailWithTimeoutAtTheirDeadline() {
+        CompletableFuture<ProductDto> late = productClient.getProductAsync(1L, Instant.now().plusMillis(DELAY_MS / 5));
+        CompletionException lateFailure = assertThrows(CompletionException.class, late::join);
+        assertInstanceOf(ProductServiceTimeoutException.class, lateFailure.getCause());
+
+        CompletableFuture<ProductDto> expired = productClient.getProductAsync(1L, Instant.now().minusMillis(1));
+        CompletionException expiredFailure = assertThrows(CompletionException.class, expired::join);
+        assertInstanceOf(ProductServiceTimeoutException.class, expiredFailure.getCause());
+    }
+
+    @Test
+    void reservationsCompletingAfterTheirDeadlineShouldBeReturned() throws Exception {
+        List<OrderItemRequestDto> cart = List.of(new OrderItemRequestDto(2L, 2), new OrderItemRequestDto(3L, 3));
+        // Warm up, so that both requests are sent before their deadlines pass
+        productClient.reserveStockAsync(1L, 1, deadline()).join();
+        productClient.reserveStockAsync(cart, deadline()).join();
+        int before = returnedUnits.get();
+
+        CompletableFuture<StockReservationDto> late =
+                productClient.reserveStockAsync(1L, 1, Instant.now().plusMillis(DELAY_MS / 2));
+        CompletionException lateFailure = assertThrows(CompletionException.class, late::join);
+        assertInstanceOf(ProductServiceTimeoutException.class, lateFailure.getCause());
+
+        CompletableFuture<List<StockReservationDto>> lateCart =
+                productClient.reserveStockAsync(cart, Instant.now().plusMillis(DELAY_MS / 2));
+        CompletionException lateCartFailure = assertThrows(CompletionException.class, lateCart::join);
+        assertInstanceOf(ProductServiceTimeoutException.class, lateCartFailure.getCause());
+
+        // The stub still reserves the units once its delay has passed; all six must come back
+        long giveUpAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (returnedUnits.get() - before < 6 && System.nanoTime() < giveUpAt) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(6, returnedUnits.get() - before);
+    }
+
+    @Test
+    void errorStatusesShouldMapToClientExceptions() {
+        CompletionException failure = assertThrows(CompletionException.class,
+                () -> productClient.getProductAsync(404L, deadline()).join());
+        assertInstanceOf(ProductNotFoundException.class, failure.getCause());
+    }
+
+    @Test
+    void cartCheckoutShouldCostOneRoundTripWhateverItsSize() {
+        OrderRequestDto single = OrderRequestDto.builder()
+                .customerId(1L)
+                .productId(5_001L)
+                .quantity(1)
+                .build();
+        OrderRequestDto cart = OrderRequestDto.builder()
+                .customerId(1L)
+                .items(IntStream.rangeClosed(1, CART_LINES)
+                        .mapToObj(i -> new OrderItemRequestDto(5_100L + i, i))
+                        .toList())
+                .build();
+        // Warm up the order path
+        orderService.createOrder(single);
+
+        int before = reservationRequests.get();
+        orderService.createOrder(single);
+        int singleRequests = reservationRequests.get() - before;
+
+        before = reservationRequests.get();
+        OrderResponseDto order = orderService.createOrder(cart);
+        int cartRequests = reservationRequests.get() - before;
+
+        assertEquals(1, singleRequests);
+        assertEquals(1, cartRequests);
+        assertEquals(CART_LINES, order.getItems().size());
+        assertEquals(5_110L, order.getItems().get(CART_LINES - 1).getProductId());
+        assertEquals(0, new BigDecimal("549.45").compareTo(order.getTotalPrice()));
+    }
+
+    private static Instant deadline() {
+        return Instant.now().plus(Duration.ofSeconds(5));
+    }
+
+    private static HttpServer startProductService() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/api/products/", ProductClientAsyncBenchmarkTest::respond);
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start stub Product Service", e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange) throws IOException {
+        try {
+            TimeUnit.MILLISECONDS.sleep(DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String path = exchange.getRequestURI().getPath();
+        if (path.endsWith("/reserve-stock")) {
+            reservationRequests.incrementAndGet();
+        }
+        if (path.endsWith("/return-stock")) {
+            returnedUnits.addAndGet(Integer.parseInt(exchange.getRequestURI().getQuery().replace("quantity=", "")));
+            send(exchange, 200, "{\"message\":\"Stock returned\"}");
+        } else if (path.startsWith("/api/products/404")) {
+            send(exchange, 404, "{\"error\":\"Not Found\"}");
+        } else if (path.endsWith("/stock")) {
+            send(exchange, 200, "{\"productId\":1,\"hasStock\":true}");
+        } else if (path.equals("/api/products/reserve-stock")) {
+            Matcher line = LINE.matcher(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            StringBuilder reservations = new StringBuilder();
+            while (line.find()) {
+                reservations.append(reservations.isEmpty() ? "" : ",")
+                        .append("{\"productId\":").append(line.group(1))
+                        .append(",\"name\":\"Stub Product\",\"price\":9.99,\"version\":1,\"reservedQuantity\":")
+                        .append(line.group(2)).append(",\"remainingStock\":10}");
+            }
+            send(exchange, 200, "{\"reservations\":[" + reservations + "]}");
+        } else if (path.endsWith("/reserve-stock")) {
+            send(exchange, 200, "{\"productId\":1,\"name\":\"Stub Product\",\"price\":9.99,\"version\":1,"
+                    + "\"reservedQuantity\":1,\"remainingStock\":10}");
+        } else {
+            send(exchange, 200, "{\"id\":1,\"name\":\"Stub Product\",\"price\":9.99,\"stock\":10,"
+                    + "\"activeStatus\":true}");
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
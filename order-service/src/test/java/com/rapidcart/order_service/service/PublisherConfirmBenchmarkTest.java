@@ -0,0 +1,163 @@
+package com.rapidcart.order_service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Benchmark for the {@link PublisherConfirmPipeline}.
+ *
+ * <p>Runs against a simulated broker that confirms every message {@value #CONFIRM_LATENCY_MS} ms
+ * after it is sent, standing in for the round trip to RabbitMQ. Waiting for each confirm in
+ * turn costs a round trip per message; the pipeline overlaps the round trips of up to
+ * {@value #MAX_IN_FLIGHT} messages. The pipeline is verified to be much faster than
+ * synchronous confirms while never exceeding its in-flight bound, also when publishing from
+ * several threads and when the broker nacks messages.</p>
+ */
+@SpringBootTest(properties = {
+        "order.events.max-in-flight=" + PublisherConfirmBenchmarkTest.MAX_IN_FLIGHT,
+        "order.events.retry-backoff=1ms"
+})
+@ActiveProfiles("test")
+public class PublisherConfirmBenchmarkTest {
+
+    static final int MAX_IN_FLIGHT = 64;
+    private static final int CONFIRM_LATENCY_MS = 2;
+    private static final int MESSAGES = 1_000;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private PublisherConfirmPipeline confirmPipeline;
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockitoBean
+    private ProductEventPublisher productEventPublisher;
+
+    private final ScheduledExecutorService broker = Executors.newScheduledThreadPool(2);
+    private final AtomicInteger unconfirmed = new AtomicInteger();
+    private final AtomicInteger maxUnconfirmed = new AtomicInteger();
+    private final AtomicInteger sends = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        brokerNacking(0);
+    }
+
+    @AfterEach
+    void stopBroker() {
+        broker.shutdownNow();
+    }
+
+    @Test
+    void pipelinedConfirmsShouldOutperformSynchronousConfirms() {
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < MESSAGES / 10; i++) {
+            confirmPipeline.publish("order.exchange", "order.event", message(i)).join();
+        }
+        double synchronousMs = elapsedMs(startedAt) * 10;
+
+        startedAt = System.nanoTime();
+        List<CompletableFuture<Void>> confirms = new ArrayList<>();
+        for (int i = 0; i < MESSAGES; i++) {
+            confirms.add(confirmPipeline.publish("order.exchange", "order.event", message(i)));
+        }
+        CompletableFuture.allOf(confirms.toArray(CompletableFuture[]::new)).join();
+        double pipelinedMs = elapsedMs(startedAt);
+
+        assertTrue(pipelinedMs * 10 < synchronousMs,
+                "Pipelined confirms took " + pipelinedMs + " ms against " + synchronousMs + " ms synchronously");
+        assertTrue(maxUnconfirmed.get() <= MAX_IN_FLIGHT);
+    }
+
+    @Test
+    void concurrentPublishersShouldShareTheInFlightBound() {
+        ExecutorService publishers = Executors.newFixedThreadPool(THREADS);
+        List<CompletableFuture<Void>> confirms = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            confirms.add(CompletableFuture.runAsync(() -> {
+                List<CompletableFuture<Void>> own = new ArrayList<>();
+                for (int i = 0; i < MESSAGES / THREADS; i++) {
+                    own.add(confirmPipeline.publish("order.exchange", "order.event", message(i)));
+                }
+                CompletableFuture.allOf(own.toArray(CompletableFuture[]::new)).join();
+            }, publishers));
+        }
+        CompletableFuture.allOf(confirms.toArray(CompletableFuture[]::new)).join();
+        publishers.shutdown();
+
+        assertTrue(maxUnconfirmed.get() <= MAX_IN_FLIGHT);
+        assertEquals(0, unconfirmed.get());
+    }
+
+    @Test
+    void nackedMessagesShouldBeRetriedUntilConfirmed() {
+        // Every tenth message is nacked on its first attempt
+        brokerNacking(10);
+
+        List<CompletableFuture<Void>> confirms = new ArrayList<>();
+        for (int i = 0; i < MESSAGES / 10; i++) {
+            confirms.add(confirmPipeline.publish("order.exchange", "order.event", message(i)));
+        }
+        CompletableFuture.allOf(confirms.toArray(CompletableFuture[]::new)).join();
+
+        assertEquals(MESSAGES / 10 + MESSAGES / 100, sends.get());
+        assertEquals(0, unconfirmed.get());
+    }
+
+    /**
+     * Confirms every send after {@value #CONFIRM_LATENCY_MS} ms, nacking the first attempt of every
+     * {@code nackEvery}th message if it is positive.
+     */
+    private void brokerNacking(int nackEvery) {
+        Set<String> nacked = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            String body = new String(invocation.<Message>getArgument(2).getBody(), StandardCharsets.UTF_8);
+            CorrelationData correlation = invocation.getArgument(3);
+            sends.incrementAndGet();
+            maxUnconfirmed.accumulateAndGet(unconfirmed.incrementAndGet(), Math::max);
+            boolean ack = nackEvery <= 0 || Integer.parseInt(body.replaceAll("\\D", "")) % nackEvery != 0
+                    || !nacked.add(body);
+            broker.schedule(() -> {
+                unconfirmed.decrementAndGet();
+                confirmPipeline.confirm(correlation, ack, ack ? null : "simulated nack");
+            }, CONFIRM_LATENCY_MS, TimeUnit.MILLISECONDS);
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    private static Message message(int i) {
+        return new Message(("{\"eventType\":\"ORDER_CREATED\",\"data\":{\"id\":" + i + "}}")
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static double elapsedMs(long startedAt) {
+        return (System.nanoTime() - startedAt) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,107 @@
+package com.rapidcart.order_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Verifies that {@link PublisherConfirmPipeline} frees the slots of messages whose confirms are
+ * lost, by retrying and finally failing attempts that are not confirmed in time, and that
+ * stopping the pipeline fails the messages still waiting for a confirm.
+ */
+@SpringBootTest(properties = {
+        "order.events.max-in-flight=2",
+        "order.events.in-flight-wait=50ms",
+        "order.events.max-attempts=2",
+        "order.events.retry-backoff=1ms",
+        "order.events.confirm-timeout=100ms"
+})
+@ActiveProfiles("test")
+public class PublisherConfirmTimeoutTest {
+
+    @Autowired
+    private PublisherConfirmPipeline confirmPipeline;
+
+    @Autowired
+    private ObjectProvider<RabbitTemplate> rabbitTemplateProvider;
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockitoBean
+    private ProductEventPublisher productEventPublisher;
+
+    private final AtomicBoolean confirming = new AtomicBoolean();
+    private final AtomicInteger sends = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        // Sends are dropped without a confirm until the broker is told to confirm them
+        doAnswer(invocation -> {
+            sends.incrementAndGet();
+            if (confirming.get()) {
+                confirmPipeline.confirm(invocation.getArgument(3), true, null);
+            }
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void lostConfirmsShouldBeRetriedThenFailedAndFreeTheirSlots() throws Exception {
+        List<CompletableFuture<Void>> lost = List.of(publish(confirmPipeline), publish(confirmPipeline));
+
+        for (CompletableFuture<Void> confirm : lost) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> confirm.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AmqpException.class, failure.getCause());
+            assertTrue(failure.getCause().getMessage().contains("not confirmed within"), failure.getCause().getMessage());
+        }
+        assertEquals(4, sends.get());
+
+        // Both slots are free again
+        confirming.set(true);
+        CompletableFuture.allOf(publish(confirmPipeline), publish(confirmPipeline)).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void stopShouldFailMessagesWaitingForTheirConfirm() {
+        PublisherConfirmPipeline pipeline = new PublisherConfirmPipeline(rabbitTemplateProvider,
+                new SimpleMeterRegistry(), 2, Duration.ofMillis(50), 2, Duration.ofMillis(1), Duration.ofMinutes(1));
+        CompletableFuture<Void> unconfirmed = publish(pipeline);
+
+        pipeline.stop();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> unconfirmed.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(AmqpException.class, failure.getCause());
+        assertThrows(ExecutionException.class, () -> publish(pipeline).get(1, TimeUnit.SECONDS));
+    }
+
+    private static CompletableFuture<Void> publish(PublisherConfirmPipeline pipeline) {
+        return pipeline.publish("order.exchange", "order.event", new Message("{}".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,118 @@
+package com.rapidcart.product_service.config;
+
+import com.rapidcart.product_service.entity.ProductInventory;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * One-off startup migrations of the stock tables.
+ *
+ * <p>Hibernate's {@code ddl-auto=update} creates new tables and columns but never drops
+ * columns or changes primary keys, so older databases are brought up to date here, each step
+ * in a single transaction and only when needed; on an up-to-date schema nothing is done.</p>
+ * <ul>
+ *     <li>Databases created before stock moved out of {@code products} still carry {@code stock}
+ *     and {@code reserved_stock} there. They are copied into {@code product_inventory}, at the
+ *     default location, for every product without stock rows, and then dropped.</li>
+ *     <li>Databases created before stock was held per location key {@code product_inventory}
+ *     by {@code product_id} alone. The key is widened to
+ *     {@code (product_id, location_id, bucket)}; existing rows already received the default
+ *     location and bucket {@code 0} when Hibernate added those columns.</li>
+ * </ul>
+ *
+ * <p>The {@link EntityManagerFactory} dependency guarantees Hibernate has created
+ * {@code product_inventory} before this runs.</p>
+ */
+@Slf4j
+@Component
+public class ProductInventoryMigration implements InitializingBean {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProductInventoryMigration(DataSource dataSource,
+                                     EntityManagerFactory entityManagerFactory,
+                                     PlatformTransactionManager transactionManager) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        widenInventoryKey();
+        moveStockOutOfProducts();
+    }
+
+    private void widenInventoryKey() throws SQLException {
+        String primaryKey = null;
+        int keyColumns = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet columns = metaData.getPrimaryKeys(null, null, tableName(metaData, "product_inventory"))) {
+                while (columns.next()) {
+                    primaryKey = columns.getString("PK_NAME");
+                    keyColumns++;
+                }
+            }
+        }
+        if (keyColumns != 1) {
+            return;
+        }
+        String constraint = primaryKey;
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE product_inventory DROP CONSTRAINT " + constraint);
+            jdbcTemplate.execute("ALTER TABLE product_inventory ADD PRIMARY KEY (product_id, location_id, bucket)");
+            log.info("Widened the product_inventory key to (product_id, location_id, bucket)");
+        });
+    }
+
+    private void moveStockOutOfProducts() throws SQLException {
+        if (!hasColumn("products", "stock")) {
+            return;
+        }
+        String reserved = hasColumn("products", "reserved_stock") ? "reserved_stock" : "0";
+        transactionTemplate.executeWithoutResult(status -> {
+            int copied = jdbcTemplate.update(
+                    "INSERT INTO product_inventory (product_id, location_id, bucket, stock, reserved_stock, version) " +
+                            "SELECT p.id, '" + ProductInventory.DEFAULT_LOCATION + "', 0, p.stock, " + reserved +
+                            ", 0 FROM products p " +
+                            "WHERE NOT EXISTS (SELECT 1 FROM product_inventory i WHERE i.product_id = p.id)");
+            jdbcTemplate.execute("ALTER TABLE products DROP COLUMN stock");
+            if (!"0".equals(reserved)) {
+                jdbcTemplate.execute("ALTER TABLE products DROP COLUMN reserved_stock");
+            }
+            log.info("Moved stock of {} products into product_inventory", copied);
+        });
+    }
+
+    private boolean hasColumn(String table, String column) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : new String[]{column, column.toUpperCase()}) {
+                try (ResultSet columns = metaData.getColumns(null, null, tableName(metaData, table), name)) {
+                    if (columns.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private static String tableName(DatabaseMetaData metaData, String table) throws SQLException {
+        return metaData.storesUpperCaseIdentifiers() ? table.toUpperCase() : table;
+    }
+}
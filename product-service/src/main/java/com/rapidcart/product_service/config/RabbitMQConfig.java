@@ -0,0 +1,61 @@
+package com.rapidcart.product_service.config;
+
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * RabbitMQ configuration for publishing product change events.
+ *
+ * <p>Product Service only declares the {@code product.events} topic exchange; consumers
+ * declare and bind their own queues using the routing keys of
+ * {@link com.rapidcart.product_service.dto.ProductEventType}, for example
+ * {@code product.#} for every event or {@code product.stock.changed} for stock only.</p>
+ *
+ * <p>Messages are serialized as JSON.</p>
+ */
+@Profile("!test")
+@Configuration
+public class RabbitMQConfig {
+
+    /** The name of the topic exchange used for product events. */
+    public static final String EXCHANGE_NAME = "product.events";
+
+    /**
+     * Declares the durable {@link TopicExchange} that product events are published to.
+     *
+     * @return a configured {@link TopicExchange}
+     */
+    @Bean
+    public TopicExchange productEventsExchange() {
+        return new TopicExchange(EXCHANGE_NAME);
+    }
+
+    /**
+     * Configures a {@link MessageConverter} that serializes messages to JSON.
+     *
+     * @return a {@link Jackson2JsonMessageConverter} instance
+     */
+    @Bean
+    public MessageConverter jsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+    /**
+     * Configures a {@link RabbitTemplate} with a JSON message converter for sending messages.
+     *
+     * @param connectionFactory the RabbitMQ {@link ConnectionFactory}
+     * @return a configured {@link RabbitTemplate}
+     */
+    @Bean
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+        RabbitTemplate template = new RabbitTemplate(connectionFactory);
+        template.setMessageConverter(jsonMessageConverter());
+        return template;
+    }
+}
@@ -1,18 +1,46 @@
 package com.rapidcart.product_service.controller;
 
+import com.rapidcart.product_service.dto.ProductBatchRequestDto;
+import com.rapidcart.product_service.dto.ProductBatchResponseDto;
+import com.rapidcart.product_service.dto.ProductImportResultDto;
 import com.rapidcart.product_service.dto.ProductRequestDto;
 import com.rapidcart.product_service.dto.ProductResponseDto;
+import com.rapidcart.product_service.dto.ProductScrollResponseDto;
+import com.rapidcart.product_service.dto.ProductSearchHitDto;
+import com.rapidcart.product_service.dto.StockAvailabilityResponseDto;
+import com.rapidcart.product_service.dto.StockHoldResponseDto;
+import com.rapidcart.product_service.dto.StockLocationResponseDto;
+import com.rapidcart.product_service.dto.StockReservationBatchRequestDto;
+import com.rapidcart.product_service.dto.StockReservationBatchResponseDto;
+import com.rapidcart.product_service.dto.StockReservationResponseDto;
+import com.rapidcart.product_service.service.ProductAvailabilityService;
+import com.rapidcart.product_service.service.ProductDataFormat;
+import com.rapidcart.product_service.service.ProductExportService;
+import com.rapidcart.product_service.service.ProductImportService;
 import com.rapidcart.product_service.service.ProductService;
+import com.rapidcart.product_service.service.ProductSortField;
+import com.rapidcart.product_service.service.StockHoldService;
+import com.rapidcart.product_service.service.StockLocationService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
 
 /**
  * REST controller for managing products within the RapidCart platform.
@@ -26,11 +54,26 @@ import java.util.Map;
  * <ul>
  *   <li><b>POST</b> /api/products → Create a new product</li>
  *   <li><b>GET</b> /api/products → Retrieve paginated list of products</li>
- *   <li><b>GET</b> /api/products/{id} → Fetch a product by ID</li>
- *   <li><b>PUT</b> /api/products/{id} → Update product details</li>
+ *   <li><b>GET</b> /api/products/scroll → Retrieve products using cursor (keyset) pagination</li>
+ *   <li><b>GET</b> /api/products/search?q=wire → Search products by name or SKU prefix (typeahead)</li>
+ *   <li><b>GET</b> /api/products/export → Stream the full catalog as NDJSON or CSV</li>
+ *   <li><b>POST</b> /api/products/import → Bulk upsert products by SKU from NDJSON or CSV</li>
+ *   <li><b>GET</b> /api/products/{id} → Fetch a product by ID (supports {@code If-None-Match})</li>
+ *   <li><b>GET</b> /api/products/batch?ids=1,2,3 → Fetch several products by ID</li>
+ *   <li><b>POST</b> /api/products/batch → Fetch several products by ID (large ID sets)</li>
+ *   <li><b>PUT</b> /api/products/{id} → Update product details (supports {@code If-Match})</li>
  *   <li><b>DELETE</b> /api/products/{id} → Soft delete (deactivate) a product</li>
  *   <li><b>GET</b> /api/products/{id}/stock → Check stock availability (for Order Service)</li>
  *   <li><b>PUT</b> /api/products/{id}/reduce-stock → Reduce stock after confirmed order</li>
+ *   <li><b>PUT</b> /api/products/{id}/reserve-stock → Validate, reduce stock and price an order line in one call</li>
+ *   <li><b>PUT</b> /api/products/reserve-stock → Reserve stock for several order lines at once, all or nothing</li>
+ *   <li><b>PUT</b> /api/products/{id}/return-stock → Return reserved units that were not sold</li>
+ *   <li><b>POST</b> /api/products/{id}/holds → Hold stock for a limited time (e.g. during checkout)</li>
+ *   <li><b>GET</b> /api/products/holds/{holdId} → Fetch a stock hold</li>
+ *   <li><b>POST</b> /api/products/holds/{holdId}/commit → Deduct held stock permanently</li>
+ *   <li><b>POST</b> /api/products/holds/{holdId}/release → Return held stock</li>
+ *   <li><b>GET</b> /api/products/{id}/locations → List a product's stock per location</li>
+ *   <li><b>PUT</b> /api/products/{id}/locations/{locationId} → Set a product's stock at a location</li>
  * </ul>
  */
 @RestController
@@ -40,6 +83,21 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private StockHoldService stockHoldService;
+
+    @Autowired
+    private ProductAvailabilityService productAvailabilityService;
+
+    @Autowired
+    private StockLocationService stockLocationService;
+
     /**
      * Creates a new product record.
      *
@@ -51,7 +109,9 @@ public class ProductController {
             @Valid @RequestBody ProductRequestDto productRequestDto) {
 
         ProductResponseDto createdProduct = productService.createProduct(productRequestDto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(eTagOf(createdProduct).formattedTag())
+                .body(createdProduct);
     }
 
     /**
@@ -59,9 +119,10 @@ public class ProductController {
      *
      * @param page    the page number (0-based, default = 0)
      * @param size    the page size (default = 10)
-     * @param sortBy  the field name to sort by (default = "id")
+     * @param sortBy  the field to sort by: id, name, sku or price (default = "id")
      * @param sortDir the sort direction ("asc" or "desc", default = "asc")
-     * @return a {@link ResponseEntity} containing a list of {@link ProductResponseDto} and HTTP 200 (OK)
+     * @return a {@link ResponseEntity} containing a list of {@link ProductResponseDto} and HTTP 200 (OK),
+     *         or HTTP 400 (Bad Request) if the field is not sortable
      */
     @GetMapping
     public ResponseEntity<List<ProductResponseDto>> getAllProducts(
@@ -71,37 +132,188 @@ public class ProductController {
             @RequestParam(defaultValue = "asc") String sortDir) {
 
         Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        Pageable pageable = PageRequest.of(page, size, ProductSortField.fromProperty(sortBy).sort(direction));
 
         List<ProductResponseDto> products = productService.getAllProducts(pageable);
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Retrieves products using cursor-based (keyset) pagination.
+     *
+     * <p>Intended for deep listings such as catalog crawls: each page costs the same
+     * regardless of how far into the catalog it is, and no total count is computed.
+     * Pass the returned {@code nextCursor} as {@code cursor} to fetch the next page,
+     * keeping {@code sortBy} and {@code sortDir} unchanged.</p>
+     *
+     * @param size    the page size (between 1 and 100, default = 20)
+     * @param sortBy  the field to sort by: id, name, sku or price (default = "id")
+     * @param sortDir the sort direction ("asc" or "desc", default = "asc")
+     * @param cursor  the cursor from the previous page; omit for the first page
+     * @return a {@link ResponseEntity} containing a {@link ProductScrollResponseDto} and HTTP 200 (OK)
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<ProductScrollResponseDto> scrollProducts(
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String cursor) {
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(productService.scrollProducts(sortBy, direction, size, cursor));
+    }
+
+    /**
+     * Searches active products for storefront search and typeahead.
+     *
+     * <p>Matches products whose SKU starts with {@code q}, or whose name and SKU contain a
+     * word starting with each word of {@code q}. Results are served from an in-memory index
+     * and omit stock; SKU matches are listed first.</p>
+     *
+     * @param q     the search text
+     * @param limit the maximum number of results (between 1 and 50, default = 10)
+     * @return a {@link ResponseEntity} containing a list of {@link ProductSearchHitDto} and HTTP 200 (OK)
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductSearchHitDto>> searchProducts(
+            @RequestParam @NotBlank String q,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(50) int limit) {
+        return ResponseEntity.ok(productService.searchProducts(q, limit));
+    }
+
+    /**
+     * Streams the entire product catalog, ordered by ID.
+     *
+     * <p>Rows are written to the response as they are read from the database, so memory
+     * use stays flat regardless of catalog size. Intended for bulk consumers in place of
+     * paging through {@code GET /api/products}.</p>
+     *
+     * @param format the export format: "ndjson" (default) or "csv"
+     * @return a {@link ResponseEntity} streaming the catalog with HTTP 200 (OK)
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        ProductDataFormat exportFormat = ProductDataFormat.fromName(format);
+        StreamingResponseBody body = outputStream -> productExportService.export(exportFormat, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"products." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Bulk imports products from the request body, inserting new SKUs and updating existing ones.
+     *
+     * <p>The body is read as a stream and written in batches, so files of any size can be
+     * uploaded. Rows that fail validation are skipped and listed in the response with their
+     * line numbers; the remaining rows are still imported.</p>
+     *
+     * @param format the input format: "ndjson" (default) or "csv" with a header row
+     * @param body   the uploaded file
+     * @return a {@link ResponseEntity} containing the {@link ProductImportResultDto} and HTTP 200 (OK)
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ProductImportResultDto> importProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            InputStream body) {
+
+        ProductDataFormat importFormat = ProductDataFormat.fromName(format);
+        return ResponseEntity.ok(productImportService.importProducts(importFormat, body));
+    }
+
     /**
      * Fetches a single product by its unique identifier.
      *
-     * @param id the product ID
-     * @return a {@link ResponseEntity} containing the product details and HTTP 200 (OK)
+     * <p>The response carries a strong {@code ETag} derived from the product's ID and revision,
+     * which changes with any catalog or stock change. If the request's {@code If-None-Match}
+     * header matches the current revision, HTTP 304
+     * (Not Modified) is returned without a body, answered from a version-only lookup.</p>
+     *
+     * @param id          the product ID
+     * @param ifNoneMatch the entity tags the client already holds (optional)
+     * @return a {@link ResponseEntity} containing the product details and HTTP 200 (OK), or HTTP 304 (Not Modified)
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponseDto> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<ProductResponseDto> getProductById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        if (ifNoneMatch != null) {
+            ETag current = eTagOf(id, productService.getProductRevision(id));
+            boolean notModified = ETag.parse(ifNoneMatch).stream()
+                    .anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
+            if (notModified) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(current.formattedTag())
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
+        }
+
+        ProductResponseDto product = productService.getProductById(id);
+        return ResponseEntity.ok()
+                .eTag(eTagOf(product).formattedTag())
+                .cacheControl(CacheControl.noCache())
+                .body(product);
+    }
+
+    /**
+     * Fetches several products by ID in a single request.
+     *
+     * <p>Products are returned in request order; unknown IDs are listed in
+     * {@code missingIds} rather than failing the request.</p>
+     *
+     * @param ids comma-separated product IDs (between 1 and 100)
+     * @return a {@link ResponseEntity} containing a {@link ProductBatchResponseDto} and HTTP 200 (OK)
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<ProductBatchResponseDto> getProductsByIds(
+            @RequestParam @NotEmpty @Size(max = 100) List<@NotNull Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
+    /**
+     * Fetches several products by ID, accepting the IDs in the request body.
+     *
+     * <p>Equivalent to {@link #getProductsByIds(List)} but suited to ID sets too large
+     * for a query string.</p>
+     *
+     * @param productBatchRequestDto the product IDs to fetch (between 1 and 1000)
+     * @return a {@link ResponseEntity} containing a {@link ProductBatchResponseDto} and HTTP 200 (OK)
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ProductBatchResponseDto> getProductsByIds(
+            @Valid @RequestBody ProductBatchRequestDto productBatchRequestDto) {
+        return ResponseEntity.ok(productService.getProductsByIds(productBatchRequestDto.getIds()));
     }
 
     /**
      * Updates product details for an existing record.
      *
+     * <p>If an {@code If-Match} header is sent, the update is only applied while the product
+     * still matches one of the given entity tags (or any revision for {@code *}); otherwise
+     * HTTP 412 (Precondition Failed) is returned. The response carries the new {@code ETag}.</p>
+     *
      * @param id the ID of the product to update
      * @param productRequestDto the updated product data
+     * @param ifMatch the entity tags the update is conditional on (optional)
      * @return a {@link ResponseEntity} containing the updated {@link ProductResponseDto} and HTTP 200 (OK)
      */
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponseDto> updateProduct(
             @PathVariable Long id,
-            @Valid @RequestBody ProductRequestDto productRequestDto
+            @Valid @RequestBody ProductRequestDto productRequestDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        ProductResponseDto updatedProduct = productService.updateProduct(id, productRequestDto);
-        return ResponseEntity.ok(updatedProduct);
+        Set<String> expectedRevisions = ifMatch != null ? revisionsMatching(id, ifMatch) : null;
+        ProductResponseDto updatedProduct = productService.updateProduct(id, productRequestDto, expectedRevisions);
+        return ResponseEntity.ok()
+                .eTag(eTagOf(updatedProduct).formattedTag())
+                .body(updatedProduct);
     }
 
     /**
@@ -121,34 +333,28 @@ public class ProductController {
     /**
      * Checks stock availability for a given product.
      *
-     * <p>Primarily used by the Order Service to validate order requests.</p>
+     * <p>Primarily used by the Order Service to validate order requests. Answered with a single
+     * read-only projection query; units on active stock holds are not counted as available.</p>
      *
      * @param id       the product ID
      * @param quantity the requested quantity (must be >= 1)
-     * @return a {@link ResponseEntity} containing availability information and HTTP 200 (OK)
+     * @return a {@link ResponseEntity} containing the {@link StockAvailabilityResponseDto} and HTTP 200 (OK)
      */
     @GetMapping("/{id}/stock")
-    public ResponseEntity<Map<String, Object>> checkStock(
+    public ResponseEntity<StockAvailabilityResponseDto> checkStock(
             @PathVariable Long id,
             @NotNull @RequestParam @Min(1) Integer quantity
     ) {
-        ProductResponseDto product = productService.getProductById(id);
-        boolean hasStock = productService.hasStock(id, quantity);
-
-        Map<String, Object> response = Map.of(
-                "productId", id,
-                "hasStock", hasStock,
-                "availableStock", hasStock ? product.getStock() : 0,
-                "requestedQuantity", quantity
-        );
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(productAvailabilityService.checkAvailability(id, quantity));
     }
 
     /**
      * Reduces product stock after a confirmed order is processed.
      *
-     * <p>If insufficient stock exists, the response will include an HTTP 409 (Conflict) status.</p>
+     * <p>The deduction is applied as a conditional update, combined with concurrent deductions
+     * of the same product, and the response carries the remaining stock, which is approximate
+     * for products whose stock is split over several buckets. If insufficient stock
+     * exists, the response will include an HTTP 409 (Conflict) status.</p>
      *
      * @param id       the product ID
      * @param quantity the quantity to deduct (must be >= 1)
@@ -159,13 +365,197 @@ public class ProductController {
             @PathVariable Long id,
             @NotNull @RequestParam @Min(1) Integer quantity
     ) {
-        boolean success = productService.reduceStock(id, quantity);
+        OptionalInt remainingStock = productService.decrementStock(id, quantity);
 
-        if (!success) {
+        if (remainingStock.isEmpty()) {
             return ResponseEntity.status(HttpStatus.CONFLICT)
                     .body(Map.of("error", "Insufficient stock or product not found"));
         }
 
-        return ResponseEntity.ok(Map.of("message", "Stock reduced successfully"));
+        return ResponseEntity.ok(Map.of(
+                "message", "Stock reduced successfully",
+                "remainingStock", remainingStock.getAsInt()
+        ));
+    }
+
+    /**
+     * Validates, deducts and prices a product for an order in a single request.
+     *
+     * <p>Used by the Order Service in place of separate product lookup, stock check and
+     * stock reduction calls. Responds with HTTP 404 if the product does not exist, HTTP 422
+     * (Unprocessable Entity) if it is inactive, and HTTP 409 (Conflict) if stock is insufficient.</p>
+     *
+     * @param id       the product ID
+     * @param quantity the quantity to reserve (must be >= 1)
+     * @return a {@link ResponseEntity} containing the {@link StockReservationResponseDto} and HTTP 200 (OK)
+     */
+    @PutMapping("/{id}/reserve-stock")
+    public ResponseEntity<StockReservationResponseDto> reserveStock(
+            @PathVariable Long id,
+            @NotNull @RequestParam @Min(1) Integer quantity
+    ) {
+        return ResponseEntity.ok(productService.reserveStock(id, quantity));
+    }
+
+    /**
+     * Validates, deducts and prices several products for an order in a single request.
+     *
+     * <p>Used by the Order Service for multi-line orders. Either every line is reserved or none
+     * is: if any product cannot be reserved, no stock is deducted and the request fails as
+     * {@link #reserveStock(Long, Integer)} would for that product, with HTTP 404, 422
+     * (Unprocessable Entity) or 409 (Conflict).</p>
+     *
+     * @param stockReservationBatchRequestDto the products and quantities to reserve (between 1 and 100 lines)
+     * @return a {@link ResponseEntity} containing the {@link StockReservationBatchResponseDto} and HTTP 200 (OK)
+     */
+    @PutMapping("/reserve-stock")
+    public ResponseEntity<StockReservationBatchResponseDto> reserveStock(
+            @Valid @RequestBody StockReservationBatchRequestDto stockReservationBatchRequestDto) {
+        return ResponseEntity.ok(productService.reserveStock(stockReservationBatchRequestDto.getLines()));
+    }
+
+    /**
+     * Returns units that were reserved earlier but not sold to a product's stock.
+     *
+     * <p>Used by the Order Service to give back the unsold part of a flash-sale allocation.
+     * Responds with HTTP 404 if the product does not exist.</p>
+     *
+     * @param id       the product ID
+     * @param quantity the quantity to return (must be >= 1)
+     * @return a {@link ResponseEntity} with the product's stock after the return
+     */
+    @PutMapping("/{id}/return-stock")
+    public ResponseEntity<Map<String, Object>> returnStock(
+            @PathVariable Long id,
+            @NotNull @RequestParam @Min(1) Integer quantity
+    ) {
+        return ResponseEntity.ok(Map.of(
+                "message", "Stock returned successfully",
+                "stock", productService.returnStock(id, quantity)
+        ));
+    }
+
+    /**
+     * Places a temporary hold on product stock.
+     *
+     * <p>Held units stop counting as available but are only deducted from stock once the hold
+     * is committed. Holds that are neither committed nor released expire after {@code ttlSeconds}
+     * and their units are returned automatically. Responds with HTTP 404 if the product does not
+     * exist, HTTP 422 (Unprocessable Entity) if it is inactive, and HTTP 409 (Conflict) if not
+     * enough unheld stock remains.</p>
+     *
+     * @param id         the product ID
+     * @param quantity   the quantity to hold (must be >= 1)
+     * @param ttlSeconds how long to hold the stock; defaults to {@code product.hold.default-ttl}
+     * @return a {@link ResponseEntity} containing the {@link StockHoldResponseDto} and HTTP 201 (Created)
+     */
+    @PostMapping("/{id}/holds")
+    public ResponseEntity<StockHoldResponseDto> placeHold(
+            @PathVariable Long id,
+            @NotNull @RequestParam @Min(1) Integer quantity,
+            @RequestParam(required = false) @Min(1) Long ttlSeconds
+    ) {
+        Duration ttl = ttlSeconds != null ? Duration.ofSeconds(ttlSeconds) : null;
+        return ResponseEntity.status(HttpStatus.CREATED).body(stockHoldService.placeHold(id, quantity, ttl));
+    }
+
+    /**
+     * Fetches a stock hold by its unique identifier.
+     *
+     * @param holdId the hold ID
+     * @return a {@link ResponseEntity} containing the {@link StockHoldResponseDto} and HTTP 200 (OK)
+     */
+    @GetMapping("/holds/{holdId}")
+    public ResponseEntity<StockHoldResponseDto> getHold(@PathVariable Long holdId) {
+        return ResponseEntity.ok(stockHoldService.getHold(holdId));
+    }
+
+    /**
+     * Commits a stock hold, permanently deducting the held units from stock.
+     *
+     * <p>Responds with HTTP 409 (Conflict) if the hold was already committed, released or has expired.</p>
+     *
+     * @param holdId the hold ID
+     * @return a {@link ResponseEntity} containing the committed {@link StockHoldResponseDto} and HTTP 200 (OK)
+     */
+    @PostMapping("/holds/{holdId}/commit")
+    public ResponseEntity<StockHoldResponseDto> commitHold(@PathVariable Long holdId) {
+        return ResponseEntity.ok(stockHoldService.commitHold(holdId));
+    }
+
+    /**
+     * Releases a stock hold, returning the held units to available stock.
+     *
+     * <p>Responds with HTTP 409 (Conflict) if the hold was already committed, released or has expired.</p>
+     *
+     * @param holdId the hold ID
+     * @return a {@link ResponseEntity} containing the released {@link StockHoldResponseDto} and HTTP 200 (OK)
+     */
+    @PostMapping("/holds/{holdId}/release")
+    public ResponseEntity<StockHoldResponseDto> releaseHold(@PathVariable Long holdId) {
+        return ResponseEntity.ok(stockHoldService.releaseHold(holdId));
+    }
+
+    /**
+     * Lists the stock of a product at each of its locations.
+     *
+     * @param id the product ID
+     * @return a {@link ResponseEntity} containing the {@link StockLocationResponseDto}s and HTTP 200 (OK)
+     */
+    @GetMapping("/{id}/locations")
+    public ResponseEntity<List<StockLocationResponseDto>> getLocations(@PathVariable Long id) {
+        return ResponseEntity.ok(stockLocationService.getLocations(id));
+    }
+
+    /**
+     * Sets the stock of a product at a location, adding the location if it is new.
+     *
+     * <p>The stock is spread evenly over {@code buckets} rows, so that concurrent orders for a
+     * hot product update different rows; buckets can be added but not removed. Responds with
+     * HTTP 409 (Conflict) if {@code stock} is below the units on hold at the location.</p>
+     *
+     * @param id         the product ID
+     * @param locationId the location ID
+     * @param stock      the number of units on hand at the location (must be >= 0)
+     * @param buckets    the number of buckets (1-64); defaults to the current number
+     * @return a {@link ResponseEntity} containing the {@link StockLocationResponseDto} and HTTP 200 (OK)
+     */
+    @PutMapping("/{id}/locations/{locationId}")
+    public ResponseEntity<StockLocationResponseDto> setLocationStock(
+            @PathVariable Long id,
+            @PathVariable @Size(max = 64) String locationId,
+            @NotNull @RequestParam @Min(0) Integer stock,
+            @RequestParam(required = false) @Min(1) @Max(64) Integer buckets
+    ) {
+        return ResponseEntity.ok(stockLocationService.setLocationStock(id, locationId, stock, buckets));
+    }
+
+    /**
+     * Builds the strong entity tag for a product revision, e.g. {@code "42-3.17"}.
+     */
+    private static ETag eTagOf(Long id, String revision) {
+        return new ETag(id + "-" + revision, false);
+    }
+
+    private static ETag eTagOf(ProductResponseDto product) {
+        return eTagOf(product.getId(), ProductService.revisionOf(product.getVersion(), product.getInventoryVersion()));
+    }
+
+    /**
+     * Extracts the revisions of product {@code id} named by strong tags in an {@code If-Match}
+     * header, or returns {@code null} for {@code *}, which matches any revision.
+     */
+    private static Set<String> revisionsMatching(Long id, String ifMatch) {
+        String prefix = id + "-";
+        Set<String> revisions = new HashSet<>();
+        for (ETag tag : ETag.parse(ifMatch)) {
+            if (tag.isWildcard()) {
+                return null;
+            }
+            if (!tag.weak() && tag.tag().startsWith(prefix)) {
+                revisions.add(tag.tag().substring(prefix.length()));
+            }
+        }
+        return revisions;
     }
 }
@@ -0,0 +1,41 @@
+package com.rapidcart.product_service.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for fetching several products by ID in one request.
+ *
+ * <p>Used by the POST variant of the batch endpoint, for ID sets too large to fit
+ * comfortably in a query string.</p>
+ *
+ * <p>Example JSON payload:</p>
+ * <pre>
+ * {
+ *   "ids": [101, 102, 205]
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchRequestDto {
+
+    /**
+     * The product IDs to fetch, in the order they should be returned.
+     * <p>
+     * Must contain between 1 and 1000 IDs.
+     * </p>
+     */
+    @NotEmpty(message = "At least one product ID is required")
+    @Size(max = 1000, message = "At most 1000 product IDs can be requested at once")
+    private List<@NotNull(message = "Product ID cannot be null") Long> ids;
+}
@@ -0,0 +1,42 @@
+package com.rapidcart.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) returned by the batch product lookup.
+ *
+ * <p>Products are listed in the order their IDs were requested (duplicates removed);
+ * IDs with no matching product are reported separately instead of failing the request.</p>
+ *
+ * <p>Example JSON response:</p>
+ * <pre>
+ * {
+ *   "products": [
+ *     { "id": 101, "name": "Wireless Headphones", ... },
+ *     { "id": 205, "name": "USB-C Cable", ... }
+ *   ],
+ *   "missingIds": [102]
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchResponseDto {
+
+    /**
+     * The products that were found, in request order.
+     */
+    private List<ProductResponseDto> products;
+
+    /**
+     * The requested IDs for which no product exists, in request order.
+     */
+    private List<Long> missingIds;
+}
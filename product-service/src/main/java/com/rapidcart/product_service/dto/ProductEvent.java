@@ -0,0 +1,95 @@
+package com.rapidcart.product_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Message published to the {@code product.events} exchange when a product changes.
+ *
+ * <p>Every event carries the product ID and only the fields that changed. Catalog fields come
+ * with the catalog {@code version} the change produced and stock fields with the
+ * {@code inventoryVersion}. Events are published after the change commits, but stock changes
+ * are coalesced and may arrive out of order with other events, so consumers should ignore
+ * catalog fields older than the catalog version they hold, and stock fields older than the
+ * inventory version they hold.</p>
+ *
+ * <p>Example JSON representation:</p>
+ * <pre>
+ * {
+ *   "eventType": "STOCK_CHANGED",
+ *   "productId": 101,
+ *   "inventoryVersion": 42,
+ *   "occurredAt": "2025-11-03T10:15:30.120Z",
+ *   "stock": 57,
+ *   "availableStock": 50
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductEvent {
+
+    /**
+     * The kind of change.
+     */
+    private ProductEventType eventType;
+
+    /**
+     * The unique identifier of the product.
+     */
+    private Long productId;
+
+    /**
+     * The product's catalog version after the change, if catalog fields are included.
+     */
+    private Integer version;
+
+    /**
+     * The product's inventory version after the change, if stock fields are included.
+     */
+    private Integer inventoryVersion;
+
+    /**
+     * When the event was created.
+     */
+    private Instant occurredAt;
+
+    /**
+     * The new name, if it changed.
+     */
+    private String name;
+
+    /**
+     * The new SKU, if it changed.
+     */
+    private String sku;
+
+    /**
+     * The new price, if it changed.
+     */
+    private BigDecimal price;
+
+    /**
+     * The new stock level, if it changed.
+     */
+    private Integer stock;
+
+    /**
+     * The new stock level minus units on active holds, if either changed.
+     */
+    private Integer availableStock;
+
+    /**
+     * The new status, if it changed.
+     */
+    private Boolean activeStatus;
+}
@@ -0,0 +1,30 @@
+package com.rapidcart.product_service.dto;
+
+/**
+ * The kinds of change published in a {@link ProductEvent}, each with its own routing key
+ * on the {@code product.events} exchange.
+ */
+public enum ProductEventType {
+
+    /** A product was created; the event carries all of its fields. */
+    PRODUCT_CREATED("product.created"),
+
+    /** A product's name, SKU, price, stock or status changed; the event carries the changed fields. */
+    PRODUCT_UPDATED("product.updated"),
+
+    /** A product was deactivated, by a soft delete or an update; the event carries the changed fields. */
+    PRODUCT_DEACTIVATED("product.deactivated"),
+
+    /** A product's stock or units on hold changed; the event carries its current stock levels and inventory version. */
+    STOCK_CHANGED("product.stock.changed");
+
+    private final String routingKey;
+
+    ProductEventType(String routingKey) {
+        this.routingKey = routingKey;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+}
@@ -0,0 +1,42 @@
+package com.rapidcart.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) describing why a single row of a bulk import was rejected.
+ *
+ * <p>Example JSON representation:</p>
+ * <pre>
+ * {
+ *   "line": 42,
+ *   "sku": "WH-1000XM5",
+ *   "messages": ["price: Price must be positive"]
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportErrorDto {
+
+    /**
+     * The 1-based line number of the rejected row in the uploaded file.
+     */
+    private long line;
+
+    /**
+     * The SKU of the rejected row, if it could be read.
+     */
+    private String sku;
+
+    /**
+     * The validation or database errors for the row.
+     */
+    private List<String> messages;
+}
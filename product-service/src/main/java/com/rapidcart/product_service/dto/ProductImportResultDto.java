@@ -0,0 +1,70 @@
+package com.rapidcart.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) summarizing the outcome of a bulk product import.
+ *
+ * <p>Rows are validated with the same rules as {@link ProductRequestDto}; valid rows are
+ * upserted by SKU and invalid rows are reported individually in {@code errors}. At most
+ * 1000 errors are listed; {@code errorsTruncated} indicates that more rows failed.</p>
+ *
+ * <p>Example JSON response:</p>
+ * <pre>
+ * {
+ *   "totalRows": 500000,
+ *   "importedRows": 499998,
+ *   "failedRows": 2,
+ *   "elapsedMillis": 8123,
+ *   "rowsPerSecond": 61553,
+ *   "errors": [ { "line": 42, "sku": "WH-1000XM5", "messages": ["price: Price must be positive"] } ],
+ *   "errorsTruncated": false
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResultDto {
+
+    /**
+     * The number of data rows read from the file.
+     */
+    private long totalRows;
+
+    /**
+     * The number of rows inserted or updated.
+     */
+    private long importedRows;
+
+    /**
+     * The number of rows rejected.
+     */
+    private long failedRows;
+
+    /**
+     * The wall-clock duration of the import in milliseconds.
+     */
+    private long elapsedMillis;
+
+    /**
+     * The import throughput, in rows read per second.
+     */
+    private long rowsPerSecond;
+
+    /**
+     * Per-row errors, in file order.
+     */
+    private List<ProductImportErrorDto> errors;
+
+    /**
+     * Whether more rows failed than are listed in {@code errors}.
+     */
+    private boolean errorsTruncated;
+}
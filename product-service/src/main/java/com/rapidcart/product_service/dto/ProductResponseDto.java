@@ -23,7 +23,9 @@ import java.math.BigDecimal;
  *   "sku": "WH-1000XM5",
  *   "price": 299.99,
  *   "stock": 50,
- *   "activeStatus": true
+ *   "activeStatus": true,
+ *   "version": 3,
+ *   "inventoryVersion": 17
  * }
  * </pre>
  */
@@ -58,8 +60,23 @@ public class ProductResponseDto {
      */
     private Integer stock;
 
+    /**
+     * The number of items that can still be promised: stock minus units on active holds.
+     */
+    private Integer availableStock;
+
     /**
      * Indicates whether the product is active or available for sale.
      */
     private Boolean activeStatus;
+
+    /**
+     * The optimistic-locking version of the product, incremented on every change.
+     */
+    private Integer version;
+
+    /**
+     * The version of the product's inventory, incremented on every stock change.
+     */
+    private Integer inventoryVersion;
 }
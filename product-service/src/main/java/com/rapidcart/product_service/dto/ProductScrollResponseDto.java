@@ -0,0 +1,46 @@
+package com.rapidcart.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing one page of a cursor-paginated product listing.
+ *
+ * <p>Pass {@code nextCursor} back as the {@code cursor} parameter to fetch the following
+ * page. When {@code hasNext} is {@code false} the listing is complete and
+ * {@code nextCursor} is {@code null}.</p>
+ *
+ * <p>Example JSON response:</p>
+ * <pre>
+ * {
+ *   "products": [ { "id": 101, "name": "Wireless Headphones", ... } ],
+ *   "nextCursor": "eyJzIjoibmFtZSIsImQiOiJBU0MiLCJrIjp7Im5hbWUiOiJXaXJlbGVzcyIsImlkIjoxMDF9fQ",
+ *   "hasNext": true
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductScrollResponseDto {
+
+    /**
+     * The products on this page, in sort order.
+     */
+    private List<ProductResponseDto> products;
+
+    /**
+     * The opaque cursor for the next page, or {@code null} if this is the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Whether more products follow this page.
+     */
+    private boolean hasNext;
+}
@@ -0,0 +1,51 @@
+package com.rapidcart.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object (DTO) for a single product search or typeahead suggestion.
+ *
+ * <p>Search hits are served from memory and deliberately omit fast-changing fields such as
+ * stock; fetch the product by ID for its current state.</p>
+ *
+ * <p>Example JSON representation:</p>
+ * <pre>
+ * {
+ *   "id": 101,
+ *   "name": "Wireless Headphones",
+ *   "sku": "WH-1000XM5",
+ *   "price": 299.99
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchHitDto {
+
+    /**
+     * The unique identifier of the product.
+     */
+    private Long id;
+
+    /**
+     * The name of the product.
+     */
+    private String name;
+
+    /**
+     * The unique Stock Keeping Unit (SKU) of the product.
+     */
+    private String sku;
+
+    /**
+     * The price of the product.
+     */
+    private BigDecimal price;
+}
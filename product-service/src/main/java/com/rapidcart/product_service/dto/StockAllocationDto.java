@@ -0,0 +1,35 @@
+package com.rapidcart.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) describing how many units of a reservation or hold were taken
+ * from one location.
+ *
+ * <p>Example JSON:</p>
+ * <pre>
+ * {
+ *   "locationId": "MAIN",
+ *   "quantity": 2
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAllocationDto {
+
+    /**
+     * The location the units were taken from.
+     */
+    private String locationId;
+
+    /**
+     * The number of units taken from the location.
+     */
+    private Integer quantity;
+}
@@ -0,0 +1,52 @@
+package com.rapidcart.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) returned by the stock availability check.
+ *
+ * <p>Example JSON response:</p>
+ * <pre>
+ * {
+ *   "productId": 101,
+ *   "hasStock": true,
+ *   "availableStock": 48,
+ *   "requestedQuantity": 2,
+ *   "activeStatus": true
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAvailabilityResponseDto {
+
+    /**
+     * The ID of the checked product.
+     */
+    private Long productId;
+
+    /**
+     * Whether the product is active and has at least {@code requestedQuantity} units available.
+     */
+    private Boolean hasStock;
+
+    /**
+     * The number of units that can still be promised: stock minus units on active holds.
+     */
+    private Integer availableStock;
+
+    /**
+     * The quantity that was checked.
+     */
+    private Integer requestedQuantity;
+
+    /**
+     * Whether the product is active.
+     */
+    private Boolean activeStatus;
+}
@@ -0,0 +1,68 @@
+package com.rapidcart.product_service.dto;
+
+import com.rapidcart.product_service.entity.StockHoldStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) describing a stock hold.
+ *
+ * <p>Example JSON response:</p>
+ * <pre>
+ * {
+ *   "id": 9001,
+ *   "productId": 101,
+ *   "quantity": 2,
+ *   "status": "ACTIVE",
+ *   "createdAt": "2025-10-30T12:00:00Z",
+ *   "expiresAt": "2025-10-30T12:10:00Z",
+ *   "allocations": [{"locationId": "MAIN", "quantity": 2}]
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHoldResponseDto {
+
+    /**
+     * The unique identifier of the hold, used to commit or release it.
+     */
+    private Long id;
+
+    /**
+     * The ID of the held product.
+     */
+    private Long productId;
+
+    /**
+     * The number of units held.
+     */
+    private Integer quantity;
+
+    /**
+     * The current state of the hold.
+     */
+    private StockHoldStatus status;
+
+    /**
+     * When the hold was placed.
+     */
+    private Instant createdAt;
+
+    /**
+     * When the hold expires unless committed or released first.
+     */
+    private Instant expiresAt;
+
+    /**
+     * The locations the held units were taken from.
+     */
+    private List<StockAllocationDto> allocations;
+}
@@ -0,0 +1,59 @@
+package com.rapidcart.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) describing the stock of a product at one location.
+ *
+ * <p>Example JSON response:</p>
+ * <pre>
+ * {
+ *   "productId": 101,
+ *   "locationId": "WAREHOUSE-EAST",
+ *   "stock": 40,
+ *   "reservedStock": 4,
+ *   "availableStock": 36,
+ *   "buckets": 8
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLocationResponseDto {
+
+    /**
+     * The unique identifier of the product.
+     */
+    private Long productId;
+
+    /**
+     * The location holding the stock.
+     */
+    private String locationId;
+
+    /**
+     * The number of units on hand at the location.
+     */
+    private Integer stock;
+
+    /**
+     * The number of units at the location held by active stock holds.
+     */
+    private Integer reservedStock;
+
+    /**
+     * The number of units at the location that are neither sold nor on hold.
+     */
+    private Integer availableStock;
+
+    /**
+     * The number of rows the location's stock is spread over, so that concurrent orders
+     * update different rows.
+     */
+    private Integer buckets;
+}
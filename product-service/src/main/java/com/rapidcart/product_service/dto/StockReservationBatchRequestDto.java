@@ -0,0 +1,45 @@
+package com.rapidcart.product_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for reserving stock of several products in one request.
+ *
+ * <p>Used by the Order Service to reserve every line of a multi-line order at once. Lines
+ * for the same product are added up.</p>
+ *
+ * <p>Example JSON payload:</p>
+ * <pre>
+ * {
+ *   "lines": [
+ *     {"productId": 101, "quantity": 2},
+ *     {"productId": 205, "quantity": 1}
+ *   ]
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationBatchRequestDto {
+
+    /**
+     * The products and quantities to reserve.
+     * <p>
+     * Must contain between 1 and 100 lines.
+     * </p>
+     */
+    @NotEmpty(message = "At least one line is required")
+    @Size(max = 100, message = "At most 100 lines can be reserved at once")
+    private List<@Valid @NotNull(message = "Line cannot be null") StockReservationLineDto> lines;
+}
@@ -0,0 +1,40 @@
+package com.rapidcart.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) returned after stock has been reserved for several products at once.
+ *
+ * <p>Holds one reservation per distinct product, in the order the products first appear in
+ * the request.</p>
+ *
+ * <p>Example JSON response:</p>
+ * <pre>
+ * {
+ *   "reservations": [
+ *     {"productId": 101, "name": "Wireless Headphones", "price": 299.99, "version": 7,
+ *      "reservedQuantity": 2, "remainingStock": 48,
+ *      "allocations": [{"locationId": "MAIN", "quantity": 2}]},
+ *     {"productId": 205, "name": "USB-C Cable", "price": 9.99, "version": 3,
+ *      "reservedQuantity": 1, "remainingStock": 120,
+ *      "allocations": [{"locationId": "MAIN", "quantity": 1}]}
+ *   ]
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationBatchResponseDto {
+
+    /**
+     * The reservation of each product.
+     */
+    private List<StockReservationResponseDto> reservations;
+}
@@ -0,0 +1,39 @@
+package com.rapidcart.product_service.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) for one line of a batched stock reservation.
+ *
+ * <p>Example JSON payload:</p>
+ * <pre>
+ * {
+ *   "productId": 101,
+ *   "quantity": 2
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationLineDto {
+
+    /**
+     * The unique identifier of the product to reserve.
+     */
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    /**
+     * The number of units to reserve; must be at least 1.
+     */
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+}
@@ -0,0 +1,71 @@
+package com.rapidcart.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) returned after stock has been reserved for an order.
+ *
+ * <p>Carries everything the Order Service needs to build an order line — the product's
+ * name, price and version at the moment of reservation — so that validation, stock
+ * deduction and pricing cost a single round trip.</p>
+ *
+ * <p>Example JSON response:</p>
+ * <pre>
+ * {
+ *   "productId": 101,
+ *   "name": "Wireless Headphones",
+ *   "price": 299.99,
+ *   "version": 7,
+ *   "reservedQuantity": 2,
+ *   "remainingStock": 48,
+ *   "allocations": [{"locationId": "MAIN", "quantity": 2}]
+ * }
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationResponseDto {
+
+    /**
+     * The unique identifier of the product.
+     */
+    private Long productId;
+
+    /**
+     * The name of the product at the time of reservation.
+     */
+    private String name;
+
+    /**
+     * The unit price of the product at the time of reservation.
+     */
+    private BigDecimal price;
+
+    /**
+     * The catalog version of the product that the name and price were read at.
+     */
+    private Integer version;
+
+    /**
+     * The number of units deducted from stock.
+     */
+    private Integer reservedQuantity;
+
+    /**
+     * The number of units left in stock after the reservation.
+     */
+    private Integer remainingStock;
+
+    /**
+     * The locations the units were taken from.
+     */
+    private List<StockAllocationDto> allocations;
+}
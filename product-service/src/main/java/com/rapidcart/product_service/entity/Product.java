@@ -4,7 +4,6 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
-import jakarta.validation.constraints.PositiveOrZero;
 import lombok.*;
 
 import java.math.BigDecimal;
@@ -13,26 +12,47 @@ import java.math.BigDecimal;
  * Entity representing a product in the RapidCart system.
  *
  * <p>This class is mapped to the {@code products} table in the database
- * and stores details such as product name, SKU, price, stock level,
- * and availability status.</p>
+ * and stores catalog details such as product name, SKU, price and
+ * availability status. Stock is kept in {@link ProductInventory}.</p>
  *
  * <p>It includes optimistic locking via the {@link #version} field to
- * handle concurrent updates safely.</p>
+ * handle concurrent catalog updates safely.</p>
+ *
+ * <p>Every sortable column is covered by an index ending in {@code id} (the
+ * {@code sku} unique constraint and the primary key cover their own columns),
+ * which keyset pagination relies on.</p>
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_price_id", columnList = "price, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
 
+    /**
+     * The name of the database sequence backing {@link #id}.
+     */
+    public static final String ID_SEQUENCE = "products_seq";
+
+    /**
+     * The number of IDs reserved per sequence call.
+     * <p>Each value {@code v} drawn from {@link #ID_SEQUENCE} reserves the block
+     * {@code (v - ID_ALLOCATION_SIZE, v]}; bulk loaders that draw from the sequence
+     * directly must use the same convention.</p>
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /**
      * The unique identifier for the product.
-     * <p>Automatically generated by the database using identity strategy.</p>
+     * <p>Generated from the {@link #ID_SEQUENCE} sequence, {@link #ID_ALLOCATION_SIZE} IDs at a time.</p>
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -60,15 +80,6 @@ public class Product {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
 
-    /**
-     * The available stock quantity for the product.
-     * <p>Must be zero or positive.</p>
-     */
-    @NotNull(message = "Stock is required")
-    @PositiveOrZero(message = "Stock cannot be negative")
-    @Column(nullable = false)
-    private Integer stock;
-
     /**
      * Indicates whether the product is active or available for sale.
      * <p>Defaults to {@code true} if not explicitly set.</p>
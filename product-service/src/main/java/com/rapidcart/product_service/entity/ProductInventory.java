@@ -0,0 +1,125 @@
+package com.rapidcart.product_service.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+
+/**
+ * Entity representing one stock bucket of a product at a location, mapped to the
+ * {@code product_inventory} table.
+ *
+ * <p>Stock lives apart from the catalog columns in {@link Product} so that the two change
+ * independently: an order rewrites only these narrow rows, and each side has its own optimistic
+ * {@link #version}, so catalog edits and stock changes no longer conflict with each other.</p>
+ *
+ * <p>A product's stock is held per location, and the stock at a location may be split over
+ * several buckets, so that concurrent orders for a hot product update different rows instead
+ * of queuing on one. A product's stock, reserved stock and inventory version are the sums over
+ * all of its rows. Rows are keyed by product, location and bucket, are never deleted while
+ * their product exists (which keeps the summed version increasing), and are removed with
+ * their product.</p>
+ */
+@Entity
+@Table(name = "product_inventory")
+@IdClass(ProductInventory.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductInventory {
+
+    /**
+     * The location that holds the stock of newly created products.
+     */
+    public static final String DEFAULT_LOCATION = "MAIN";
+
+    /**
+     * The ID of the product this stock belongs to.
+     */
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    /**
+     * The location (warehouse, store or bin) that holds this stock.
+     */
+    @Id
+    @Builder.Default
+    @ColumnDefault("'" + DEFAULT_LOCATION + "'")
+    @Column(name = "location_id", length = 64)
+    private String locationId = DEFAULT_LOCATION;
+
+    /**
+     * The index of this bucket among the buckets of the location, starting at {@code 0}.
+     */
+    @Id
+    @Builder.Default
+    @ColumnDefault("0")
+    private Integer bucket = 0;
+
+    /**
+     * The product this stock belongs to; read-only, it only declares the foreign key.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Product product;
+
+    /**
+     * The stock quantity on hand in this bucket.
+     * <p>Must be zero or positive.</p>
+     */
+    @NotNull(message = "Stock is required")
+    @PositiveOrZero(message = "Stock cannot be negative")
+    @Column(nullable = false)
+    private Integer stock;
+
+    /**
+     * The number of units in this bucket held by active stock holds.
+     * <p>Available-to-promise stock is {@code stock - reservedStock}. Maintained by
+     * conditional updates in {@link com.rapidcart.product_service.repository.ProductInventoryRepository}
+     * as holds are placed, committed, released and expired.</p>
+     */
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(name = "reserved_stock", nullable = false)
+    private Integer reservedStock = 0;
+
+    /**
+     * The version field used for optimistic locking of stock changes to this bucket.
+     */
+    @Version
+    private Integer version;
+
+    /**
+     * Returns the stock that is neither sold nor on hold.
+     *
+     * @return {@code stock - reservedStock}
+     */
+    public int getAvailableStock() {
+        return stock - reservedStock;
+    }
+
+    /**
+     * Composite primary key of {@link ProductInventory}.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Long productId;
+
+        private String locationId;
+
+        private Integer bucket;
+    }
+}
@@ -0,0 +1,38 @@
+package com.rapidcart.product_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+/**
+ * A quantity of a product taken from one stock bucket at one location.
+ *
+ * <p>Produced by {@link com.rapidcart.product_service.service.StockAllocator} when an order or
+ * hold is fulfilled, and stored with each {@link StockHold} so that committing, releasing or
+ * expiring the hold returns to the same buckets.</p>
+ */
+@Embeddable
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAllocation {
+
+    /**
+     * The location the units were taken from.
+     */
+    @Column(name = "location_id", nullable = false, length = 64)
+    private String locationId;
+
+    /**
+     * The bucket of the location the units were taken from.
+     */
+    @Column(nullable = false)
+    private Integer bucket;
+
+    /**
+     * The number of units taken.
+     */
+    @Column(nullable = false)
+    private Integer quantity;
+}
@@ -0,0 +1,80 @@
+package com.rapidcart.product_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.BatchSize;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity representing a temporary hold on product stock, such as for a checkout in progress.
+ *
+ * <p>This class is mapped to the {@code stock_holds} table. While a hold is
+ * {@link StockHoldStatus#ACTIVE ACTIVE} its quantity is counted in
+ * {@link ProductInventory#getReservedStock()} of the buckets listed in {@link #allocations};
+ * committing it deducts the units from those buckets' stock, while releasing or expiring it
+ * returns them.</p>
+ *
+ * <p>The {@code (status, expires_at)} index lets the expiry sweeper find due holds without
+ * scanning the table, and {@code (product_id, status)} serves per-product lookups.</p>
+ */
+@Entity
+@Table(name = "stock_holds", indexes = {
+        @Index(name = "idx_stock_holds_status_expires_at", columnList = "status, expires_at"),
+        @Index(name = "idx_stock_holds_product_id_status", columnList = "product_id, status")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHold {
+
+    /**
+     * The unique identifier for the hold.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    /**
+     * The ID of the held product.
+     */
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    /**
+     * The number of units held.
+     */
+    @Column(nullable = false)
+    private Integer quantity;
+
+    /**
+     * The current lifecycle state of the hold.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private StockHoldStatus status;
+
+    /**
+     * When the hold was placed.
+     */
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /**
+     * When an active hold stops being committable and becomes eligible for expiry.
+     */
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    /**
+     * The buckets the held units were taken from; their quantities add up to {@link #quantity}.
+     */
+    @Builder.Default
+    @ElementCollection
+    @BatchSize(size = 100)
+    @CollectionTable(name = "stock_hold_allocations", joinColumns = @JoinColumn(name = "hold_id"))
+    private List<StockAllocation> allocations = new ArrayList<>();
+}
@@ -0,0 +1,21 @@
+package com.rapidcart.product_service.entity;
+
+/**
+ * Lifecycle states of a {@link StockHold}.
+ *
+ * <p>A hold starts {@link #ACTIVE} and moves to exactly one terminal state.</p>
+ */
+public enum StockHoldStatus {
+
+    /** Units are held and count against available-to-promise stock. */
+    ACTIVE,
+
+    /** The held units were deducted from stock. */
+    COMMITTED,
+
+    /** The held units were returned to available stock by the caller. */
+    RELEASED,
+
+    /** The hold passed its expiry time and its units were returned by the sweeper. */
+    EXPIRED
+}
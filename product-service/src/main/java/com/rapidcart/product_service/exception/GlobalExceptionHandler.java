@@ -4,6 +4,8 @@ import jakarta.persistence.OptimisticLockException;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -111,6 +113,38 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.NOT_FOUND, "Resource not found", ex.getMessage(), null);
     }
 
+    /**
+     * Handles stock reservations that exceed the available stock.
+     */
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<Map<String, Object>> handleInsufficientStockException(InsufficientStockException ex) {
+        return buildResponse(HttpStatus.CONFLICT, "Insufficient stock", ex.getMessage(), null);
+    }
+
+    /**
+     * Handles operations on products that are no longer active.
+     */
+    @ExceptionHandler(ProductUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleProductUnavailableException(ProductUnavailableException ex) {
+        return buildResponse(HttpStatus.UNPROCESSABLE_ENTITY, "Product unavailable", ex.getMessage(), null);
+    }
+
+    /**
+     * Handles commit or release requests for stock holds that are no longer active.
+     */
+    @ExceptionHandler(StockHoldNotActiveException.class)
+    public ResponseEntity<Map<String, Object>> handleStockHoldNotActiveException(StockHoldNotActiveException ex) {
+        return buildResponse(HttpStatus.CONFLICT, "Stock hold not active", ex.getMessage(), null);
+    }
+
+    /**
+     * Handles conditional requests whose {@code If-Match} precondition no longer holds.
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, Object>> handlePreconditionFailedException(PreconditionFailedException ex) {
+        return buildResponse(HttpStatus.PRECONDITION_FAILED, "Precondition failed", ex.getMessage(), null);
+    }
+
     /**
      * Handles bad input or illegal arguments.
      */
@@ -132,6 +166,32 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * Handles optimistic locking conflicts that persisted through every retry.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return buildResponse(
+                HttpStatus.CONFLICT,
+                "Concurrent update error",
+                "The resource was modified by another transaction. Please refresh and try again.",
+                null
+        );
+    }
+
+    /**
+     * Handles row locks that could not be acquired within the lock timeout.
+     */
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handlePessimisticLockingFailureException(PessimisticLockingFailureException ex) {
+        return buildResponse(
+                HttpStatus.CONFLICT,
+                "Concurrent update error",
+                "The resource is being modified by another transaction. Please try again.",
+                null
+        );
+    }
+
     /**
      * Handles database constraint violations (e.g., unique constraint, foreign key violation).
      */
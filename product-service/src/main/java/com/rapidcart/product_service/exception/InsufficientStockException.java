@@ -0,0 +1,7 @@
+package com.rapidcart.product_service.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.rapidcart.product_service.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.rapidcart.product_service.exception;
+
+public class ProductUnavailableException extends RuntimeException {
+    public ProductUnavailableException(String message) {
+        super(message);
+    }
+}
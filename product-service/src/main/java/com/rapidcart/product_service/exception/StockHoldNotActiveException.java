@@ -0,0 +1,7 @@
+package com.rapidcart.product_service.exception;
+
+public class StockHoldNotActiveException extends RuntimeException {
+    public StockHoldNotActiveException(String message) {
+        super(message);
+    }
+}
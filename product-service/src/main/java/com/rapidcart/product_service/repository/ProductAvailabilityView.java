@@ -0,0 +1,18 @@
+package com.rapidcart.product_service.repository;
+
+/**
+ * Read-only projection of the {@code products} and {@code product_inventory} columns needed to answer a stock availability check.
+ *
+ * <p>Used by {@link ProductRepository#findAvailabilityById(Long)} so that availability checks
+ * read four columns without materializing managed entities.</p>
+ */
+public interface ProductAvailabilityView {
+
+    Long getId();
+
+    Integer getStock();
+
+    Integer getReservedStock();
+
+    Boolean getActiveStatus();
+}
@@ -0,0 +1,218 @@
+package com.rapidcart.product_service.repository;
+
+import com.rapidcart.product_service.entity.ProductInventory;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for {@link ProductInventory}, through which every stock change is made.
+ *
+ * <p>Each change is a single conditional update of one narrow {@code product_inventory} bucket,
+ * guarded by the database under that row's lock, and bumps that bucket's version only; the
+ * {@code products} row and its version are never written by stock traffic. Which buckets an
+ * order or hold draws from is decided by {@link com.rapidcart.product_service.service.StockAllocator}.</p>
+ *
+ * <p>Product-level stock is read by summing a product's buckets, which share the leading
+ * {@code product_id} column of the primary key, so the sums are served from that index.</p>
+ */
+@Repository
+public interface ProductInventoryRepository extends JpaRepository<ProductInventory, ProductInventory.Key> {
+
+    /**
+     * Atomically decrements the stock of a bucket if, and only if, enough units remain in it.
+     *
+     * <p>The guard {@code stock - reservedStock >= quantity} is evaluated by the database under
+     * the row lock taken by the update, so concurrent callers can never drive stock below zero
+     * or sell units that are on hold. The
+     * version column is bumped so that optimistic readers still observe the change.</p>
+     *
+     * @param productId  the product ID
+     * @param locationId the location ID
+     * @param bucket     the bucket index
+     * @param quantity   the number of units to deduct
+     * @return the number of rows updated ({@code 1} on success, {@code 0} if the bucket
+     *         does not exist or has insufficient stock)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductInventory i SET i.stock = i.stock - :quantity, i.version = i.version + 1 " +
+            "WHERE i.productId = :productId AND i.locationId = :locationId AND i.bucket = :bucket " +
+            "AND i.stock - i.reservedStock >= :quantity")
+    int decrementStockIfAvailable(@Param("productId") Long productId, @Param("locationId") String locationId,
+                                  @Param("bucket") Integer bucket, @Param("quantity") Integer quantity);
+
+    /**
+     * Atomically decrements the stock of a bucket of an active product if enough units remain in it.
+     *
+     * <p>Same guarantees as {@link #decrementStockIfAvailable(Long, String, Integer, Integer)}, with the
+     * additional condition that the product is still active.</p>
+     *
+     * @param productId  the product ID
+     * @param locationId the location ID
+     * @param bucket     the bucket index
+     * @param quantity   the number of units to deduct
+     * @return the number of rows updated ({@code 1} on success, {@code 0} otherwise)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductInventory i SET i.stock = i.stock - :quantity, i.version = i.version + 1 " +
+            "WHERE i.productId = :productId AND i.locationId = :locationId AND i.bucket = :bucket " +
+            "AND i.stock - i.reservedStock >= :quantity " +
+            "AND EXISTS (SELECT p.id FROM Product p WHERE p.id = :productId AND p.activeStatus = true)")
+    int decrementStockIfActiveAndAvailable(@Param("productId") Long productId, @Param("locationId") String locationId,
+                                           @Param("bucket") Integer bucket, @Param("quantity") Integer quantity);
+
+    /**
+     * Atomically places units of a bucket of an active product on hold if enough unheld stock remains in it.
+     *
+     * <p>Only {@code reservedStock} changes; {@code stock} is untouched until the hold is
+     * committed. The guard is evaluated under the row lock, so concurrent holds can never
+     * promise more than the bucket's {@code stock}.</p>
+     *
+     * @param productId  the product ID
+     * @param locationId the location ID
+     * @param bucket     the bucket index
+     * @param quantity   the number of units to hold
+     * @return the number of rows updated ({@code 1} on success, {@code 0} otherwise)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductInventory i SET i.reservedStock = i.reservedStock + :quantity, i.version = i.version + 1 " +
+            "WHERE i.productId = :productId AND i.locationId = :locationId AND i.bucket = :bucket " +
+            "AND i.stock - i.reservedStock >= :quantity " +
+            "AND EXISTS (SELECT p.id FROM Product p WHERE p.id = :productId AND p.activeStatus = true)")
+    int holdStockIfAvailable(@Param("productId") Long productId, @Param("locationId") String locationId,
+                             @Param("bucket") Integer bucket, @Param("quantity") Integer quantity);
+
+    /**
+     * Converts held units of a bucket into a permanent stock deduction.
+     *
+     * @param productId  the product ID
+     * @param locationId the location ID
+     * @param bucket     the bucket index
+     * @param quantity   the number of held units to deduct
+     * @return the number of rows updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductInventory i SET i.stock = i.stock - :quantity, " +
+            "i.reservedStock = i.reservedStock - :quantity, i.version = i.version + 1 " +
+            "WHERE i.productId = :productId AND i.locationId = :locationId AND i.bucket = :bucket")
+    int commitHeldStock(@Param("productId") Long productId, @Param("locationId") String locationId,
+                        @Param("bucket") Integer bucket, @Param("quantity") Integer quantity);
+
+    /**
+     * Returns held units of a bucket to its available stock.
+     *
+     * @param productId  the product ID
+     * @param locationId the location ID
+     * @param bucket     the bucket index
+     * @param quantity   the number of held units to release
+     * @return the number of rows updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductInventory i SET i.reservedStock = i.reservedStock - :quantity, i.version = i.version + 1 " +
+            "WHERE i.productId = :productId AND i.locationId = :locationId AND i.bucket = :bucket")
+    int releaseHeldStock(@Param("productId") Long productId, @Param("locationId") String locationId,
+                         @Param("bucket") Integer bucket, @Param("quantity") Integer quantity);
+
+    /**
+     * Adds units to the stock of a bucket.
+     *
+     * @param productId  the product ID
+     * @param locationId the location ID
+     * @param bucket     the bucket index
+     * @param quantity   the number of units to add
+     * @return the number of rows updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductInventory i SET i.stock = i.stock + :quantity, i.version = i.version + 1 " +
+            "WHERE i.productId = :productId AND i.locationId = :locationId AND i.bucket = :bucket")
+    int incrementStock(@Param("productId") Long productId, @Param("locationId") String locationId,
+                       @Param("bucket") Integer bucket, @Param("quantity") Integer quantity);
+
+    /**
+     * Loads every stock bucket of a product, ordered by location and bucket.
+     *
+     * @param productId the product ID
+     * @return the buckets, or an empty list if the product does not exist
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query("SELECT i FROM ProductInventory i WHERE i.productId = :productId ORDER BY i.locationId, i.bucket")
+    List<ProductInventory> findByProductId(@Param("productId") Long productId);
+
+    /**
+     * Loads every stock bucket of a product and locks their rows ({@code SELECT ... FOR UPDATE})
+     * until the transaction ends.
+     *
+     * <p>Rows are locked in location and bucket order, so that concurrent callers cannot
+     * deadlock on them. Callers bound the wait for the locks with
+     * {@link com.rapidcart.product_service.service.RowLockTimeout}.</p>
+     *
+     * @param productId the product ID
+     * @return the locked buckets, or an empty list if the product does not exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM ProductInventory i WHERE i.productId = :productId ORDER BY i.locationId, i.bucket")
+    List<ProductInventory> findByProductIdForUpdate(@Param("productId") Long productId);
+
+    /**
+     * Reads the stock levels and inventory versions of several products as projections, in one query.
+     *
+     * @param productIds the product IDs
+     * @return the projections of the products that exist, in no particular order
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query("SELECT i.productId AS id, CAST(SUM(i.stock) AS Integer) AS stock, " +
+            "CAST(SUM(i.reservedStock) AS Integer) AS reservedStock, CAST(SUM(i.version) AS Integer) AS version " +
+            "FROM ProductInventory i WHERE i.productId IN :productIds GROUP BY i.productId")
+    List<ProductStockLevelView> findStockLevelsByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Reads the stock levels and inventory version of a product as a projection.
+     *
+     * @param productId the product ID
+     * @return the projection, or empty if the product does not exist
+     */
+    @Query("SELECT i.productId AS id, CAST(SUM(i.stock) AS Integer) AS stock, " +
+            "CAST(SUM(i.reservedStock) AS Integer) AS reservedStock, CAST(SUM(i.version) AS Integer) AS version " +
+            "FROM ProductInventory i WHERE i.productId = :productId GROUP BY i.productId")
+    Optional<ProductStockLevelView> findStockLevelByProductId(@Param("productId") Long productId);
+
+    /**
+     * Reads the stock levels of a product per location as projections.
+     *
+     * @param productId the product ID
+     * @return the projections, ordered by location, or an empty list if the product does not exist
+     */
+    @Query("SELECT i.locationId AS locationId, CAST(SUM(i.stock) AS Integer) AS stock, " +
+            "CAST(SUM(i.reservedStock) AS Integer) AS reservedStock, CAST(COUNT(i) AS Integer) AS buckets " +
+            "FROM ProductInventory i WHERE i.productId = :productId GROUP BY i.locationId ORDER BY i.locationId")
+    List<StockLocationView> findLocationLevelsByProductId(@Param("productId") Long productId);
+
+    /**
+     * Reads the current stock level of a product without materializing its buckets.
+     *
+     * @param productId the product ID
+     * @return the stock level, or empty if the product does not exist
+     */
+    @Query("SELECT CAST(SUM(i.stock) AS Integer) FROM ProductInventory i WHERE i.productId = :productId")
+    Optional<Integer> findStockByProductId(@Param("productId") Long productId);
+
+    /**
+     * Reads the current inventory version of a product without materializing its buckets.
+     *
+     * @param productId the product ID
+     * @return the version, or empty if the product does not exist
+     */
+    @Query("SELECT CAST(SUM(i.version) AS Integer) FROM ProductInventory i WHERE i.productId = :productId")
+    Optional<Integer> findVersionByProductId(@Param("productId") Long productId);
+}
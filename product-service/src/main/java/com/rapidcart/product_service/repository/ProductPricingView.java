@@ -0,0 +1,24 @@
+package com.rapidcart.product_service.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of the {@code products} and {@code product_inventory} columns needed to price an order line.
+ *
+ * <p>Used by {@link ProductRepository} so that stock reservation can return the product's
+ * name, price and version without materializing a managed {@link com.rapidcart.product_service.entity.Product}.</p>
+ */
+public interface ProductPricingView {
+
+    Long getId();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    Integer getStock();
+
+    Boolean getActiveStatus();
+
+    Integer getVersion();
+}
@@ -1,9 +1,86 @@
 package com.rapidcart.product_service.repository;
 
 import com.rapidcart.product_service.entity.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    /**
+     * Scrolls through all products using keyset pagination.
+     *
+     * <p>Each window is fetched with a seek predicate on the sort key and {@code id}
+     * instead of an offset, and no count query is issued.</p>
+     *
+     * @param position the keyset position to continue from
+     * @param sort     the sort order, which must end with a unique key
+     * @param limit    the maximum number of products to return
+     * @return the next window of products
+     */
+    Window<Product> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Reads the pricing columns of a product as a projection.
+     *
+     * @param id the product ID
+     * @return the projection, or empty if the product does not exist
+     */
+    @Query("SELECT p.id AS id, p.name AS name, p.price AS price, CAST(SUM(i.stock) AS Integer) AS stock, " +
+            "p.activeStatus AS activeStatus, p.version AS version " +
+            "FROM Product p JOIN ProductInventory i ON i.productId = p.id WHERE p.id = :id " +
+            "GROUP BY p.id, p.name, p.price, p.activeStatus, p.version")
+    Optional<ProductPricingView> findPricingViewById(@Param("id") Long id);
+
+    /**
+     * Loads a product and locks its row ({@code SELECT ... FOR UPDATE}) until the transaction ends.
+     *
+     * <p>Waits for the lock as long as the database's lock timeout allows; callers bound the wait
+     * with {@link com.rapidcart.product_service.service.RowLockTimeout}.</p>
+     *
+     * @param id the product ID
+     * @return the locked product, or empty if it does not exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Reads the columns needed for an availability check as a projection.
+     *
+     * <p>The query runs with flush mode {@code MANUAL} (Hibernate's {@code NEVER}), so it never
+     * triggers a flush or dirty check of the persistence context.</p>
+     *
+     * @param id the product ID
+     * @return the projection, or empty if the product does not exist
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query("SELECT p.id AS id, CAST(SUM(i.stock) AS Integer) AS stock, " +
+            "CAST(SUM(i.reservedStock) AS Integer) AS reservedStock, p.activeStatus AS activeStatus " +
+            "FROM Product p JOIN ProductInventory i ON i.productId = p.id WHERE p.id = :id " +
+            "GROUP BY p.id, p.activeStatus")
+    Optional<ProductAvailabilityView> findAvailabilityById(@Param("id") Long id);
+
+    /**
+     * Reads the current catalog and inventory versions of a product without materializing any entity.
+     *
+     * @param id the product ID
+     * @return the versions, or empty if the product does not exist
+     */
+    @Query("SELECT p.version AS version, CAST(SUM(i.version) AS Integer) AS inventoryVersion " +
+            "FROM Product p JOIN ProductInventory i ON i.productId = p.id WHERE p.id = :id GROUP BY p.version")
+    Optional<ProductVersionView> findVersionsById(@Param("id") Long id);
 }
@@ -0,0 +1,22 @@
+package com.rapidcart.product_service.repository;
+
+/**
+ * Read-only projection of a product's stock levels and inventory version, summed over its buckets.
+ *
+ * <p>Used by {@link ProductInventoryRepository#findStockLevelsByProductIdIn(java.util.Collection)} to build
+ * read models and stock change events for many products with one query.</p>
+ */
+public interface ProductStockLevelView {
+
+    Long getId();
+
+    Integer getStock();
+
+    Integer getReservedStock();
+
+    Integer getVersion();
+
+    default int getAvailableStock() {
+        return getStock() - getReservedStock();
+    }
+}
@@ -0,0 +1,14 @@
+package com.rapidcart.product_service.repository;
+
+/**
+ * Read-only projection of a product's catalog and inventory versions.
+ *
+ * <p>Used by {@link ProductRepository#findVersionsById(Long)} to answer conditional requests
+ * without materializing either entity.</p>
+ */
+public interface ProductVersionView {
+
+    Integer getVersion();
+
+    Integer getInventoryVersion();
+}
@@ -0,0 +1,86 @@
+package com.rapidcart.product_service.repository;
+
+import com.rapidcart.product_service.entity.StockHold;
+import com.rapidcart.product_service.entity.StockHoldStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, Long> {
+
+    /**
+     * Loads a hold together with its allocations, which stay readable after the persistence
+     * context is cleared by a conditional update.
+     *
+     * @param id the hold ID
+     * @return the hold, or empty if it does not exist
+     */
+    @EntityGraph(attributePaths = "allocations")
+    Optional<StockHold> findWithAllocationsById(Long id);
+
+    /**
+     * Moves an active, unexpired hold to {@code COMMITTED}.
+     *
+     * @param id  the hold ID
+     * @param now the current time; holds expiring at or before it are not committed
+     * @return the number of rows updated ({@code 1} on success, {@code 0} otherwise)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockHold h SET h.status = com.rapidcart.product_service.entity.StockHoldStatus.COMMITTED " +
+            "WHERE h.id = :id AND h.status = com.rapidcart.product_service.entity.StockHoldStatus.ACTIVE " +
+            "AND h.expiresAt > :now")
+    int commitIfActive(@Param("id") Long id, @Param("now") Instant now);
+
+    /**
+     * Moves an active hold to {@code RELEASED}.
+     *
+     * @param id the hold ID
+     * @return the number of rows updated ({@code 1} on success, {@code 0} otherwise)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockHold h SET h.status = com.rapidcart.product_service.entity.StockHoldStatus.RELEASED " +
+            "WHERE h.id = :id AND h.status = com.rapidcart.product_service.entity.StockHoldStatus.ACTIVE")
+    int releaseIfActive(@Param("id") Long id);
+
+    /**
+     * Locks a batch of holds in the given status that expired at or before {@code now},
+     * oldest first.
+     *
+     * <p>Rows already locked by another transaction, such as a concurrent commit or another
+     * sweeper instance, are skipped rather than waited for.</p>
+     *
+     * @param status the status to match, normally {@code ACTIVE}
+     * @param now    the expiry cut-off
+     * @param limit  the maximum batch size
+     * @return the locked holds
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<StockHold> findByStatusAndExpiresAtLessThanEqualOrderByExpiresAt(
+            StockHoldStatus status, Instant now, Limit limit);
+
+    /**
+     * Sets the status of the given holds.
+     *
+     * @param ids    the hold IDs
+     * @param status the new status
+     * @return the number of rows updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockHold h SET h.status = :status WHERE h.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") StockHoldStatus status);
+}
@@ -0,0 +1,17 @@
+package com.rapidcart.product_service.repository;
+
+/**
+ * Read-only projection of a product's stock at one location, summed over the location's buckets.
+ *
+ * <p>Used by {@link ProductInventoryRepository#findLocationLevelsByProductId(Long)}.</p>
+ */
+public interface StockLocationView {
+
+    String getLocationId();
+
+    Integer getStock();
+
+    Integer getReservedStock();
+
+    Integer getBuckets();
+}
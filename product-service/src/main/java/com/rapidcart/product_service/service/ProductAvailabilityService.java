@@ -0,0 +1,50 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.dto.StockAvailabilityResponseDto;
+import com.rapidcart.product_service.exception.ResourceNotFoundException;
+import com.rapidcart.product_service.repository.ProductAvailabilityView;
+import com.rapidcart.product_service.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Read-only service answering stock availability checks.
+ *
+ * <p>Each check is a single projection query of {@code id}, {@code stock},
+ * {@code reservedStock} and {@code activeStatus}, run in a read-only transaction. The
+ * transaction puts the Hibernate session in {@code MANUAL} flush mode and marks the JDBC
+ * connection read-only, so there is no entity loading, dirty checking or flush.</p>
+ *
+ * <p>Kept apart from {@link ProductService}, whose read-write class-level transaction
+ * would otherwise apply.</p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProductAvailabilityService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    /**
+     * Checks whether a product is active and has enough available stock.
+     *
+     * @param id       the product ID
+     * @param quantity the requested quantity
+     * @return the availability of the product
+     * @throws ResourceNotFoundException if the product does not exist
+     */
+    public StockAvailabilityResponseDto checkAvailability(Long id, Integer quantity) {
+        ProductAvailabilityView product = productRepository.findAvailabilityById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+
+        int availableStock = product.getStock() - product.getReservedStock();
+        return StockAvailabilityResponseDto.builder()
+                .productId(product.getId())
+                .hasStock(product.getActiveStatus() && availableStock >= quantity)
+                .availableStock(availableStock)
+                .requestedQuantity(quantity)
+                .activeStatus(product.getActiveStatus())
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.rapidcart.product_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rapidcart.product_service.dto.ProductResponseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded in-memory cache of product read models, keyed by product ID.
+ *
+ * <p>Entries are evicted by size ({@code product.cache.maximum-size}) and age
+ * ({@code product.cache.expire-after-write}). Each entry is stamped with the product's
+ * catalog {@code version} and {@code inventoryVersion}; a put never replaces an entry that is
+ * newer in either, so a slow reader cannot overwrite the result of a newer one.</p>
+ *
+ * <p>Writers call {@link #evictAfterCommit(Long)}, which drops the entry immediately and
+ * again once the surrounding transaction commits. Each drop also advances the product's
+ * invalidation generation. Readers take the generation with {@link #generation(Long)} before
+ * loading a product and pass it to {@link #put(ProductResponseDto, long)}, which discards the
+ * load if the generation has moved on since: a reader that loaded the pre-commit row cannot
+ * put it back after the commit's eviction. Generations are kept in a fixed number of stripes
+ * shared by many products, so an eviction may also discard a concurrent load of an unrelated
+ * product, which only costs that product a cache miss.</p>
+ *
+ * <p>Hit, miss, load and eviction statistics are published as {@code cache.*} metrics
+ * tagged with {@code cache=products}.</p>
+ */
+@Component
+public class ProductCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Long, ProductResponseDto> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public ProductCache(
+            @Value("${product.cache.maximum-size:10000}") long maximumSize,
+            @Value("${product.cache.expire-after-write:60s}") Duration expireAfterWrite,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    /**
+     * Returns the cached read model for a product, if present.
+     *
+     * @param id the product ID
+     * @return the cached product, or empty on a miss
+     */
+    public Optional<ProductResponseDto> get(Long id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    /**
+     * Returns the invalidation generation of a product, to be taken before loading it.
+     *
+     * @param id the product ID
+     * @return the generation to pass to {@link #put(ProductResponseDto, long)}
+     */
+    public long generation(Long id) {
+        return generations.get(stripe(id));
+    }
+
+    /**
+     * Caches a product read model unless the product was evicted since {@code generation} was
+     * taken or a newer version is already cached.
+     *
+     * @param product    the product read model to cache
+     * @param generation the product's generation taken before it was loaded
+     */
+    public void put(ProductResponseDto product, long generation) {
+        int stripe = stripe(product.getId());
+        // The check runs under the entry's lock, which eviction also takes after advancing the generation
+        cache.asMap().compute(product.getId(), (id, cached) -> {
+            if (generations.get(stripe) != generation) {
+                return cached;
+            }
+            return cached == null || isNewer(product, cached) ? product : cached;
+        });
+    }
+
+    /**
+     * Removes a product from the cache now and, if a transaction is active, again after it commits.
+     *
+     * @param id the product ID
+     */
+    public void evictAfterCommit(Long id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes every product from the cache, for writes that touch rows without knowing their IDs.
+     */
+    public void invalidateAll() {
+        for (int stripe = 0; stripe < GENERATION_STRIPES; stripe++) {
+            generations.incrementAndGet(stripe);
+        }
+        cache.invalidateAll();
+    }
+
+    private void evict(Long id) {
+        generations.incrementAndGet(stripe(id));
+        cache.invalidate(id);
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (GENERATION_STRIPES - 1);
+    }
+
+    private boolean isNewer(ProductResponseDto candidate, ProductResponseDto current) {
+        return notOlder(candidate.getVersion(), current.getVersion())
+                && notOlder(candidate.getInventoryVersion(), current.getInventoryVersion());
+    }
+
+    private static boolean notOlder(Integer candidate, Integer current) {
+        return candidate == null || current == null || candidate >= current;
+    }
+}
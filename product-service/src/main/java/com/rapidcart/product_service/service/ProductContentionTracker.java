@@ -0,0 +1,224 @@
+package com.rapidcart.product_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Tracks write contention per product and decides whether writes to it should lock the row
+ * pessimistically instead of relying on optimistic locking.
+ *
+ * <p>Each product has a contention rate: an exponentially weighted average of recent write
+ * outcomes, where an optimistic conflict or a pessimistic lock wait longer than
+ * {@code product.contention.lock-wait-threshold} counts as contended. A product switches to
+ * pessimistic locking when its rate reaches {@code product.contention.enter-threshold} and
+ * back to optimistic locking when it falls to {@code product.contention.exit-threshold}.
+ * Only products that have seen a conflict are tracked, at most
+ * {@code product.contention.tracked-products} of them, and a product that is not written for
+ * {@code product.contention.idle-expiry} is forgotten.</p>
+ *
+ * <p>Publishes {@code product.lock.conflicts}, {@code product.lock.retries} and
+ * {@code product.lock.wait}, tagged with {@code productId}, and the number of products in
+ * pessimistic mode as {@code product.lock.pessimistic.products}. Per-product meters only exist
+ * while a product is tracked: they are created with its first conflict or pessimistic lock and
+ * removed when it is forgotten, which also happens once its contention rate has decayed below
+ * {@value #RETIRE_RATE} in optimistic mode. The registry thus holds meters for recently
+ * contended products only; their counts restart if a product becomes contended again.</p>
+ */
+@Component
+public class ProductContentionTracker {
+
+    /**
+     * Contention rate below which an optimistic product is forgotten, together with its meters.
+     */
+    static final double RETIRE_RATE = 0.01;
+
+    private final Cache<Long, ContentionState> states;
+    private final MeterRegistry meterRegistry;
+    private final double sampleWeight;
+    private final double enterThreshold;
+    private final double exitThreshold;
+    private final long lockWaitThresholdNanos;
+
+    public ProductContentionTracker(
+            MeterRegistry meterRegistry,
+            @Value("${product.contention.sample-weight:0.2}") double sampleWeight,
+            @Value("${product.contention.enter-threshold:0.3}") double enterThreshold,
+            @Value("${product.contention.exit-threshold:0.05}") double exitThreshold,
+            @Value("${product.contention.lock-wait-threshold:5ms}") Duration lockWaitThreshold,
+            @Value("${product.contention.tracked-products:10000}") long trackedProducts,
+            @Value("${product.contention.idle-expiry:10m}") Duration idleExpiry
+    ) {
+        if (exitThreshold >= enterThreshold) {
+            throw new IllegalArgumentException("product.contention.exit-threshold must be below the enter-threshold");
+        }
+        this.meterRegistry = meterRegistry;
+        this.sampleWeight = sampleWeight;
+        this.enterThreshold = enterThreshold;
+        this.exitThreshold = exitThreshold;
+        this.lockWaitThresholdNanos = lockWaitThreshold.toNanos();
+        this.states = Caffeine.newBuilder()
+                .maximumSize(trackedProducts)
+                .expireAfterAccess(idleExpiry)
+                // Runs atomically with the removal, so it cannot drop meters of a product's next state
+                .evictionListener((Long productId, ContentionState state, RemovalCause cause) -> {
+                    if (state != null) {
+                        state.removeMeters();
+                    }
+                })
+                .build();
+        Gauge.builder("product.lock.pessimistic.products", this, ProductContentionTracker::pessimisticProductCount)
+                .description("Number of products whose writes currently lock the row pessimistically")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns whether writes to a product should currently lock its row pessimistically.
+     *
+     * @param productId the product ID
+     * @return {@code true} if the product is contended
+     */
+    public boolean isContended(Long productId) {
+        ContentionState state = states.getIfPresent(productId);
+        return state != null && state.isPessimistic();
+    }
+
+    /**
+     * Records an optimistic locking conflict on a product.
+     *
+     * @param productId the product ID
+     */
+    public void recordConflict(Long productId) {
+        ContentionState state = track(productId);
+        state.conflicts.increment();
+        record(productId, state, true);
+    }
+
+    /**
+     * Records that a write is being retried after a conflict.
+     *
+     * @param productId the product ID
+     */
+    public void recordRetry(Long productId) {
+        ContentionState state = states.getIfPresent(productId);
+        if (state != null) {
+            state.retries.increment();
+        }
+    }
+
+    /**
+     * Records an optimistic write that committed without a conflict.
+     *
+     * @param productId the product ID
+     */
+    public void recordSuccess(Long productId) {
+        ContentionState state = states.getIfPresent(productId);
+        if (state != null) {
+            record(productId, state, false);
+        }
+    }
+
+    /**
+     * Acquires a product's row lock, recording how long the caller waited for it.
+     *
+     * @param productId the product ID
+     * @param lock      the locking read
+     * @param <T>       the result of the locking read
+     * @return the result of {@code lock}
+     */
+    public <T> T acquireLock(Long productId, Supplier<T> lock) {
+        long start = System.nanoTime();
+        try {
+            return lock.get();
+        } finally {
+            long waitedNanos = System.nanoTime() - start;
+            ContentionState state = track(productId);
+            state.lockWait.record(Duration.ofNanos(waitedNanos));
+            record(productId, state, waitedNanos > lockWaitThresholdNanos);
+        }
+    }
+
+    private ContentionState track(Long productId) {
+        return states.get(productId, ContentionState::new);
+    }
+
+    /**
+     * Records a write outcome and forgets the product once it has cooled down.
+     */
+    private void record(Long productId, ContentionState state, boolean contended) {
+        if (state.record(contended)) {
+            // Under the entry's lock, so that a new state for the product cannot register its meters in between
+            states.asMap().computeIfPresent(productId, (id, current) -> {
+                if (current != state || !state.isRetirable()) {
+                    return current;
+                }
+                state.removeMeters();
+                return null;
+            });
+        }
+    }
+
+    private double pessimisticProductCount() {
+        return states.asMap().values().stream().filter(ContentionState::isPessimistic).count();
+    }
+
+    /**
+     * Contention rate, locking mode and meters of a single product.
+     */
+    private final class ContentionState {
+
+        private final Counter conflicts;
+        private final Counter retries;
+        private final Timer lockWait;
+        private double rate;
+        private boolean pessimistic;
+
+        ContentionState(Long productId) {
+            String id = productId.toString();
+            this.conflicts = meterRegistry.counter("product.lock.conflicts", "productId", id);
+            this.retries = meterRegistry.counter("product.lock.retries", "productId", id);
+            this.lockWait = Timer.builder("product.lock.wait")
+                    .description("Time spent waiting for pessimistic product row locks")
+                    .tag("productId", id)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Records a write outcome.
+         *
+         * @return whether the product has cooled down enough to be forgotten
+         */
+        synchronized boolean record(boolean contended) {
+            rate += sampleWeight * ((contended ? 1.0 : 0.0) - rate);
+            if (!pessimistic && rate >= enterThreshold) {
+                pessimistic = true;
+            } else if (pessimistic && rate <= exitThreshold) {
+                pessimistic = false;
+            }
+            return isRetirable();
+        }
+
+        synchronized boolean isPessimistic() {
+            return pessimistic;
+        }
+
+        synchronized boolean isRetirable() {
+            return !pessimistic && rate < RETIRE_RATE;
+        }
+
+        void removeMeters() {
+            meterRegistry.remove(conflicts);
+            meterRegistry.remove(retries);
+            meterRegistry.remove(lockWait);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.rapidcart.product_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes keyset scroll positions as opaque, URL-safe cursor tokens and back.
+ *
+ * <p>A cursor records the sort field, the sort direction, and the sort key and
+ * {@code id} of the last product on the page. Decoding checks that the cursor was issued
+ * for the same sort, so a client cannot continue a listing with a different order.</p>
+ */
+@Component
+public class ProductCursorCodec {
+
+    private static final String SORT = "s";
+    private static final String DIRECTION = "d";
+    private static final String KEYS = "k";
+
+    private final ObjectMapper objectMapper;
+
+    public ProductCursorCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Encodes a keyset position as a cursor token.
+     *
+     * @param sortField the field the listing is sorted by
+     * @param direction the sort direction
+     * @param position  the keyset position of the last returned product
+     * @return an opaque cursor token
+     */
+    public String encode(ProductSortField sortField, Sort.Direction direction, KeysetScrollPosition position) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put(SORT, sortField.getProperty());
+        node.put(DIRECTION, direction.name());
+        node.set(KEYS, objectMapper.valueToTree(position.getKeys()));
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(objectMapper.writeValueAsBytes(node));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to encode cursor", e);
+        }
+    }
+
+    /**
+     * Decodes a cursor token into a keyset position.
+     *
+     * @param cursor    the cursor token, or {@code null} for the first page
+     * @param sortField the field the listing is sorted by
+     * @param direction the sort direction
+     * @return the keyset position to continue from
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for a different sort
+     */
+    public KeysetScrollPosition decode(String cursor, ProductSortField sortField, Sort.Direction direction) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        if (node == null || !sortField.getProperty().equals(node.path(SORT).asText())
+                || !direction.name().equals(node.path(DIRECTION).asText())
+                || !node.path(KEYS).isObject()) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(sortField.getProperty(), readKey(node.path(KEYS), sortField));
+        keys.put(ProductSortField.ID.getProperty(), readKey(node.path(KEYS), ProductSortField.ID));
+        return ScrollPosition.forward(keys);
+    }
+
+    private Object readKey(JsonNode keys, ProductSortField field) {
+        JsonNode value = keys.get(field.getProperty());
+        if (value == null || value.isNull()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return objectMapper.convertValue(value, field.getType());
+    }
+}
@@ -0,0 +1,46 @@
+package com.rapidcart.product_service.service;
+
+import java.util.Arrays;
+
+/**
+ * The file formats in which products can be exported and imported.
+ */
+public enum ProductDataFormat {
+
+    /** Newline-delimited JSON: one product object per line. */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /** Comma-separated values with a header row. */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ProductDataFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Resolves a format from its name, ignoring case.
+     *
+     * @param name the format name supplied by the client
+     * @return the matching format
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    public static ProductDataFormat fromName(String name) {
+        return Arrays.stream(values())
+                .filter(format -> format.name().equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported format '" + name
+                        + "'. Supported formats: ndjson, csv"));
+    }
+}
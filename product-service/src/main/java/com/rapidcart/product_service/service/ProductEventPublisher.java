@@ -0,0 +1,175 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.config.RabbitMQConfig;
+import com.rapidcart.product_service.dto.ProductEvent;
+import com.rapidcart.product_service.dto.ProductEventType;
+import com.rapidcart.product_service.repository.ProductInventoryRepository;
+import com.rapidcart.product_service.repository.ProductStockLevelView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes {@link ProductEvent}s to the {@code product.events} exchange once the change
+ * that caused them has committed.
+ *
+ * <p>Created, updated and deactivated events are sent as soon as their transaction commits.
+ * Stock changes are coalesced instead: a commit only marks the product as changed, and every
+ * {@code product.events.stock-coalesce-window} the changed products' current stock levels and
+ * inventory versions are read with one query and published as one {@code STOCK_CHANGED} event per product.
+ * A flash sale selling thousands of units of one product therefore produces at most one
+ * stock message per window.</p>
+ *
+ * <p>Publishing is best effort: a failed send is logged and counted, never propagated to the
+ * already committed request. When no {@link RabbitTemplate} is configured, as in tests,
+ * events are discarded. Sent events are counted in the {@code product.events.published}
+ * metric, tagged by type.</p>
+ */
+@Slf4j
+@Component
+public class ProductEventPublisher {
+
+    private static final int STOCK_LEVEL_QUERY_CHUNK = 1000;
+
+    private final ObjectProvider<RabbitTemplate> rabbitTemplate;
+    private final ProductInventoryRepository inventoryRepository;
+    private final Map<ProductEventType, Counter> publishedCounters = new EnumMap<>(ProductEventType.class);
+    private final Counter failedCounter;
+    private final Set<Long> pendingStockChanges = ConcurrentHashMap.newKeySet();
+
+    public ProductEventPublisher(
+            ObjectProvider<RabbitTemplate> rabbitTemplate,
+            ProductInventoryRepository inventoryRepository,
+            MeterRegistry meterRegistry
+    ) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.inventoryRepository = inventoryRepository;
+        for (ProductEventType type : ProductEventType.values()) {
+            publishedCounters.put(type, Counter.builder("product.events.published")
+                    .description("Number of product events published")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+        this.failedCounter = Counter.builder("product.events.failed")
+                .description("Number of product events that could not be published")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes an event once the current transaction commits, or immediately if none is active.
+     * Nothing is published if the transaction rolls back.
+     *
+     * @param event the event to publish
+     */
+    public void publishAfterCommit(ProductEvent event) {
+        afterCommit(() -> send(event));
+    }
+
+    /**
+     * Records that a product's stock or held units changed, once the current transaction commits.
+     * The {@code STOCK_CHANGED} event is published by the next {@link #flushStockChanges()}.
+     *
+     * @param productId the product ID
+     */
+    public void stockChangedAfterCommit(Long productId) {
+        if (rabbitTemplate.getIfAvailable() == null) {
+            return;
+        }
+        afterCommit(() -> pendingStockChanges.add(productId));
+    }
+
+    /**
+     * Publishes one {@code STOCK_CHANGED} event with the current stock levels of every product
+     * whose stock changed since the previous flush.
+     */
+    @Scheduled(fixedDelayString = "${product.events.stock-coalesce-window:250ms}")
+    public void flushStockChanges() {
+        if (pendingStockChanges.isEmpty()) {
+            return;
+        }
+
+        List<Long> productIds = new ArrayList<>();
+        for (Long productId : pendingStockChanges) {
+            if (pendingStockChanges.remove(productId)) {
+                productIds.add(productId);
+            }
+        }
+
+        for (int from = 0; from < productIds.size(); from += STOCK_LEVEL_QUERY_CHUNK) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + STOCK_LEVEL_QUERY_CHUNK, productIds.size()));
+            List<ProductStockLevelView> stockLevels;
+            try {
+                stockLevels = inventoryRepository.findStockLevelsByProductIdIn(chunk);
+            } catch (DataAccessException e) {
+                log.warn("Could not read stock levels for {} products; their stock events are retried", chunk.size(), e);
+                pendingStockChanges.addAll(chunk);
+                continue;
+            }
+
+            Instant now = Instant.now();
+            for (ProductStockLevelView stockLevel : stockLevels) {
+                send(ProductEvent.builder()
+                        .eventType(ProductEventType.STOCK_CHANGED)
+                        .productId(stockLevel.getId())
+                        .inventoryVersion(stockLevel.getVersion())
+                        .occurredAt(now)
+                        .stock(stockLevel.getStock())
+                        .availableStock(stockLevel.getStock() - stockLevel.getReservedStock())
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * Publishes any coalesced stock changes before shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushStockChanges();
+    }
+
+    private void send(ProductEvent event) {
+        RabbitTemplate template = rabbitTemplate.getIfAvailable();
+        if (template == null) {
+            return;
+        }
+        try {
+            template.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, event.getEventType().getRoutingKey(), event);
+            publishedCounters.get(event.getEventType()).increment();
+        } catch (AmqpException e) {
+            failedCounter.increment();
+            log.warn("Could not publish {} event for product {} at version {}, inventory version {}",
+                    event.getEventType(), event.getProductId(), event.getVersion(), event.getInventoryVersion(), e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.rapidcart.product_service.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Streams the full product catalog to an output stream with constant memory use.
+ *
+ * <p>Rows are read through a forward-only JDBC cursor with a bounded fetch size
+ * ({@code product.export.fetch-size}) inside a read-only transaction, which PostgreSQL
+ * requires for cursor-based fetching. Each row is written to the output as soon as it
+ * is read, so no entities or DTO lists are materialized regardless of catalog size.</p>
+ */
+@Service
+public class ProductExportService {
+
+    private static final String EXPORT_QUERY =
+            "SELECT p.id, p.name, p.sku, p.price, i.stock, p.active_status, p.version " +
+            "FROM products p JOIN (SELECT product_id, SUM(stock) AS stock FROM product_inventory " +
+            "GROUP BY product_id) i ON i.product_id = p.id ORDER BY p.id";
+
+    private static final String CSV_HEADER = "id,name,sku,price,stock,activeStatus,version";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ProductExportService(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${product.export.fetch-size:1000}") int fetchSize
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes every product to the output stream in the requested format.
+     *
+     * @param format the export format
+     * @param out    the stream to write to; it is flushed but not closed
+     * @return the number of products written
+     */
+    public long export(ProductDataFormat format, OutputStream out) {
+        Long rows = transactionTemplate.execute(status -> switch (format) {
+            case NDJSON -> exportNdjson(out);
+            case CSV -> exportCsv(out);
+        });
+        return rows != null ? rows : 0;
+    }
+
+    private long exportNdjson(OutputStream out) {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.setRootValueSeparator(null);
+            CountingRowHandler handler = new CountingRowHandler() {
+                @Override
+                void write(ResultSet rs) throws SQLException, IOException {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", rs.getLong("id"));
+                    generator.writeStringField("name", rs.getString("name"));
+                    generator.writeStringField("sku", rs.getString("sku"));
+                    generator.writeNumberField("price", rs.getBigDecimal("price"));
+                    generator.writeNumberField("stock", rs.getInt("stock"));
+                    generator.writeBooleanField("activeStatus", rs.getBoolean("active_status"));
+                    generator.writeNumberField("version", rs.getInt("version"));
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+            };
+            jdbcTemplate.query(EXPORT_QUERY, handler);
+            generator.flush();
+            return handler.count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long exportCsv(OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            CountingRowHandler handler = new CountingRowHandler() {
+                @Override
+                void write(ResultSet rs) throws SQLException, IOException {
+                    writer.write(Long.toString(rs.getLong("id")));
+                    writer.write(',');
+                    writer.write(escapeCsv(rs.getString("name")));
+                    writer.write(',');
+                    writer.write(escapeCsv(rs.getString("sku")));
+                    writer.write(',');
+                    writer.write(rs.getBigDecimal("price").toPlainString());
+                    writer.write(',');
+                    writer.write(Integer.toString(rs.getInt("stock")));
+                    writer.write(',');
+                    writer.write(Boolean.toString(rs.getBoolean("active_status")));
+                    writer.write(',');
+                    writer.write(Integer.toString(rs.getInt("version")));
+                    writer.write('\n');
+                }
+            };
+            jdbcTemplate.query(EXPORT_QUERY, handler);
+            writer.flush();
+            return handler.count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Row handler that writes each row and counts how many were written.
+     */
+    private abstract static class CountingRowHandler implements RowCallbackHandler {
+
+        private long count;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count++;
+        }
+
+        abstract void write(ResultSet rs) throws SQLException, IOException;
+    }
+}
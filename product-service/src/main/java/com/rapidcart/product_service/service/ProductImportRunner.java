@@ -0,0 +1,64 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.dto.ProductImportResultDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs a one-off bulk import from a local file at startup, then shuts the application down.
+ *
+ * <p>Enabled by setting {@code product.import.file}. Intended for initial catalog loads
+ * and migrations, for example:</p>
+ * <pre>
+ * java -jar product-service.jar --spring.main.web-application-type=none \
+ *      --product.import.file=/data/products.csv --product.import.format=csv
+ * </pre>
+ *
+ * <p>The process exits with status 0 if every row was imported and 1 otherwise.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "product.import", name = "file")
+public class ProductImportRunner implements ApplicationRunner {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${product.import.file}")
+    private Path file;
+
+    @Value("${product.import.format:ndjson}")
+    private String format;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        ProductImportResultDto result;
+        try (InputStream in = Files.newInputStream(file)) {
+            result = productImportService.importProducts(ProductDataFormat.fromName(format), in);
+        }
+
+        log.info("Imported {} of {} rows from {} in {} ms ({} rows/s)",
+                result.getImportedRows(), result.getTotalRows(), file,
+                result.getElapsedMillis(), result.getRowsPerSecond());
+        result.getErrors().forEach(error ->
+                log.warn("Line {} (sku {}) rejected: {}", error.getLine(), error.getSku(), error.getMessages()));
+
+        int exitCode = result.getFailedRows() == 0 ? 0 : 1;
+        System.exit(SpringApplication.exit(applicationContext, () -> exitCode));
+    }
+}
@@ -0,0 +1,412 @@
+package com.rapidcart.product_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rapidcart.product_service.dto.ProductImportErrorDto;
+import com.rapidcart.product_service.dto.ProductImportResultDto;
+import com.rapidcart.product_service.dto.ProductRequestDto;
+import com.rapidcart.product_service.entity.Product;
+import com.rapidcart.product_service.entity.ProductInventory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.PostgresSequenceMaxValueIncrementer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Imports products in bulk from CSV or NDJSON, upserting on SKU.
+ *
+ * <p>The input is read line by line and valid rows are written in chunks of
+ * {@code product.import.batch-size}. Each chunk is one JDBC batch of catalog rows and one of
+ * inventory rows, matched by SKU, in its own transaction,
+ * so a failing chunk does not undo the chunks before it. IDs for new products come from
+ * {@link Product#ID_SEQUENCE}, one sequence call per {@link Product#ID_ALLOCATION_SIZE}
+ * rows, using the same block convention as Hibernate so the two never collide.</p>
+ *
+ * <p>After each chunk the product cache is cleared and the chunk's SKUs are refreshed in
+ * {@link ProductSearchIndex}.</p>
+ *
+ * <p>Rows are validated with the same bean validation rules as {@link ProductRequestDto}.
+ * Invalid rows, and every row of a chunk the database rejects, are reported in the
+ * result with their line numbers.</p>
+ *
+ * <p>Imported stock is written to the first bucket of the product's
+ * {@link ProductInventory#DEFAULT_LOCATION default location};
+ * stock at other locations and in other buckets is left unchanged, so for products with a
+ * single location and bucket, which is the default, it sets the product's stock.</p>
+ *
+ * <p>CSV input must start with a header row naming the {@code name}, {@code sku},
+ * {@code price} and {@code stock} columns; {@code activeStatus} is optional and
+ * defaults to {@code true}.</p>
+ */
+@Service
+public class ProductImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO products (id, name, sku, price, active_status, version) " +
+            "VALUES (?, ?, ?, ?, ?, 0) " +
+            "ON CONFLICT (sku) DO UPDATE SET name = EXCLUDED.name, price = EXCLUDED.price, " +
+            "active_status = EXCLUDED.active_status, version = products.version + 1";
+
+    private static final String POSTGRES_INVENTORY_UPSERT =
+            "INSERT INTO product_inventory (product_id, location_id, bucket, stock, reserved_stock, version) " +
+            "SELECT id, '" + ProductInventory.DEFAULT_LOCATION + "', 0, ?, 0, 0 FROM products WHERE sku = ? " +
+            "ON CONFLICT (product_id, location_id, bucket) DO UPDATE SET stock = EXCLUDED.stock, " +
+            "version = product_inventory.version + 1";
+
+    private static final String STANDARD_UPSERT =
+            "MERGE INTO products p USING (SELECT CAST(? AS BIGINT) AS id, CAST(? AS VARCHAR(255)) AS name, " +
+            "CAST(? AS VARCHAR(255)) AS sku, CAST(? AS NUMERIC(10, 2)) AS price, " +
+            "CAST(? AS BOOLEAN) AS active_status) s ON p.sku = s.sku " +
+            "WHEN MATCHED THEN UPDATE SET name = s.name, price = s.price, " +
+            "active_status = s.active_status, version = p.version + 1 " +
+            "WHEN NOT MATCHED THEN INSERT (id, name, sku, price, active_status, version) " +
+            "VALUES (s.id, s.name, s.sku, s.price, s.active_status, 0)";
+
+    private static final String STANDARD_INVENTORY_UPSERT =
+            "MERGE INTO product_inventory i USING (SELECT p.id AS product_id, CAST(? AS INTEGER) AS stock " +
+            "FROM products p WHERE p.sku = CAST(? AS VARCHAR(255))) s ON i.product_id = s.product_id " +
+            "AND i.location_id = '" + ProductInventory.DEFAULT_LOCATION + "' AND i.bucket = 0 " +
+            "WHEN MATCHED THEN UPDATE SET stock = s.stock, version = i.version + 1 " +
+            "WHEN NOT MATCHED THEN INSERT (product_id, location_id, bucket, stock, reserved_stock, version) " +
+            "VALUES (s.product_id, '" + ProductInventory.DEFAULT_LOCATION + "', 0, s.stock, 0, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DataFieldMaxValueIncrementer idSequence;
+    private final String upsertSql;
+    private final String inventoryUpsertSql;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final int batchSize;
+
+    public ProductImportService(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            Validator validator,
+            ObjectMapper objectMapper,
+            ProductCache productCache,
+            ProductSearchIndex productSearchIndex,
+            @Value("${product.import.batch-size:1000}") int batchSize
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.productCache = productCache;
+        this.productSearchIndex = productSearchIndex;
+        this.batchSize = batchSize;
+
+        if (isPostgres(dataSource)) {
+            this.idSequence = new PostgresSequenceMaxValueIncrementer(dataSource, Product.ID_SEQUENCE);
+            this.upsertSql = POSTGRES_UPSERT;
+            this.inventoryUpsertSql = POSTGRES_INVENTORY_UPSERT;
+        } else {
+            this.idSequence = new H2SequenceMaxValueIncrementer(dataSource, Product.ID_SEQUENCE);
+            this.upsertSql = STANDARD_UPSERT;
+            this.inventoryUpsertSql = STANDARD_INVENTORY_UPSERT;
+        }
+    }
+
+    /**
+     * Reads products from the input stream and upserts them by SKU.
+     *
+     * @param format the input format
+     * @param in     the stream to read; it is not closed
+     * @return a summary of the import with per-row errors
+     * @throws IllegalArgumentException if a CSV header is missing required columns
+     */
+    public ProductImportResultDto importProducts(ProductDataFormat format, InputStream in) {
+        long startedAt = System.nanoTime();
+        ImportState state = new ImportState();
+
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            Map<String, Integer> csvColumns = null;
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == ProductDataFormat.CSV && csvColumns == null) {
+                    csvColumns = readCsvHeader(line);
+                    continue;
+                }
+
+                state.totalRows++;
+                ParsedRow row = format == ProductDataFormat.CSV
+                        ? parseCsvRow(lineNumber, line, csvColumns)
+                        : parseJsonRow(lineNumber, line);
+                if (row.errors.isEmpty()) {
+                    row.errors.addAll(validate(row.product));
+                }
+
+                if (!row.errors.isEmpty()) {
+                    state.reject(lineNumber, row.product != null ? row.product.getSku() : null, row.errors);
+                    continue;
+                }
+
+                // A later row for the same SKU within a chunk supersedes the earlier one.
+                state.chunk.put(row.product.getSku(), row);
+                if (state.chunk.size() >= batchSize) {
+                    flush(state);
+                }
+            }
+            flush(state);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        long elapsedMillis = elapsedNanos / 1_000_000;
+        return ProductImportResultDto.builder()
+                .totalRows(state.totalRows)
+                .importedRows(state.importedRows)
+                .failedRows(state.failedRows)
+                .elapsedMillis(elapsedMillis)
+                .rowsPerSecond(elapsedNanos > 0 ? state.totalRows * 1_000_000_000L / elapsedNanos : 0)
+                .errors(state.errors)
+                .errorsTruncated(state.failedRows > state.errors.size())
+                .build();
+    }
+
+    private void flush(ImportState state) {
+        if (state.chunk.isEmpty()) {
+            return;
+        }
+
+        List<ParsedRow> rows = new ArrayList<>(state.chunk.values());
+        state.chunk.clear();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                long[] ids = allocateIds(rows.size());
+                List<Object[]> batch = new ArrayList<>(rows.size());
+                List<Object[]> inventoryBatch = new ArrayList<>(rows.size());
+                for (int i = 0; i < rows.size(); i++) {
+                    ProductRequestDto product = rows.get(i).product;
+                    batch.add(new Object[]{
+                            ids[i],
+                            product.getName(),
+                            product.getSku(),
+                            product.getPrice(),
+                            product.getActiveStatus() != null ? product.getActiveStatus() : true
+                    });
+                    inventoryBatch.add(new Object[]{product.getStock(), product.getSku()});
+                }
+                jdbcTemplate.batchUpdate(upsertSql, batch);
+                jdbcTemplate.batchUpdate(inventoryUpsertSql, inventoryBatch);
+            });
+        } catch (DataAccessException e) {
+            String message = e.getMostSpecificCause().getMessage();
+            for (ParsedRow row : rows) {
+                state.reject(row.line, row.product.getSku(), List.of(message));
+            }
+            return;
+        }
+
+        state.importedRows += rows.size();
+        productCache.invalidateAll();
+        productSearchIndex.refreshSkus(rows.stream()
+                .map(row -> row.product.getSku())
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Reserves {@code count} product IDs, drawing one sequence value per block of
+     * {@link Product#ID_ALLOCATION_SIZE}. A value {@code v} owns {@code (v - size, v]};
+     * values below the block size are skipped so that no ID is zero or negative.
+     */
+    private long[] allocateIds(int count) {
+        long[] ids = new long[count];
+        int allocated = 0;
+        while (allocated < count) {
+            long hi = idSequence.nextLongValue();
+            if (hi < Product.ID_ALLOCATION_SIZE) {
+                continue;
+            }
+            for (long id = hi - Product.ID_ALLOCATION_SIZE + 1; id <= hi && allocated < count; id++) {
+                ids[allocated++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private List<String> validate(ProductRequestDto product) {
+        return validator.validate(product).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, Integer> readCsvHeader(String line) {
+        List<String> header = parseCsvLine(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        for (String required : List.of("name", "sku", "price", "stock")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing required column '" + required + "'");
+            }
+        }
+        return columns;
+    }
+
+    private ParsedRow parseCsvRow(long lineNumber, String line, Map<String, Integer> columns) {
+        List<String> values = parseCsvLine(line);
+        ParsedRow row = new ParsedRow(lineNumber);
+        ProductRequestDto product = new ProductRequestDto();
+        row.product = product;
+
+        product.setName(column(values, columns, "name"));
+        product.setSku(column(values, columns, "sku"));
+
+        String price = column(values, columns, "price");
+        if (price != null && !price.isBlank()) {
+            try {
+                product.setPrice(new BigDecimal(price.trim()));
+            } catch (NumberFormatException e) {
+                row.errors.add("price: Price must be a number");
+            }
+        }
+
+        String stock = column(values, columns, "stock");
+        if (stock != null && !stock.isBlank()) {
+            try {
+                product.setStock(Integer.valueOf(stock.trim()));
+            } catch (NumberFormatException e) {
+                row.errors.add("stock: Stock must be a whole number");
+            }
+        }
+
+        String activeStatus = column(values, columns, "activeStatus");
+        if (activeStatus == null || activeStatus.isBlank()) {
+            product.setActiveStatus(true);
+        } else if (activeStatus.trim().equalsIgnoreCase("true") || activeStatus.trim().equalsIgnoreCase("false")) {
+            product.setActiveStatus(Boolean.valueOf(activeStatus.trim()));
+        } else {
+            row.errors.add("activeStatus: Active status must be true or false");
+        }
+
+        return row;
+    }
+
+    private ParsedRow parseJsonRow(long lineNumber, String line) {
+        ParsedRow row = new ParsedRow(lineNumber);
+        try {
+            row.product = objectMapper.readValue(line, ProductRequestDto.class);
+        } catch (JsonProcessingException e) {
+            row.errors.add("Malformed JSON: " + e.getOriginalMessage());
+        }
+        return row;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < values.size() ? values.get(index) : null;
+    }
+
+    /**
+     * Splits a single CSV line into fields, honouring double-quoted fields and escaped quotes.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Unable to determine database type for bulk import", e);
+        }
+    }
+
+    private static class ParsedRow {
+
+        private final long line;
+        private final List<String> errors = new ArrayList<>();
+        private ProductRequestDto product;
+
+        private ParsedRow(long line) {
+            this.line = line;
+        }
+    }
+
+    private static class ImportState {
+
+        private final Map<String, ParsedRow> chunk = new LinkedHashMap<>();
+        private final List<ProductImportErrorDto> errors = new ArrayList<>();
+        private long totalRows;
+        private long importedRows;
+        private long failedRows;
+
+        private void reject(long line, String sku, List<String> messages) {
+            failedRows++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(ProductImportErrorDto.builder()
+                        .line(line)
+                        .sku(sku)
+                        .messages(messages)
+                        .build());
+            }
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.dto.ProductSearchHitDto;
+import com.rapidcart.product_service.entity.Product;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over the names and SKUs of active products.
+ *
+ * <p>The index holds two structures:</p>
+ * <ul>
+ *   <li>an inverted index from lower-cased name and SKU tokens to product IDs, kept in a
+ *       sorted map so that every token starting with a prefix is one contiguous range;</li>
+ *   <li>a character trie over full lower-cased SKUs for SKU prefix (typeahead) lookups.</li>
+ * </ul>
+ *
+ * <p>It is loaded from the database once all singletons are created and then kept current
+ * by {@link ProductService} and {@link ProductImportService}, which apply their changes
+ * after the surrounding transaction commits. Inactive products are not indexed.</p>
+ *
+ * <p>Searches take a shared read lock and updates an exclusive write lock. The number of
+ * indexed products is published as the {@code product.search.index.size} gauge.</p>
+ */
+@Component
+public class ProductSearchIndex implements SmartInitializingSingleton {
+
+    private static final String LOAD_QUERY =
+            "SELECT id, name, sku, price FROM products WHERE active_status = true";
+
+    private static final String REFRESH_QUERY =
+            "SELECT id, name, sku, price, active_status FROM products WHERE sku IN (:skus)";
+
+    private static final int LOAD_FETCH_SIZE = 1000;
+
+    private static final int REFRESH_CHUNK_SIZE = 1000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private IndexState state = new IndexState();
+
+    public ProductSearchIndex(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(LOAD_FETCH_SIZE);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+
+        Gauge.builder("product.search.index.size", this, ProductSearchIndex::size)
+                .description("Number of products in the in-memory search index")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the whole index from the database and swaps it in atomically.
+     *
+     * <p>Changes committed while the reload is running may be missed, so this is meant for
+     * startup and maintenance rather than routine use.</p>
+     */
+    public void rebuild() {
+        IndexState rebuilt = new IndexState();
+        readOnlyTransactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.query(LOAD_QUERY, rs -> {
+                    rebuilt.add(readDocument(rs));
+                }));
+
+        lock.writeLock().lock();
+        try {
+            state = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds active products whose SKU starts with the query or whose name and SKU tokens
+     * start with every word of the query.
+     *
+     * <p>SKU matches come first, in SKU order with an exact match leading, followed by
+     * name matches in token order.</p>
+     *
+     * @param query the search text
+     * @param limit the maximum number of hits to return
+     * @return up to {@code limit} matching products
+     */
+    public List<ProductSearchHitDto> search(String query, int limit) {
+        String skuPrefix = normalize(query);
+        List<String> queryTokens = tokenize(query);
+
+        lock.readLock().lock();
+        try {
+            Set<Long> ids = new LinkedHashSet<>();
+            if (!skuPrefix.isEmpty()) {
+                state.skus.collect(skuPrefix, limit, ids);
+            }
+            if (ids.size() < limit && !queryTokens.isEmpty()) {
+                collectTokenMatches(queryTokens, limit, ids);
+            }
+
+            List<ProductSearchHitDto> hits = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                hits.add(state.documents.get(id).toHit());
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the product's current name, SKU and price once the surrounding transaction
+     * commits, or immediately if there is none. Inactive products are removed instead.
+     *
+     * @param product the saved product
+     */
+    public void indexAfterCommit(Product product) {
+        Document document = new Document(product.getId(), product.getName(), product.getSku(), product.getPrice());
+        boolean active = Boolean.TRUE.equals(product.getActiveStatus());
+        afterCommit(() -> apply(document, active));
+    }
+
+    /**
+     * Removes a product from the index once the surrounding transaction commits, or
+     * immediately if there is none.
+     *
+     * @param id the product ID
+     */
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                state.remove(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Re-reads the products with the given SKUs and updates their index entries.
+     *
+     * <p>Used after bulk writes that do not know the IDs of the rows they touched.</p>
+     *
+     * @param skus the SKUs to refresh
+     */
+    public void refreshSkus(Collection<String> skus) {
+        List<String> remaining = new ArrayList<>(skus);
+        for (int from = 0; from < remaining.size(); from += REFRESH_CHUNK_SIZE) {
+            List<String> chunk = remaining.subList(from, Math.min(from + REFRESH_CHUNK_SIZE, remaining.size()));
+            namedParameterJdbcTemplate.query(REFRESH_QUERY, Map.of("skus", chunk), rs -> {
+                apply(readDocument(rs), rs.getBoolean("active_status"));
+            });
+        }
+    }
+
+    /**
+     * Returns the number of indexed products.
+     *
+     * @return the index size
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return state.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collectTokenMatches(List<String> queryTokens, int limit, Set<Long> ids) {
+        // Walk the postings of the longest (usually most selective) query token in order and
+        // keep the documents that also match every other token, stopping once the page is full.
+        String driver = queryTokens.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        NavigableMap<String, Set<Long>> range =
+                state.tokens.subMap(driver, true, driver + Character.MAX_VALUE, false);
+
+        for (Set<Long> postings : range.values()) {
+            for (Long id : postings) {
+                if (ids.size() >= limit) {
+                    return;
+                }
+                if (!ids.contains(id) && state.documents.get(id).matchesAll(queryTokens)) {
+                    ids.add(id);
+                }
+            }
+        }
+    }
+
+    private void apply(Document document, boolean active) {
+        lock.writeLock().lock();
+        try {
+            state.remove(document.id);
+            if (active) {
+                state.add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static Document readDocument(ResultSet rs) throws SQLException {
+        return new Document(rs.getLong("id"), rs.getString("name"), rs.getString("sku"), rs.getBigDecimal("price"));
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalize(text).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * The indexed fields of one product, plus the tokens it was filed under.
+     */
+    private static final class Document {
+
+        private final long id;
+        private final String name;
+        private final String sku;
+        private final BigDecimal price;
+        private final Set<String> tokens = new LinkedHashSet<>();
+
+        private Document(long id, String name, String sku, BigDecimal price) {
+            this.id = id;
+            this.name = name;
+            this.sku = sku;
+            this.price = price;
+            this.tokens.addAll(tokenize(name));
+            this.tokens.addAll(tokenize(sku));
+        }
+
+        private boolean matchesAll(List<String> queryTokens) {
+            for (String queryToken : queryTokens) {
+                if (tokens.stream().noneMatch(token -> token.startsWith(queryToken))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private ProductSearchHitDto toHit() {
+            return ProductSearchHitDto.builder()
+                    .id(id)
+                    .name(name)
+                    .sku(sku)
+                    .price(price)
+                    .build();
+        }
+    }
+
+    /**
+     * The three structures that make up the index; replaced wholesale on rebuild.
+     */
+    private static final class IndexState {
+
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final NavigableMap<String, Set<Long>> tokens = new TreeMap<>();
+        private final SkuTrie skus = new SkuTrie();
+
+        private void add(Document document) {
+            documents.put(document.id, document);
+            for (String token : document.tokens) {
+                tokens.computeIfAbsent(token, key -> new TreeSet<>()).add(document.id);
+            }
+            skus.put(normalize(document.sku), document.id);
+        }
+
+        private void remove(long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (String token : document.tokens) {
+                Set<Long> postings = tokens.get(token);
+                if (postings != null) {
+                    postings.remove(id);
+                    if (postings.isEmpty()) {
+                        tokens.remove(token);
+                    }
+                }
+            }
+            skus.remove(normalize(document.sku), id);
+        }
+    }
+
+    /**
+     * Character trie mapping lower-cased SKUs to product IDs. Children are kept sorted so
+     * that prefix walks return SKUs in lexical order, shortest (exact) match first.
+     */
+    private static final class SkuTrie {
+
+        private final Node root = new Node();
+
+        private void put(String sku, long id) {
+            Node node = root;
+            for (int i = 0; i < sku.length(); i++) {
+                node = node.children.computeIfAbsent(sku.charAt(i), key -> new Node());
+            }
+            node.id = id;
+        }
+
+        private void remove(String sku, long id) {
+            remove(root, sku, 0, id);
+        }
+
+        /**
+         * Clears the entry for {@code sku} if it still belongs to {@code id}, pruning nodes
+         * left without entries or children. Returns whether {@code node} can be pruned.
+         */
+        private boolean remove(Node node, String sku, int depth, long id) {
+            if (depth == sku.length()) {
+                if (node.id != null && node.id == id) {
+                    node.id = null;
+                }
+            } else {
+                Character key = sku.charAt(depth);
+                Node child = node.children.get(key);
+                if (child != null && remove(child, sku, depth + 1, id)) {
+                    node.children.remove(key);
+                }
+            }
+            return node.id == null && node.children.isEmpty();
+        }
+
+        private void collect(String prefix, int limit, Set<Long> out) {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            if (node != null) {
+                collect(node, limit, out);
+            }
+        }
+
+        private void collect(Node node, int limit, Set<Long> out) {
+            if (node.id != null) {
+                out.add(node.id);
+            }
+            for (Node child : node.children.values()) {
+                if (out.size() >= limit) {
+                    return;
+                }
+                collect(child, limit, out);
+            }
+        }
+
+        private static final class Node {
+
+            private final NavigableMap<Character, Node> children = new TreeMap<>();
+            private Long id;
+        }
+    }
+}
@@ -1,18 +1,53 @@
 package com.rapidcart.product_service.service;
 
+import com.rapidcart.product_service.dto.ProductBatchResponseDto;
+import com.rapidcart.product_service.dto.ProductEvent;
+import com.rapidcart.product_service.dto.ProductEventType;
 import com.rapidcart.product_service.dto.ProductRequestDto;
 import com.rapidcart.product_service.dto.ProductResponseDto;
+import com.rapidcart.product_service.dto.ProductScrollResponseDto;
+import com.rapidcart.product_service.dto.ProductSearchHitDto;
+import com.rapidcart.product_service.dto.StockReservationBatchResponseDto;
+import com.rapidcart.product_service.dto.StockReservationLineDto;
+import com.rapidcart.product_service.dto.StockReservationResponseDto;
 import com.rapidcart.product_service.entity.Product;
+import com.rapidcart.product_service.entity.ProductInventory;
+import com.rapidcart.product_service.entity.StockAllocation;
+import com.rapidcart.product_service.exception.InsufficientStockException;
+import com.rapidcart.product_service.exception.PreconditionFailedException;
+import com.rapidcart.product_service.exception.ProductUnavailableException;
 import com.rapidcart.product_service.exception.ResourceNotFoundException;
+import com.rapidcart.product_service.repository.ProductInventoryRepository;
+import com.rapidcart.product_service.repository.ProductPricingView;
 import com.rapidcart.product_service.repository.ProductRepository;
+import com.rapidcart.product_service.repository.ProductStockLevelView;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -24,6 +59,26 @@ import java.util.stream.Collectors;
  *
  * <p>All methods are transactional to ensure data consistency and rollback
  * behavior in case of runtime exceptions.</p>
+ *
+ * <p>Catalog fields live in {@link Product} and stock in {@link ProductInventory} buckets, each with
+ * its own version; stock changes go through {@link ProductInventoryRepository} and never touch the
+ * {@code products} row. Read models combine the catalog with the stock summed over all buckets,
+ * and their entity tags carry both versions as a revision such as {@code 3.17}. Which buckets
+ * an order draws from is decided by {@link StockAllocator}.</p>
+ *
+ * <p>Single-product reads are served from {@link ProductCache}; every method that
+ * changes a product evicts its cache entry once the change has committed. Changes to
+ * name, SKU, price or status are likewise applied to {@link ProductSearchIndex}.</p>
+ *
+ * <p>Committed changes are announced through {@link ProductEventPublisher}: creates, updates
+ * and deactivations as they commit, and stock changes coalesced per product.</p>
+ *
+ * <p>Updates and deletes load and save the entity, so they can conflict with concurrent writes
+ * through its {@code version}. Each runs in its own transaction and is retried after an
+ * optimistic conflict, with the row locked pessimistically on the retry and for as long as
+ * {@link ProductContentionTracker} considers the product contended, waiting for the lock for at
+ * most {@code product.contention.lock-timeout} (409 once it passes). Stock decrements and holds
+ * are conditional updates of stock buckets, which lock a bucket for their duration and never conflict.</p>
  */
 @Service
 @Transactional
@@ -32,6 +87,39 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductInventoryRepository inventoryRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductCursorCodec cursorCodec;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductEventPublisher productEventPublisher;
+
+    @Autowired
+    private ProductContentionTracker contentionTracker;
+
+    @Autowired
+    private RowLockTimeout rowLockTimeout;
+
+    @Autowired
+    private StockDecrementCombiner stockDecrementCombiner;
+
+    @Autowired
+    private StockAllocator stockAllocator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${product.contention.max-retries:3}")
+    private int maxRetries;
+
     /**
      * Creates and saves a new product in the database.
      *
@@ -44,33 +132,181 @@ public class ProductService {
     public ProductResponseDto createProduct(@Valid ProductRequestDto productRequestDto) {
         Product product = mapToEntity(productRequestDto);
         Product savedProduct = productRepository.save(product);
-        return mapToResponseDto(savedProduct);
+        stockAllocator.setLocationStock(savedProduct.getId(), List.of(), ProductInventory.DEFAULT_LOCATION,
+                productRequestDto.getStock(), null);
+        ProductStockLevelView inventory = findStockLevel(savedProduct.getId());
+        productSearchIndex.indexAfterCommit(savedProduct);
+        productEventPublisher.publishAfterCommit(ProductEvent.builder()
+                .eventType(ProductEventType.PRODUCT_CREATED)
+                .productId(savedProduct.getId())
+                .version(savedProduct.getVersion())
+                .inventoryVersion(inventory.getVersion())
+                .occurredAt(Instant.now())
+                .name(savedProduct.getName())
+                .sku(savedProduct.getSku())
+                .price(savedProduct.getPrice())
+                .stock(inventory.getStock())
+                .availableStock(inventory.getAvailableStock())
+                .activeStatus(savedProduct.getActiveStatus())
+                .build());
+        return mapToResponseDto(savedProduct, inventory);
     }
 
     /**
      * Retrieves a paginated and sorted list of all products.
      *
-     * @param pageable contains pagination and sorting parameters
+     * @param pageable contains pagination and sorting parameters; the sort should come from
+     *                 {@link ProductSortField#sort(Sort.Direction)} so that it is served by an index
      * @return a list of {@link ProductResponseDto} for the requested page
      */
     public List<ProductResponseDto> getAllProducts(Pageable pageable) {
         Page<Product> productsPage = productRepository.findAll(pageable);
-        return productsPage.stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
+        return mapToResponseDtos(productsPage.getContent());
+    }
+
+    /**
+     * Retrieves one page of products using keyset (cursor) pagination.
+     *
+     * <p>Unlike {@link #getAllProducts(Pageable)}, the cost of a page does not grow with
+     * its depth: the cursor encodes the last sort key and ID, and the next page is read by
+     * seeking past them on the supporting index. No count query is issued.</p>
+     *
+     * @param sortBy    the property to sort by; must be one of {@link ProductSortField}
+     * @param direction the sort direction
+     * @param size      the maximum number of products to return
+     * @param cursor    the cursor returned with the previous page, or {@code null} for the first page
+     * @return the page of products and the cursor for the next page
+     * @throws IllegalArgumentException if the sort field is not allowed or the cursor is invalid
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public ProductScrollResponseDto scrollProducts(String sortBy, Sort.Direction direction, int size, String cursor) {
+        ProductSortField sortField = ProductSortField.fromProperty(sortBy);
+        KeysetScrollPosition position = cursorCodec.decode(cursor, sortField, direction);
+
+        Window<Product> window = productRepository.findAllBy(position, sortField.sort(direction), Limit.of(size));
+
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? cursorCodec.encode(sortField, direction, (KeysetScrollPosition) window.positionAt(window.size() - 1))
+                : null;
+
+        return ProductScrollResponseDto.builder()
+                .products(mapToResponseDtos(window.getContent()))
+                .nextCursor(nextCursor)
+                .hasNext(nextCursor != null)
+                .build();
     }
 
     /**
      * Fetches a single product by its unique ID.
      *
+     * <p>Served from {@link ProductCache} when possible. Runs without its own transaction
+     * so that a cache hit does not check out a database connection.</p>
+     *
      * @param id the product ID
      * @return the corresponding {@link ProductResponseDto}
      * @throws ResourceNotFoundException if no product exists with the specified ID
      */
+    @Transactional(Transactional.TxType.SUPPORTS)
     public ProductResponseDto getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product with ID " + id + " not found"));
-        return mapToResponseDto(product);
+        return productCache.get(id).orElseGet(() -> {
+            long generation = productCache.generation(id);
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product with ID " + id + " not found"));
+            ProductResponseDto productResponseDto = mapToResponseDto(product, findStockLevel(id));
+            productCache.put(productResponseDto, generation);
+            return productResponseDto;
+        });
+    }
+
+    /**
+     * Returns the current revision of a product, for answering conditional requests.
+     *
+     * <p>Served from {@link ProductCache} when possible, otherwise with a version-only query
+     * that does not materialize either entity.</p>
+     *
+     * @param id the product ID
+     * @return the product's revision, see {@link #revisionOf(Integer, Integer)}
+     * @throws ResourceNotFoundException if the product does not exist
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public String getProductRevision(Long id) {
+        return productCache.get(id)
+                .map(product -> revisionOf(product.getVersion(), product.getInventoryVersion()))
+                .orElseGet(() -> productRepository.findVersionsById(id)
+                        .map(versions -> revisionOf(versions.getVersion(), versions.getInventoryVersion()))
+                        .orElseThrow(() -> new ResourceNotFoundException("Product with ID " + id + " not found")));
+    }
+
+    /**
+     * Combines a product's catalog and inventory versions into its revision, e.g. {@code 3.17}.
+     * The revision changes whenever any field of the product's read model changes.
+     *
+     * @param version          the catalog version
+     * @param inventoryVersion the inventory version
+     * @return the revision
+     */
+    public static String revisionOf(Integer version, Integer inventoryVersion) {
+        return version + "." + inventoryVersion;
+    }
+
+    /**
+     * Fetches several products by ID, preserving the order in which they were requested.
+     *
+     * <p>Cached products are served from {@link ProductCache}; all remaining IDs are loaded
+     * with a single {@code findAllById} query and added to the cache.</p>
+     *
+     * @param ids the product IDs to fetch (duplicates are ignored)
+     * @return the found products in request order, plus the IDs that do not exist
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public ProductBatchResponseDto getProductsByIds(List<Long> ids) {
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        Map<Long, ProductResponseDto> foundProducts = new HashMap<>();
+        Map<Long, Long> uncachedGenerations = new HashMap<>();
+
+        for (Long id : requestedIds) {
+            productCache.get(id).ifPresentOrElse(
+                    product -> foundProducts.put(id, product),
+                    () -> uncachedGenerations.put(id, productCache.generation(id)));
+        }
+
+        if (!uncachedGenerations.isEmpty()) {
+            List<Product> loaded = productRepository.findAllById(uncachedGenerations.keySet());
+            for (ProductResponseDto productResponseDto : mapToResponseDtos(loaded)) {
+                productCache.put(productResponseDto, uncachedGenerations.get(productResponseDto.getId()));
+                foundProducts.put(productResponseDto.getId(), productResponseDto);
+            }
+        }
+
+        List<ProductResponseDto> products = new ArrayList<>(foundProducts.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            ProductResponseDto product = foundProducts.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return ProductBatchResponseDto.builder()
+                .products(products)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    /**
+     * Searches active products by SKU prefix and by name and SKU word prefixes.
+     *
+     * <p>Served entirely from {@link ProductSearchIndex}; no database connection is used.</p>
+     *
+     * @param query the search text
+     * @param limit the maximum number of hits to return
+     * @return the matching products, best matches first
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public List<ProductSearchHitDto> searchProducts(String query, int limit) {
+        return productSearchIndex.search(query, limit);
     }
 
     /**
@@ -81,19 +317,86 @@ public class ProductService {
      * @param id the ID of the product to update
      * @param productRequestDto the updated product data
      * @return the updated product as a {@link ProductResponseDto}
+     * @throws InsufficientStockException if the new stock is below the units on active holds
      */
+    @Transactional(Transactional.TxType.SUPPORTS)
     public ProductResponseDto updateProduct(Long id, @Valid ProductRequestDto productRequestDto) {
-        Product existingProduct = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product with ID " + id + " not found"));
+        return updateProduct(id, productRequestDto, null);
+    }
+
+    /**
+     * Updates an existing product’s details if it is still at one of the expected revisions.
+     *
+     * <p>The revision is compared with the loaded product before any change is made; a concurrent
+     * update that commits in between is still caught by optimistic locking on flush, and the
+     * update is retried, where it fails the precondition. Stock buckets are only locked and
+     * written when the stock changes, so catalog edits do not conflict with concurrent orders.
+     * A stock increase is added to the default location and a decrease is taken from the
+     * buckets by {@link StockAllocator}, like an order.</p>
+     *
+     * @param id the ID of the product to update
+     * @param productRequestDto the updated product data
+     * @param expectedRevisions the acceptable current revisions, or {@code null} to update unconditionally
+     * @return the updated product as a {@link ProductResponseDto}
+     * @throws PreconditionFailedException if the product's revision is not one of {@code expectedRevisions}
+     * @throws InsufficientStockException if the new stock is below the units on active holds
+     * @throws OptimisticLockingFailureException if the update still conflicts after {@code product.contention.max-retries} retries
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public ProductResponseDto updateProduct(Long id, @Valid ProductRequestDto productRequestDto,
+                                            Set<String> expectedRevisions) {
+        return writeWithRetry(id, pessimistic -> applyUpdate(id, productRequestDto, expectedRevisions, pessimistic));
+    }
+
+    private ProductResponseDto applyUpdate(Long id, ProductRequestDto productRequestDto,
+                                           Set<String> expectedRevisions, boolean pessimistic) {
+        Product existingProduct = loadForWrite(id, pessimistic);
+        ProductStockLevelView inventory = findStockLevel(id);
+        List<ProductInventory> buckets = List.of();
+        if (pessimistic || !Objects.equals(inventory.getStock(), productRequestDto.getStock())) {
+            // Locked so that the stock cannot move between reading it and applying the difference
+            buckets = rowLockTimeout.lock(() -> inventoryRepository.findByProductIdForUpdate(id));
+            inventory = findStockLevel(id);
+        }
+
+        String revision = revisionOf(existingProduct.getVersion(), inventory.getVersion());
+        if (expectedRevisions != null && !expectedRevisions.contains(revision)) {
+            throw new PreconditionFailedException("Product with ID " + id + " has been modified; current revision is "
+                    + revision);
+        }
+
+        if (productRequestDto.getStock() < inventory.getReservedStock()) {
+            throw new InsufficientStockException("Stock for product with ID " + id + " cannot be set below the "
+                    + inventory.getReservedStock() + " units on hold");
+        }
+
+        ProductEvent event = changesOf(existingProduct, inventory, productRequestDto);
 
         existingProduct.setName(productRequestDto.getName());
         existingProduct.setSku(productRequestDto.getSku());
         existingProduct.setPrice(productRequestDto.getPrice());
-        existingProduct.setStock(productRequestDto.getStock());
         existingProduct.setActiveStatus(productRequestDto.getActiveStatus());
 
-        Product updatedProduct = productRepository.save(existingProduct);
-        return mapToResponseDto(updatedProduct);
+        Product updatedProduct = productRepository.saveAndFlush(existingProduct);
+        int stockChange = productRequestDto.getStock() - inventory.getStock();
+        if (stockChange > 0) {
+            stockAllocator.restock(buckets, stockChange);
+        } else if (stockChange < 0
+                && stockAllocator.allocate(id, -stockChange, StockAllocator.Mode.DEDUCT).isEmpty()) {
+            throw new InsufficientStockException("Stock for product with ID " + id + " cannot be set below the "
+                    + inventory.getReservedStock() + " units on hold");
+        }
+        ProductStockLevelView updatedInventory = stockChange != 0 ? findStockLevel(id) : inventory;
+        productCache.evictAfterCommit(id);
+        productSearchIndex.indexAfterCommit(updatedProduct);
+        if (event != null) {
+            event.setVersion(updatedProduct.getVersion());
+            if (event.getStock() != null) {
+                event.setInventoryVersion(updatedInventory.getVersion());
+            }
+            productEventPublisher.publishAfterCommit(event);
+        }
+        return mapToResponseDto(updatedProduct, updatedInventory);
     }
 
     /**
@@ -103,49 +406,239 @@ public class ProductService {
      *
      * @param id the product ID
      * @throws ResourceNotFoundException if the product is not found
+     * @throws OptimisticLockingFailureException if the delete still conflicts after {@code product.contention.max-retries} retries
      */
+    @Transactional(Transactional.TxType.SUPPORTS)
     public void deleteProduct(Long id) {
-        Product existingProduct = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product with ID " + id + " not found"));
+        writeWithRetry(id, pessimistic -> {
+            applyDelete(id, pessimistic);
+            return null;
+        });
+    }
 
+    private void applyDelete(Long id, boolean pessimistic) {
+        Product existingProduct = loadForWrite(id, pessimistic);
+
+        boolean wasActive = existingProduct.getActiveStatus();
         existingProduct.setActiveStatus(false);
-        productRepository.save(existingProduct);
+        Product deactivatedProduct = productRepository.saveAndFlush(existingProduct);
+        productCache.evictAfterCommit(id);
+        productSearchIndex.removeAfterCommit(id);
+        if (wasActive) {
+            productEventPublisher.publishAfterCommit(ProductEvent.builder()
+                    .eventType(ProductEventType.PRODUCT_DEACTIVATED)
+                    .productId(id)
+                    .version(deactivatedProduct.getVersion())
+                    .occurredAt(Instant.now())
+                    .activeStatus(false)
+                    .build());
+        }
     }
 
     /**
-     * Checks whether a product has sufficient stock for the requested quantity.
+     * Deducts stock with a conditional update, without loading the {@link Product} entity.
+     *
+     * <p>The database only applies the decrement when {@code stock - reservedStock >= quantity}, so concurrent
+     * orders for the same product serialize on the row lock instead of racing on
+     * {@link Product#getVersion()} and failing with optimistic lock conflicts. Concurrent
+     * decrements of the same product are combined into one update by {@link StockDecrementCombiner}
+     * and committed in their own transaction; within an existing transaction the decrement joins it.</p>
      *
      * @param id the product ID
-     * @param quantity the required quantity
-     * @return true if sufficient stock is available, false otherwise
+     * @param quantity the quantity to deduct
+     * @return the remaining stock, approximate for products with several stock buckets (see
+     *         {@link StockDecrementCombiner}), or empty if the available stock is insufficient
+     * @throws ResourceNotFoundException if the product does not exist
      */
-    public boolean hasStock(Long id, Integer quantity) {
-        return productRepository.findById(id)
-                .map(product -> product.getStock() >= quantity && product.getActiveStatus())
-                .orElse(false);
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public OptionalInt decrementStock(Long id, Integer quantity) {
+        return stockDecrementCombiner.decrement(id, quantity);
     }
 
     /**
-     * Reduces the stock of a product after an order is confirmed.
+     * Validates, deducts and prices a product for an order in a single call.
      *
-     * <p>Throws {@link ResourceNotFoundException} if the product does not exist.
-     * Returns false if insufficient stock is available.</p>
+     * <p>The deduction is allocated by {@link StockAllocator} with conditional updates that only
+     * succeed for an active product with enough stock; the product's name, price and version are
+     * then read back as a projection within the same transaction. On failure the projection is
+     * used to report why.</p>
      *
      * @param id the product ID
-     * @param quantity the quantity to deduct
-     * @return true if stock was successfully reduced, false otherwise
+     * @param quantity the quantity to reserve
+     * @return the reservation, including the product's name, price and version and the locations
+     *         the units were taken from
+     * @throws ResourceNotFoundException if the product does not exist
+     * @throws ProductUnavailableException if the product is not active
+     * @throws InsufficientStockException if the available stock is insufficient
      */
-    public boolean reduceStock(Long id, Integer quantity) {
-        Product product = productRepository.findById(id)
+    public StockReservationResponseDto reserveStock(Long id, Integer quantity) {
+        List<StockAllocation> allocations = stockAllocator.allocate(id, quantity, StockAllocator.Mode.DEDUCT_IF_ACTIVE);
+
+        ProductPricingView product = productRepository.findPricingViewById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
 
-        if (product.getStock() < quantity) {
-            return false;
+        if (allocations.isEmpty()) {
+            if (!product.getActiveStatus()) {
+                throw new ProductUnavailableException("Product with ID " + id + " is not available");
+            }
+            throw new InsufficientStockException("Insufficient stock for product with ID " + id);
+        }
+
+        productCache.evictAfterCommit(id);
+        productEventPublisher.stockChangedAfterCommit(id);
+        return StockReservationResponseDto.builder()
+                .productId(product.getId())
+                .name(product.getName())
+                .price(product.getPrice())
+                .version(product.getVersion())
+                .reservedQuantity(quantity)
+                .remainingStock(product.getStock())
+                .allocations(StockAllocator.byLocation(allocations))
+                .build();
+    }
+
+    /**
+     * Validates, deducts and prices several products for an order in a single call, all or nothing.
+     *
+     * <p>Lines for the same product are added up, and the products are reserved one by one as by
+     * {@link #reserveStock(Long, Integer)} within one transaction. If any of them cannot be
+     * reserved, the transaction rolls back and no stock is deducted for any product. Products are
+     * reserved in ID order, so that concurrent orders sharing products lock their stock buckets in
+     * the same order and cannot deadlock.</p>
+     *
+     * @param lines the products and quantities to reserve
+     * @return one reservation per distinct product, in the order the products first appear in
+     *         {@code lines}
+     * @throws ResourceNotFoundException if a product does not exist
+     * @throws ProductUnavailableException if a product is not active
+     * @throws InsufficientStockException if the available stock of a product is insufficient
+     */
+    public StockReservationBatchResponseDto reserveStock(List<StockReservationLineDto> lines) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        lines.forEach(line -> quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum));
+
+        Map<Long, StockReservationResponseDto> reservations = new HashMap<>();
+        new TreeMap<>(quantities).forEach((id, quantity) -> reservations.put(id, reserveStock(id, quantity)));
+
+        return StockReservationBatchResponseDto.builder()
+                .reservations(quantities.keySet().stream().map(reservations::get).collect(Collectors.toList()))
+                .build();
+    }
+
+    /**
+     * Returns units that were reserved earlier but not sold to a product's stock.
+     *
+     * <p>The units are added to the default location with {@link StockAllocator#restock}, as an
+     * increment rather than a read-modify-write, so it does not conflict with concurrent orders.</p>
+     *
+     * @param id the product ID
+     * @param quantity the quantity to return
+     * @return the product's stock after the return
+     * @throws ResourceNotFoundException if the product does not exist
+     */
+    public int returnStock(Long id, Integer quantity) {
+        List<ProductInventory> buckets = inventoryRepository.findByProductId(id);
+        if (buckets.isEmpty()) {
+            throw new ResourceNotFoundException("Product not found with id: " + id);
+        }
+        stockAllocator.restock(buckets, quantity);
+
+        productCache.evictAfterCommit(id);
+        productEventPublisher.stockChangedAfterCommit(id);
+        return inventoryRepository.findStockByProductId(id).orElseThrow();
+    }
+
+    /**
+     * Runs a read-modify-write of a product in its own transaction, retrying it after an
+     * optimistic locking conflict.
+     *
+     * <p>The row is locked pessimistically when the product is contended and on every retry.
+     * When called inside an existing transaction the write joins it and is not retried, since
+     * that transaction is already marked for rollback.</p>
+     *
+     * @param id    the product ID
+     * @param write the write, given whether to lock the row pessimistically
+     * @return the result of {@code write}
+     */
+    private <T> T writeWithRetry(Long id, Function<Boolean, T> write) {
+        boolean retryable = !TransactionSynchronizationManager.isActualTransactionActive();
+        for (int attempt = 0; ; attempt++) {
+            boolean pessimistic = attempt > 0 || contentionTracker.isContended(id);
+            try {
+                T result = transactionTemplate.execute(status -> write.apply(pessimistic));
+                if (!pessimistic) {
+                    contentionTracker.recordSuccess(id);
+                }
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                contentionTracker.recordConflict(id);
+                if (!retryable || attempt >= maxRetries) {
+                    throw e;
+                }
+                contentionTracker.recordRetry(id);
+            }
+        }
+    }
+
+    private ProductStockLevelView findStockLevel(Long id) {
+        return inventoryRepository.findStockLevelByProductId(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product with ID " + id + " not found"));
+    }
+
+    private Product loadForWrite(Long id, boolean pessimistic) {
+        return (pessimistic
+                ? contentionTracker.acquireLock(id,
+                        () -> rowLockTimeout.lock(() -> productRepository.findByIdForUpdate(id)))
+                : productRepository.findById(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Product with ID " + id + " not found"));
+    }
+
+    /**
+     * Builds the event for an update from the fields it changes, before they are applied.
+     *
+     * @param product the product as currently stored
+     * @param inventory the product's stock levels as currently stored
+     * @param dto the requested changes
+     * @return the event without its version, or {@code null} if nothing changes
+     */
+    private ProductEvent changesOf(Product product, ProductStockLevelView inventory, ProductRequestDto dto) {
+        ProductEvent event = ProductEvent.builder()
+                .productId(product.getId())
+                .occurredAt(Instant.now())
+                .build();
+        boolean changed = false;
+
+        if (!Objects.equals(product.getName(), dto.getName())) {
+            event.setName(dto.getName());
+            changed = true;
+        }
+        if (!Objects.equals(product.getSku(), dto.getSku())) {
+            event.setSku(dto.getSku());
+            changed = true;
+        }
+        if (product.getPrice() == null || dto.getPrice() == null
+                ? !Objects.equals(product.getPrice(), dto.getPrice())
+                : product.getPrice().compareTo(dto.getPrice()) != 0) {
+            event.setPrice(dto.getPrice());
+            changed = true;
+        }
+        if (!Objects.equals(inventory.getStock(), dto.getStock())) {
+            event.setStock(dto.getStock());
+            event.setAvailableStock(dto.getStock() - inventory.getReservedStock());
+            changed = true;
+        }
+        if (!Objects.equals(product.getActiveStatus(), dto.getActiveStatus())) {
+            event.setActiveStatus(dto.getActiveStatus());
+            changed = true;
         }
 
-        product.setStock(product.getStock() - quantity);
-        productRepository.save(product);
-        return true;
+        if (!changed) {
+            return null;
+        }
+        event.setEventType(Boolean.FALSE.equals(event.getActiveStatus())
+                ? ProductEventType.PRODUCT_DEACTIVATED
+                : ProductEventType.PRODUCT_UPDATED);
+        return event;
     }
 
     /**
@@ -159,25 +652,53 @@ public class ProductService {
                 .name(dto.getName())
                 .sku(dto.getSku())
                 .price(dto.getPrice())
-                .stock(dto.getStock())
                 .activeStatus(dto.getActiveStatus() != null ? dto.getActiveStatus() : true)
                 .build();
     }
 
     /**
-     * Converts a {@link Product} entity into a {@link ProductResponseDto}.
+     * Converts products into {@link ProductResponseDto}s, loading their stock levels with one query.
+     *
+     * @param products the entities to convert
+     * @return the corresponding response DTOs, in the same order
+     */
+    private List<ProductResponseDto> mapToResponseDtos(List<Product> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductStockLevelView> inventories = inventoryRepository.findStockLevelsByProductIdIn(
+                        products.stream().map(Product::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(ProductStockLevelView::getId, Function.identity()));
+        return products.stream()
+                .map(product -> {
+                    ProductStockLevelView inventory = inventories.get(product.getId());
+                    if (inventory == null) {
+                        throw new ResourceNotFoundException("Inventory for product with ID " + product.getId() + " not found");
+                    }
+                    return mapToResponseDto(product, inventory);
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Converts a {@link Product} entity and its stock levels into a {@link ProductResponseDto}.
      *
      * @param product the entity to convert
+     * @param inventory the product's stock levels, summed over its buckets
      * @return the corresponding response DTO
      */
-    private ProductResponseDto mapToResponseDto(Product product) {
+    private ProductResponseDto mapToResponseDto(Product product, ProductStockLevelView inventory) {
         return ProductResponseDto.builder()
                 .id(product.getId())
                 .name(product.getName())
                 .sku(product.getSku())
                 .price(product.getPrice())
-                .stock(product.getStock())
+                .stock(inventory.getStock())
+                .availableStock(inventory.getAvailableStock())
                 .activeStatus(product.getActiveStatus())
+                .version(product.getVersion())
+                .inventoryVersion(inventory.getVersion())
                 .build();
     }
 }
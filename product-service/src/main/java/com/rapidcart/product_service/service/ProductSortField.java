@@ -0,0 +1,68 @@
+package com.rapidcart.product_service.service;
+
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * The product attributes that listings may be sorted by.
+ *
+ * <p>Each field is backed by an index whose trailing column is {@code id}, so that both
+ * page and keyset listings read rows in index order instead of sorting the table, and
+ * keyset pagination can seek directly to the next page. The declared type is used to
+ * restore cursor values to the attribute's Java type.</p>
+ */
+public enum ProductSortField {
+
+    ID("id", Long.class),
+    NAME("name", String.class),
+    SKU("sku", String.class),
+    PRICE("price", BigDecimal.class);
+
+    private final String property;
+    private final Class<?> type;
+
+    ProductSortField(String property, Class<?> type) {
+        this.property = property;
+        this.type = type;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Builds the sort order for this field, with {@code id} as the tie-breaker so that the
+     * order is total and matches the supporting index.
+     *
+     * @param direction the sort direction, applied to both columns
+     * @return the sort order
+     */
+    public Sort sort(Sort.Direction direction) {
+        Sort sort = Sort.by(direction, property);
+        return this == ID ? sort : sort.and(Sort.by(direction, ID.property));
+    }
+
+    /**
+     * Resolves a sort field from its property name.
+     *
+     * @param property the property name supplied by the client
+     * @return the matching sort field
+     * @throws IllegalArgumentException if the property is not sortable
+     */
+    public static ProductSortField fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equals(property))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Cannot sort products by '" + property
+                        + "'. Allowed fields: " + Arrays.stream(values())
+                        .map(ProductSortField::getProperty)
+                        .collect(Collectors.joining(", "))));
+    }
+}
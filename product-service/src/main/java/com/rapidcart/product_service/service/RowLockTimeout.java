@@ -0,0 +1,68 @@
+package com.rapidcart.product_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Bounds how long a locking read ({@code SELECT ... FOR UPDATE}) waits for a row lock.
+ *
+ * <p>Hibernate ignores the {@code jakarta.persistence.lock.timeout} hint on PostgreSQL, which
+ * only supports {@code NOWAIT} and {@code SKIP LOCKED} in the locking clause, so the timeout is
+ * set on the connection instead. On PostgreSQL {@code lock_timeout} is set for the current
+ * transaction only; H2 has no transaction-scoped lock timeout, so there it is set for the
+ * session. A lock not acquired within {@code product.contention.lock-timeout} fails the
+ * statement with a {@link org.springframework.dao.PessimisticLockingFailureException}.</p>
+ */
+@Component
+public class RowLockTimeout {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration timeout;
+    private final boolean postgres;
+
+    public RowLockTimeout(DataSource dataSource,
+                          @Value("${product.contention.lock-timeout:2s}") Duration timeout) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.timeout = timeout;
+        this.postgres = isPostgres(dataSource);
+    }
+
+    /**
+     * Runs a locking read with the lock timeout applied to the current transaction.
+     *
+     * @param lockingRead the locking read
+     * @param <T>         the result of the locking read
+     * @return the result of {@code lockingRead}
+     * @throws IllegalStateException if no transaction is active
+     */
+    public <T> T lock(Supplier<T> lockingRead) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Row locks can only be taken inside a transaction");
+        }
+        if (postgres) {
+            jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class,
+                    timeout.toMillis() + "ms");
+        } else {
+            jdbcTemplate.execute("SET LOCK_TIMEOUT " + timeout.toMillis());
+        }
+        return lockingRead.get();
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Unable to determine database type for row lock timeouts", e);
+        }
+    }
+}
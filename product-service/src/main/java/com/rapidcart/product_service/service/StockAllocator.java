@@ -0,0 +1,313 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.dto.StockAllocationDto;
+import com.rapidcart.product_service.entity.ProductInventory;
+import com.rapidcart.product_service.entity.StockAllocation;
+import com.rapidcart.product_service.exception.InsufficientStockException;
+import com.rapidcart.product_service.repository.ProductInventoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which stock buckets an order or hold draws from, and applies the decision.
+ *
+ * <p>A product's stock is held per location, and the stock at a location may be split over
+ * several buckets (see {@link ProductInventory}). The allocation policy is:</p>
+ * <ol>
+ *     <li>If one location can cover the whole quantity, it is taken from that location alone,
+ *     choosing the one with the most available stock, so that an order ships from as few
+ *     locations as possible.</li>
+ *     <li>Otherwise the quantity is split across locations, taking from those with the most
+ *     available stock first.</li>
+ *     <li>Within a location, a single bucket that covers the quantity is preferred, and buckets
+ *     are visited starting at a random one, so that concurrent orders for a hot product
+ *     spread over its buckets instead of queuing on the same row.</li>
+ * </ol>
+ *
+ * <p>Each part of an allocation is applied as a conditional update of its bucket. If a
+ * concurrent change wins the race for a bucket, the buckets are read again and the rest of the
+ * quantity is re-planned, up to {@value #MAX_ATTEMPTS} times; if the product cannot cover the
+ * quantity, the parts already applied are undone and nothing is allocated. Allocations are
+ * made within the caller's transaction. Allocations that span more than one location are
+ * counted by the {@code product.stock.allocation.splits} metric.</p>
+ */
+@Component
+public class StockAllocator {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ProductInventoryRepository inventoryRepository;
+    private final Counter splits;
+    private final int defaultBuckets;
+
+    public StockAllocator(
+            ProductInventoryRepository inventoryRepository,
+            MeterRegistry meterRegistry,
+            @Value("${product.stock.default-buckets:1}") int defaultBuckets
+    ) {
+        this.inventoryRepository = inventoryRepository;
+        this.defaultBuckets = defaultBuckets;
+        this.splits = Counter.builder("product.stock.allocation.splits")
+                .description("Allocations that take stock from more than one location")
+                .register(meterRegistry);
+    }
+
+    /**
+     * What an allocation does to the buckets it takes from.
+     */
+    public enum Mode {
+
+        /** Deducts the units from stock. */
+        DEDUCT,
+
+        /** Deducts the units from stock if the product is active. */
+        DEDUCT_IF_ACTIVE,
+
+        /** Places the units on hold if the product is active; stock is deducted when the hold is committed. */
+        HOLD
+    }
+
+    /**
+     * Takes units of a product from its buckets according to the allocation policy.
+     *
+     * @param productId the product ID
+     * @param quantity  the number of units to take
+     * @param mode      what to do to the buckets taken from
+     * @return the buckets taken from and how many units each gave, or an empty list if the
+     *         product does not exist, is inactive (for {@link Mode#DEDUCT_IF_ACTIVE} and
+     *         {@link Mode#HOLD}) or cannot cover the quantity
+     */
+    public List<StockAllocation> allocate(Long productId, int quantity, Mode mode) {
+        Map<String, StockAllocation> applied = new LinkedHashMap<>();
+        int remaining = quantity;
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && remaining > 0; attempt++) {
+            List<StockAllocation> plan = plan(inventoryRepository.findByProductId(productId), remaining);
+            if (plan.isEmpty()) {
+                break;
+            }
+            for (StockAllocation part : plan) {
+                if (apply(productId, part, mode) == 0) {
+                    break;
+                }
+                applied.merge(part.getLocationId() + "#" + part.getBucket(), part, (current, added) -> {
+                    current.setQuantity(current.getQuantity() + added.getQuantity());
+                    return current;
+                });
+                remaining -= part.getQuantity();
+            }
+        }
+
+        List<StockAllocation> allocations = new ArrayList<>(applied.values());
+        if (remaining > 0) {
+            release(productId, allocations, mode);
+            return List.of();
+        }
+        if (allocations.stream().map(StockAllocation::getLocationId).distinct().count() > 1) {
+            splits.increment();
+        }
+        return allocations;
+    }
+
+    /**
+     * Plans which buckets to take a quantity from, without changing them.
+     *
+     * @param buckets  the product's buckets
+     * @param quantity the number of units to take
+     * @return the planned allocation, or an empty list if the buckets cannot cover the quantity
+     */
+    static List<StockAllocation> plan(List<ProductInventory> buckets, int quantity) {
+        Map<String, List<ProductInventory>> byLocation = buckets.stream()
+                .filter(bucket -> bucket.getAvailableStock() > 0)
+                .collect(Collectors.groupingBy(ProductInventory::getLocationId, LinkedHashMap::new, Collectors.toList()));
+        List<List<ProductInventory>> locations = byLocation.values().stream()
+                .sorted(Comparator.comparingInt(StockAllocator::availableAt).reversed())
+                .collect(Collectors.toList());
+
+        if (locations.stream().mapToInt(StockAllocator::availableAt).sum() < quantity) {
+            return List.of();
+        }
+
+        List<StockAllocation> plan = new ArrayList<>();
+        int remaining = quantity;
+        for (List<ProductInventory> location : locations) {
+            // The first location is the fullest, so it covers the quantity alone if any location does
+            remaining -= takeFrom(location, remaining, plan);
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Undoes an allocation, or releases the units of a hold that is not committed.
+     *
+     * @param productId   the product ID
+     * @param allocations the allocation to undo
+     * @param mode        the mode the allocation was made with
+     */
+    public void release(Long productId, List<StockAllocation> allocations, Mode mode) {
+        for (StockAllocation part : allocations) {
+            if (mode == Mode.HOLD) {
+                inventoryRepository.releaseHeldStock(productId, part.getLocationId(), part.getBucket(), part.getQuantity());
+            } else {
+                inventoryRepository.incrementStock(productId, part.getLocationId(), part.getBucket(), part.getQuantity());
+            }
+        }
+    }
+
+    /**
+     * Adds units of a product to its default location, into the bucket with the least stock.
+     *
+     * <p>Products whose stock has been moved out of {@link ProductInventory#DEFAULT_LOCATION}
+     * receive it in their first location instead.</p>
+     *
+     * @param buckets  the product's buckets
+     * @param quantity the number of units to add
+     */
+    public void restock(List<ProductInventory> buckets, int quantity) {
+        String locationId = buckets.stream().anyMatch(bucket -> isDefaultLocation(bucket.getLocationId()))
+                ? ProductInventory.DEFAULT_LOCATION
+                : buckets.get(0).getLocationId();
+        ProductInventory target = buckets.stream()
+                .filter(bucket -> bucket.getLocationId().equals(locationId))
+                .min(Comparator.comparingInt(ProductInventory::getStock))
+                .orElseThrow();
+        inventoryRepository.incrementStock(target.getProductId(), target.getLocationId(), target.getBucket(), quantity);
+    }
+
+    /**
+     * Sets the stock of a product at a location, spreading the unheld units evenly over its buckets.
+     *
+     * <p>Buckets that do not exist yet are created; existing buckets are kept, since they may
+     * still carry held units, so the number of buckets at a location can grow but not shrink.
+     * The caller must hold the locks of the product's buckets, see
+     * {@link ProductInventoryRepository#findByProductIdForUpdate(Long)}.</p>
+     *
+     * @param productId  the product ID
+     * @param buckets    the product's buckets, locked
+     * @param locationId the location ID
+     * @param stock      the total stock on hand at the location
+     * @param bucketCount the number of buckets to spread the stock over, or {@code null} to keep
+     *                    the current number (or {@code product.stock.default-buckets} for a new location)
+     * @return the location's buckets after the change
+     * @throws InsufficientStockException if {@code stock} is below the units on hold at the location
+     */
+    public List<ProductInventory> setLocationStock(Long productId, List<ProductInventory> buckets, String locationId,
+                                                   int stock, Integer bucketCount) {
+        List<ProductInventory> location = buckets.stream()
+                .filter(bucket -> bucket.getLocationId().equals(locationId))
+                .sorted(Comparator.comparingInt(ProductInventory::getBucket))
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        int reserved = location.stream().mapToInt(ProductInventory::getReservedStock).sum();
+        if (stock < reserved) {
+            throw new InsufficientStockException("Stock for product with ID " + productId + " at location "
+                    + locationId + " cannot be set below the " + reserved + " units on hold");
+        }
+
+        int target = Math.max(location.size(), Objects.requireNonNullElse(bucketCount,
+                location.isEmpty() ? defaultBuckets : location.size()));
+        for (int index = location.size(); index < target; index++) {
+            location.add(ProductInventory.builder()
+                    .productId(productId)
+                    .locationId(locationId)
+                    .bucket(index)
+                    .stock(0)
+                    .build());
+        }
+
+        int unheld = stock - reserved;
+        for (int index = 0; index < target; index++) {
+            ProductInventory bucket = location.get(index);
+            int share = unheld / target + (index < unheld % target ? 1 : 0);
+            bucket.setStock(bucket.getReservedStock() + share);
+        }
+        return inventoryRepository.saveAllAndFlush(location);
+    }
+
+    /**
+     * Sums an allocation per location, for responses.
+     *
+     * @param allocations the allocation
+     * @return the units taken from each location, in the order the locations were first used
+     */
+    public static List<StockAllocationDto> byLocation(List<StockAllocation> allocations) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        allocations.forEach(part -> quantities.merge(part.getLocationId(), part.getQuantity(), Integer::sum));
+        return quantities.entrySet().stream()
+                .map(entry -> StockAllocationDto.builder()
+                        .locationId(entry.getKey())
+                        .quantity(entry.getValue())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isDefaultLocation(String locationId) {
+        return ProductInventory.DEFAULT_LOCATION.equals(locationId);
+    }
+
+    private static int availableAt(List<ProductInventory> location) {
+        return location.stream().mapToInt(ProductInventory::getAvailableStock).sum();
+    }
+
+    /**
+     * Plans to take up to {@code quantity} units from the buckets of one location.
+     *
+     * @return the number of units planned
+     */
+    private static int takeFrom(List<ProductInventory> location, int quantity, List<StockAllocation> plan) {
+        int start = ThreadLocalRandom.current().nextInt(location.size());
+        List<ProductInventory> rotated = new ArrayList<>(location.subList(start, location.size()));
+        rotated.addAll(location.subList(0, start));
+
+        for (ProductInventory bucket : rotated) {
+            if (bucket.getAvailableStock() >= quantity) {
+                plan.add(allocation(bucket, quantity));
+                return quantity;
+            }
+        }
+
+        int taken = 0;
+        for (ProductInventory bucket : rotated) {
+            int part = Math.min(bucket.getAvailableStock(), quantity - taken);
+            plan.add(allocation(bucket, part));
+            taken += part;
+            if (taken == quantity) {
+                break;
+            }
+        }
+        return taken;
+    }
+
+    private static StockAllocation allocation(ProductInventory bucket, int quantity) {
+        return StockAllocation.builder()
+                .locationId(bucket.getLocationId())
+                .bucket(bucket.getBucket())
+                .quantity(quantity)
+                .build();
+    }
+
+    private int apply(Long productId, StockAllocation part, Mode mode) {
+        return switch (mode) {
+            case DEDUCT -> inventoryRepository.decrementStockIfAvailable(
+                    productId, part.getLocationId(), part.getBucket(), part.getQuantity());
+            case DEDUCT_IF_ACTIVE -> inventoryRepository.decrementStockIfActiveAndAvailable(
+                    productId, part.getLocationId(), part.getBucket(), part.getQuantity());
+            case HOLD -> inventoryRepository.holdStockIfAvailable(
+                    productId, part.getLocationId(), part.getBucket(), part.getQuantity());
+        };
+    }
+}
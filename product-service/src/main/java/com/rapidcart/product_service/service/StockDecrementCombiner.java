@@ -0,0 +1,259 @@
+package com.rapidcart.product_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rapidcart.product_service.entity.ProductInventory;
+import com.rapidcart.product_service.exception.ResourceNotFoundException;
+import com.rapidcart.product_service.repository.ProductInventoryRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Combines concurrent stock decrements for the same product into one database update.
+ *
+ * <p>Decrements for a product queue up in arrival order. The first caller to find the queue
+ * empty becomes its leader: it waits {@code product.stock.combine-window} for more requests
+ * to arrive, takes up to {@code product.stock.combine-max-batch} of them, applies them in one
+ * transaction and hands leadership to the next queued caller, if any. Every other caller
+ * simply waits for its own result, so a burst of N decrements on a hot product costs roughly
+ * N / batch size transactions instead of N.</p>
+ *
+ * <p>A batch is applied as one allocation of the total quantity by {@link StockAllocator}. If the
+ * product cannot cover the total, its stock buckets are locked and the requests are granted in
+ * FIFO order, each one succeeding if the units still available cover it, exactly as if they had
+ * been applied one by one; the granted total is then allocated at once. Each caller receives
+ * its own remaining stock or an empty result.</p>
+ *
+ * <p>The remaining stock is derived from the product's total stock, read right after the
+ * update in the same transaction, by adding back the quantities of the requests queued behind
+ * the caller. It is exact for a product with a single bucket, whose row stays locked until the
+ * commit, and when the buckets were locked for FIFO granting. With several buckets, the
+ * conditional update only locks those it took from, so decrements committed on other buckets
+ * in the meantime are already reflected: the value is then approximate, never a reservation
+ * guarantee, and two callers may observe the same figure.</p>
+ *
+ * <p>If a batch fails, every caller in it receives the failure, whether an exception or an
+ * {@link Error}, and leadership still passes to the next queued caller.</p>
+ *
+ * <p>Callers already inside a transaction are applied alone within it, since their decrement
+ * must commit or roll back with that transaction. Batch sizes are published as the
+ * {@code product.stock.combined.batch.size} metric. Disable with
+ * {@code product.stock.combining.enabled=false}.</p>
+ */
+@Component
+public class StockDecrementCombiner {
+
+    private final ProductInventoryRepository inventoryRepository;
+    private final StockAllocator stockAllocator;
+    private final ProductCache productCache;
+    private final ProductEventPublisher productEventPublisher;
+    private final RowLockTimeout rowLockTimeout;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary batchSizes;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatch;
+
+    // Weak values: a lane is dropped once no caller references it, i.e. when nothing is queued
+    private final Cache<Long, Lane> lanes = Caffeine.newBuilder().weakValues().build();
+
+    public StockDecrementCombiner(
+            ProductInventoryRepository inventoryRepository,
+            StockAllocator stockAllocator,
+            ProductCache productCache,
+            ProductEventPublisher productEventPublisher,
+            RowLockTimeout rowLockTimeout,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${product.stock.combining.enabled:true}") boolean enabled,
+            @Value("${product.stock.combine-window:500us}") Duration window,
+            @Value("${product.stock.combine-max-batch:256}") int maxBatch
+    ) {
+        this.inventoryRepository = inventoryRepository;
+        this.stockAllocator = stockAllocator;
+        this.productCache = productCache;
+        this.productEventPublisher = productEventPublisher;
+        this.rowLockTimeout = rowLockTimeout;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatch = maxBatch;
+        this.batchSizes = DistributionSummary.builder("product.stock.combined.batch.size")
+                .description("Number of stock decrements applied by one combined update")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Deducts stock from a product, combined with concurrent decrements of the same product.
+     *
+     * @param id       the product ID
+     * @param quantity the quantity to deduct
+     * @return the remaining stock after this decrement, approximate for products with several
+     *         stock buckets, or empty if the available stock is insufficient
+     * @throws ResourceNotFoundException if the product does not exist
+     */
+    public OptionalInt decrement(Long id, int quantity) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return decrementAlone(id, quantity);
+        }
+
+        Lane lane = lanes.get(id, key -> new Lane());
+        PendingDecrement request = new PendingDecrement(quantity);
+        // Counted before it is queued, so a leader never drains a request it has not counted
+        boolean leader = lane.pending.getAndIncrement() == 0;
+        lane.queue.add(request);
+
+        if (leader || request.turn.join()) {
+            lead(id, lane);
+        }
+        return request.result();
+    }
+
+    /**
+     * Deducts stock from a product with its own conditional update, without combining.
+     *
+     * @param id       the product ID
+     * @param quantity the quantity to deduct
+     * @return the remaining stock, approximate for products with several stock buckets, or empty
+     *         if the available stock is insufficient
+     * @throws ResourceNotFoundException if the product does not exist
+     */
+    public OptionalInt decrementAlone(Long id, int quantity) {
+        PendingDecrement request = new PendingDecrement(quantity);
+        transactionTemplate.executeWithoutResult(status -> apply(id, List.of(request)));
+        return request.result();
+    }
+
+    private void lead(Long id, Lane lane) {
+        if (windowNanos > 0) {
+            LockSupport.parkNanos(windowNanos);
+        }
+
+        List<PendingDecrement> batch = new ArrayList<>();
+        PendingDecrement next;
+        while (batch.size() < maxBatch && (next = lane.queue.poll()) != null) {
+            batch.add(next);
+        }
+
+        try {
+            batchSizes.record(batch.size());
+            transactionTemplate.executeWithoutResult(status -> apply(id, batch));
+        } catch (Throwable e) {
+            // Even an Error is handed to the batch's callers, which are waiting on this thread
+            batch.forEach(request -> request.failure = e);
+        } finally {
+            handOff(lane, batch);
+        }
+    }
+
+    /**
+     * Passes leadership to the next queued caller, if any, and releases the callers of a batch.
+     */
+    private void handOff(Lane lane, List<PendingDecrement> batch) {
+        try {
+            if (lane.pending.addAndGet(-batch.size()) > 0) {
+                // A counted request may not be queued yet; it is about to be
+                PendingDecrement successor;
+                while ((successor = lane.queue.peek()) == null) {
+                    Thread.onSpinWait();
+                }
+                successor.turn.complete(true);
+            }
+        } finally {
+            batch.forEach(request -> request.turn.complete(false));
+        }
+    }
+
+    private void apply(Long id, List<PendingDecrement> batch) {
+        int total = batch.stream().mapToInt(request -> request.quantity).sum();
+
+        if (!stockAllocator.allocate(id, total, StockAllocator.Mode.DEDUCT).isEmpty()) {
+            // Includes concurrent commits on buckets this update did not lock, see the class comment
+            int remaining = inventoryRepository.findStockByProductId(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id)) + total;
+            for (PendingDecrement request : batch) {
+                remaining -= request.quantity;
+                request.remainingStock = OptionalInt.of(remaining);
+            }
+        } else {
+            List<ProductInventory> buckets =
+                    rowLockTimeout.lock(() -> inventoryRepository.findByProductIdForUpdate(id));
+            if (buckets.isEmpty()) {
+                throw new ResourceNotFoundException("Product not found with id: " + id);
+            }
+            int stock = buckets.stream().mapToInt(ProductInventory::getStock).sum();
+            int available = buckets.stream().mapToInt(ProductInventory::getAvailableStock).sum();
+            int granted = 0;
+            for (PendingDecrement request : batch) {
+                if (request.quantity <= available - granted) {
+                    granted += request.quantity;
+                    request.remainingStock = OptionalInt.of(stock - granted);
+                } else {
+                    request.remainingStock = OptionalInt.empty();
+                }
+            }
+            if (granted == 0) {
+                return;
+            }
+            // The buckets are locked, so the granted units are still there
+            stockAllocator.allocate(id, granted, StockAllocator.Mode.DEDUCT);
+        }
+
+        productCache.evictAfterCommit(id);
+        productEventPublisher.stockChangedAfterCommit(id);
+    }
+
+    /**
+     * The queue of pending decrements for one product.
+     */
+    private static final class Lane {
+
+        private final Queue<PendingDecrement> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+    }
+
+    /**
+     * One caller's decrement and, once applied, its outcome.
+     */
+    private static final class PendingDecrement {
+
+        private final int quantity;
+
+        /** Completed with {@code true} when the caller must lead the next batch, {@code false} when its result is ready. */
+        private final CompletableFuture<Boolean> turn = new CompletableFuture<>();
+
+        private OptionalInt remainingStock;
+        private Throwable failure;
+
+        PendingDecrement(int quantity) {
+            this.quantity = quantity;
+        }
+
+        OptionalInt result() {
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Stock decrement failed", failure);
+            }
+            return remainingStock;
+        }
+    }
+}
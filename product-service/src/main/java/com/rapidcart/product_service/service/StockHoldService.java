@@ -0,0 +1,240 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.dto.StockHoldResponseDto;
+import com.rapidcart.product_service.entity.ProductInventory;
+import com.rapidcart.product_service.entity.StockAllocation;
+import com.rapidcart.product_service.entity.StockHold;
+import com.rapidcart.product_service.entity.StockHoldStatus;
+import com.rapidcart.product_service.exception.InsufficientStockException;
+import com.rapidcart.product_service.exception.ProductUnavailableException;
+import com.rapidcart.product_service.exception.ResourceNotFoundException;
+import com.rapidcart.product_service.exception.StockHoldNotActiveException;
+import com.rapidcart.product_service.repository.ProductInventoryRepository;
+import com.rapidcart.product_service.repository.ProductPricingView;
+import com.rapidcart.product_service.repository.ProductRepository;
+import com.rapidcart.product_service.repository.StockHoldRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Service layer for temporary stock holds.
+ *
+ * <p>A hold sets units of a product aside for a limited time, for example while a checkout
+ * is in progress, and is then committed (the units are deducted from stock), released, or
+ * expired by {@link StockHoldSweeper}. Available-to-promise stock is
+ * {@code stock - reservedStock}, where {@code reservedStock} is the sum of active holds.</p>
+ *
+ * <p>Each operation changes the product's stock buckets with conditional updates, so placing a
+ * hold never reads or scans other holds, and changes hold status with a conditional update
+ * on {@code status = ACTIVE}, so a hold can only leave the active state once even when a
+ * commit, a release and the sweeper race for it. The buckets a hold draws from are chosen by
+ * {@link StockAllocator} and recorded with the hold, so that it is later committed or
+ * released against the same buckets.</p>
+ */
+@Service
+@Transactional
+public class StockHoldService {
+
+    private static final Comparator<ProductInventory.Key> BUCKET_ORDER = Comparator
+            .comparing(ProductInventory.Key::getProductId)
+            .thenComparing(ProductInventory.Key::getLocationId)
+            .thenComparing(ProductInventory.Key::getBucket);
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductInventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockAllocator stockAllocator;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductEventPublisher productEventPublisher;
+
+    @Value("${product.hold.default-ttl:10m}")
+    private Duration defaultTtl;
+
+    @Value("${product.hold.max-ttl:1h}")
+    private Duration maxTtl;
+
+    /**
+     * Places a hold on units of an active product.
+     *
+     * @param productId the product ID
+     * @param quantity  the number of units to hold
+     * @param ttl       how long the hold lasts, or {@code null} for {@code product.hold.default-ttl}
+     * @return the new hold
+     * @throws IllegalArgumentException    if {@code ttl} exceeds {@code product.hold.max-ttl}
+     * @throws ResourceNotFoundException   if the product does not exist
+     * @throws ProductUnavailableException if the product is not active
+     * @throws InsufficientStockException  if not enough unheld stock remains
+     */
+    public StockHoldResponseDto placeHold(Long productId, Integer quantity, Duration ttl) {
+        Duration holdFor = ttl != null ? ttl : defaultTtl;
+        if (holdFor.compareTo(maxTtl) > 0) {
+            throw new IllegalArgumentException("Hold TTL cannot exceed " + maxTtl.toSeconds() + " seconds");
+        }
+
+        List<StockAllocation> allocations = stockAllocator.allocate(productId, quantity, StockAllocator.Mode.HOLD);
+        if (allocations.isEmpty()) {
+            ProductPricingView product = productRepository.findPricingViewById(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+            if (!product.getActiveStatus()) {
+                throw new ProductUnavailableException("Product with ID " + productId + " is not available");
+            }
+            throw new InsufficientStockException("Insufficient stock for product with ID " + productId);
+        }
+
+        Instant now = Instant.now();
+        StockHold hold = stockHoldRepository.save(StockHold.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .status(StockHoldStatus.ACTIVE)
+                .createdAt(now)
+                .expiresAt(now.plus(holdFor))
+                .allocations(allocations)
+                .build());
+
+        productCache.evictAfterCommit(productId);
+        productEventPublisher.stockChangedAfterCommit(productId);
+        return mapToResponseDto(hold);
+    }
+
+    /**
+     * Commits an active, unexpired hold, permanently deducting its units from stock.
+     *
+     * @param holdId the hold ID
+     * @return the committed hold
+     * @throws ResourceNotFoundException   if the hold does not exist
+     * @throws StockHoldNotActiveException if the hold was already committed, released or has expired
+     */
+    public StockHoldResponseDto commitHold(Long holdId) {
+        StockHold hold = findHold(holdId);
+        if (stockHoldRepository.commitIfActive(holdId, Instant.now()) == 0) {
+            throw notActive(hold);
+        }
+
+        for (StockAllocation part : hold.getAllocations()) {
+            inventoryRepository.commitHeldStock(hold.getProductId(), part.getLocationId(), part.getBucket(), part.getQuantity());
+        }
+        productCache.evictAfterCommit(hold.getProductId());
+        productEventPublisher.stockChangedAfterCommit(hold.getProductId());
+
+        hold.setStatus(StockHoldStatus.COMMITTED);
+        return mapToResponseDto(hold);
+    }
+
+    /**
+     * Releases an active hold, returning its units to available stock.
+     *
+     * @param holdId the hold ID
+     * @return the released hold
+     * @throws ResourceNotFoundException   if the hold does not exist
+     * @throws StockHoldNotActiveException if the hold was already committed, released or has expired
+     */
+    public StockHoldResponseDto releaseHold(Long holdId) {
+        StockHold hold = findHold(holdId);
+        if (stockHoldRepository.releaseIfActive(holdId) == 0) {
+            throw notActive(hold);
+        }
+
+        stockAllocator.release(hold.getProductId(), hold.getAllocations(), StockAllocator.Mode.HOLD);
+        productCache.evictAfterCommit(hold.getProductId());
+        productEventPublisher.stockChangedAfterCommit(hold.getProductId());
+
+        hold.setStatus(StockHoldStatus.RELEASED);
+        return mapToResponseDto(hold);
+    }
+
+    /**
+     * Fetches a hold by ID.
+     *
+     * @param holdId the hold ID
+     * @return the hold
+     * @throws ResourceNotFoundException if the hold does not exist
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public StockHoldResponseDto getHold(Long holdId) {
+        return mapToResponseDto(findHold(holdId));
+    }
+
+    /**
+     * Expires one batch of active holds whose expiry time has passed.
+     *
+     * <p>The batch is locked with {@code SKIP LOCKED}, marked expired in one statement, and
+     * its quantities are returned with one update per stock bucket, so a burst of expiries on a
+     * hot product costs a single update of each bucket it was held from.</p>
+     *
+     * @param batchSize the maximum number of holds to expire
+     * @return the number of holds expired
+     */
+    public int expireHolds(int batchSize) {
+        List<StockHold> expired = stockHoldRepository.findByStatusAndExpiresAtLessThanEqualOrderByExpiresAt(
+                StockHoldStatus.ACTIVE, Instant.now(), Limit.of(batchSize));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        // Sorted by bucket so that concurrent sweepers lock bucket rows in the same order
+        Map<ProductInventory.Key, Integer> quantityByBucket = new TreeMap<>(BUCKET_ORDER);
+        for (StockHold hold : expired) {
+            for (StockAllocation part : hold.getAllocations()) {
+                quantityByBucket.merge(new ProductInventory.Key(hold.getProductId(), part.getLocationId(), part.getBucket()),
+                        part.getQuantity(), Integer::sum);
+            }
+        }
+
+        stockHoldRepository.updateStatus(
+                expired.stream().map(StockHold::getId).collect(Collectors.toList()),
+                StockHoldStatus.EXPIRED);
+
+        quantityByBucket.forEach((bucket, quantity) -> inventoryRepository.releaseHeldStock(
+                bucket.getProductId(), bucket.getLocationId(), bucket.getBucket(), quantity));
+        expired.stream().map(StockHold::getProductId).distinct().forEach(productId -> {
+            productCache.evictAfterCommit(productId);
+            productEventPublisher.stockChangedAfterCommit(productId);
+        });
+
+        return expired.size();
+    }
+
+    private StockHold findHold(Long holdId) {
+        return stockHoldRepository.findWithAllocationsById(holdId)
+                .orElseThrow(() -> new ResourceNotFoundException("Stock hold not found with id: " + holdId));
+    }
+
+    private StockHoldNotActiveException notActive(StockHold hold) {
+        String state = hold.getStatus() == StockHoldStatus.ACTIVE ? "EXPIRED" : hold.getStatus().name();
+        return new StockHoldNotActiveException("Stock hold " + hold.getId() + " is " + state);
+    }
+
+    private StockHoldResponseDto mapToResponseDto(StockHold hold) {
+        return StockHoldResponseDto.builder()
+                .id(hold.getId())
+                .productId(hold.getProductId())
+                .quantity(hold.getQuantity())
+                .status(hold.getStatus())
+                .createdAt(hold.getCreatedAt())
+                .expiresAt(hold.getExpiresAt())
+                .allocations(StockAllocator.byLocation(hold.getAllocations()))
+                .build();
+    }
+}
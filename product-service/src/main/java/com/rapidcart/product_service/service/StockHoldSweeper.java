@@ -0,0 +1,51 @@
+package com.rapidcart.product_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically expires stock holds that were neither committed nor released in time.
+ *
+ * <p>Runs every {@code product.hold.sweep-interval} and expires due holds in batches of
+ * {@code product.hold.sweep-batch-size}, each batch in its own transaction, until no due
+ * holds remain. Several instances can sweep concurrently because each batch skips rows
+ * locked by others. Expired holds are counted in the {@code product.holds.expired} metric.</p>
+ *
+ * <p>Disable with {@code product.hold.sweeper.enabled=false}.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "product.hold.sweeper", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StockHoldSweeper {
+
+    private final StockHoldService stockHoldService;
+    private final Counter expiredCounter;
+    private final int batchSize;
+
+    public StockHoldSweeper(
+            StockHoldService stockHoldService,
+            MeterRegistry meterRegistry,
+            @Value("${product.hold.sweep-batch-size:500}") int batchSize
+    ) {
+        this.stockHoldService = stockHoldService;
+        this.batchSize = batchSize;
+        this.expiredCounter = Counter.builder("product.holds.expired")
+                .description("Number of stock holds expired by the sweeper")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Expires all currently due holds, one batch at a time.
+     */
+    @Scheduled(fixedDelayString = "${product.hold.sweep-interval:5s}")
+    public void sweep() {
+        int expired;
+        do {
+            expired = stockHoldService.expireHolds(batchSize);
+            expiredCounter.increment(expired);
+        } while (expired == batchSize);
+    }
+}
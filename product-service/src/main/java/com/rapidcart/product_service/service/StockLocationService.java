@@ -0,0 +1,105 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.dto.StockLocationResponseDto;
+import com.rapidcart.product_service.entity.ProductInventory;
+import com.rapidcart.product_service.exception.InsufficientStockException;
+import com.rapidcart.product_service.exception.ResourceNotFoundException;
+import com.rapidcart.product_service.repository.ProductInventoryRepository;
+import com.rapidcart.product_service.repository.StockLocationView;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service layer for the stock a product holds at each location.
+ *
+ * <p>A location's stock is spread evenly over one or more buckets, so that concurrent orders
+ * for a hot product update different rows; see {@link ProductInventory} and
+ * {@link StockAllocator}. Setting the stock of a location locks all of the product's buckets,
+ * so it never races with orders, holds or other stock changes.</p>
+ */
+@Service
+@Transactional
+public class StockLocationService {
+
+    @Autowired
+    private ProductInventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockAllocator stockAllocator;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductEventPublisher productEventPublisher;
+
+    @Autowired
+    private RowLockTimeout rowLockTimeout;
+
+    /**
+     * Lists the stock of a product at each of its locations.
+     *
+     * @param productId the product ID
+     * @return the stock per location, ordered by location ID
+     * @throws ResourceNotFoundException if the product does not exist
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public List<StockLocationResponseDto> getLocations(Long productId) {
+        List<StockLocationView> locations = inventoryRepository.findLocationLevelsByProductId(productId);
+        if (locations.isEmpty()) {
+            throw new ResourceNotFoundException("Product with ID " + productId + " not found");
+        }
+        return locations.stream()
+                .map(location -> mapToResponseDto(productId, location))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Sets the stock of a product at a location, adding the location if it is new.
+     *
+     * @param productId  the product ID
+     * @param locationId the location ID
+     * @param stock      the number of units on hand at the location
+     * @param buckets    the number of buckets to spread the stock over, or {@code null} to keep
+     *                   the current number; buckets can be added but not removed
+     * @return the location's stock after the change
+     * @throws ResourceNotFoundException  if the product does not exist
+     * @throws InsufficientStockException if {@code stock} is below the units on hold at the location
+     */
+    public StockLocationResponseDto setLocationStock(Long productId, String locationId, Integer stock, Integer buckets) {
+        List<ProductInventory> productBuckets =
+                rowLockTimeout.lock(() -> inventoryRepository.findByProductIdForUpdate(productId));
+        if (productBuckets.isEmpty()) {
+            throw new ResourceNotFoundException("Product with ID " + productId + " not found");
+        }
+
+        List<ProductInventory> location = stockAllocator.setLocationStock(productId, productBuckets, locationId, stock, buckets);
+        productCache.evictAfterCommit(productId);
+        productEventPublisher.stockChangedAfterCommit(productId);
+
+        int reserved = location.stream().mapToInt(ProductInventory::getReservedStock).sum();
+        return StockLocationResponseDto.builder()
+                .productId(productId)
+                .locationId(locationId)
+                .stock(stock)
+                .reservedStock(reserved)
+                .availableStock(stock - reserved)
+                .buckets(location.size())
+                .build();
+    }
+
+    private StockLocationResponseDto mapToResponseDto(Long productId, StockLocationView location) {
+        return StockLocationResponseDto.builder()
+                .productId(productId)
+                .locationId(location.getLocationId())
+                .stock(location.getStock())
+                .reservedStock(location.getReservedStock())
+                .availableStock(location.getStock() - location.getReservedStock())
+                .buckets(location.getBuckets())
+                .build();
+    }
+}
@@ -3,7 +3,10 @@ package com.rapidcart.product_service.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rapidcart.product_service.dto.ProductRequestDto;
 import com.rapidcart.product_service.entity.Product;
+import com.rapidcart.product_service.entity.ProductInventory;
+import com.rapidcart.product_service.repository.ProductInventoryRepository;
 import com.rapidcart.product_service.repository.ProductRepository;
+import com.rapidcart.product_service.service.ProductSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,10 +15,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -29,22 +34,28 @@ public class TestProductController {
     @Autowired
     private ProductRepository repository;
 
+    @Autowired
+    private ProductInventoryRepository inventoryRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
     private Product testProduct;
     private ProductRequestDto testProductDto;
 
     @BeforeEach
     void setUpDatabase() throws Exception {
         repository.deleteAll();
+        productSearchIndex.rebuild();
 
         // Create test data
         testProduct = Product.builder()
                 .name("Test Product")
                 .sku("TEST-001")
                 .price(new BigDecimal("99.99"))
-                .stock(50)
                 .activeStatus(true)
                 .build();
 
@@ -104,14 +115,13 @@ public class TestProductController {
     @Test
     void shouldGetAllProductsSuccessfully() throws Exception {
         // Save test products
-        Product product1 = repository.save(testProduct);
-        Product product2 = repository.save(Product.builder()
+        Product product1 = saveWithStock(testProduct, 50);
+        Product product2 = saveWithStock(Product.builder()
                 .name("Second Product")
                 .sku("TEST-002")
                 .price(new BigDecimal("149.99"))
-                .stock(30)
                 .activeStatus(true)
-                .build());
+                .build(), 30);
 
         mockMvc.perform(get("/api/products"))
                 .andExpect(status().isOk())
@@ -126,13 +136,12 @@ public class TestProductController {
     void shouldGetAllProductsWithPaginationAndSorting() throws Exception {
         // Save multiple test products
         for (int i = 1; i <= 5; i++) {
-            repository.save(Product.builder()
+            saveWithStock(Product.builder()
                     .name("Product " + i)
                     .sku("SKU-" + String.format("%03d", i))
                     .price(new BigDecimal("100.00").add(new BigDecimal(i)))
-                    .stock(10 + i)
                     .activeStatus(true)
-                    .build());
+                    .build(), 10 + i);
         }
 
         // Test pagination and sorting
@@ -145,9 +154,346 @@ public class TestProductController {
                 .andExpect(jsonPath("$", hasSize(3)));
     }
 
+    @Test
+    void shouldScrollThroughProductsWithCursor() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            saveWithStock(Product.builder()
+                    .name("Product " + i)
+                    .sku("SKU-" + String.format("%03d", i))
+                    .price(new BigDecimal("100.00"))
+                    .activeStatus(true)
+                    .build(), 10);
+        }
+
+        String firstPage = mockMvc.perform(get("/api/products/scroll")
+                .param("size", "2")
+                .param("sortBy", "name")
+                .param("sortDir", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products", hasSize(2)))
+                .andExpect(jsonPath("$.products[0].name").value("Product 5"))
+                .andExpect(jsonPath("$.products[1].name").value("Product 4"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        String secondPage = mockMvc.perform(get("/api/products/scroll")
+                .param("size", "2")
+                .param("sortBy", "name")
+                .param("sortDir", "desc")
+                .param("cursor", objectMapper.readTree(firstPage).get("nextCursor").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].name").value("Product 3"))
+                .andExpect(jsonPath("$.products[1].name").value("Product 2"))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/products/scroll")
+                .param("size", "2")
+                .param("sortBy", "name")
+                .param("sortDir", "desc")
+                .param("cursor", objectMapper.readTree(secondPage).get("nextCursor").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products", hasSize(1)))
+                .andExpect(jsonPath("$.products[0].name").value("Product 1"))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void shouldScrollByPriceWithTiesBrokenById() throws Exception {
+        Product first = saveWithStock(testProduct, 50);
+        Product second = saveWithStock(Product.builder()
+                .name("Same Price")
+                .sku("TEST-002")
+                .price(new BigDecimal("99.99"))
+                .activeStatus(true)
+                .build(), 5);
+
+        String firstPage = mockMvc.perform(get("/api/products/scroll")
+                .param("size", "1")
+                .param("sortBy", "price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].id").value(first.getId()))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/products/scroll")
+                .param("size", "1")
+                .param("sortBy", "price")
+                .param("cursor", objectMapper.readTree(firstPage).get("nextCursor").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].id").value(second.getId()));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenListingWithUnknownSortField() throws Exception {
+        mockMvc.perform(get("/api/products")
+                .param("sortBy", "activeStatus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Cannot sort products by 'activeStatus'")));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenScrollingWithInvalidSortOrCursor() throws Exception {
+        mockMvc.perform(get("/api/products/scroll")
+                .param("sortBy", "stock"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/products/scroll")
+                .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldSearchProductsByNamePrefixAndSkuPrefix() throws Exception {
+        createProduct("Wireless Headphones", "WH-1000XM5");
+        createProduct("Wired Earbuds", "EB-200");
+        createProduct("Wireless Mouse", "WH-MOUSE");
+
+        mockMvc.perform(get("/api/products/search").param("q", "wirel"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].name", containsInAnyOrder("Wireless Headphones", "Wireless Mouse")));
+
+        mockMvc.perform(get("/api/products/search").param("q", "wireless head"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].sku").value("WH-1000XM5"))
+                .andExpect(jsonPath("$[0].price").value(199.99));
+
+        mockMvc.perform(get("/api/products/search").param("q", "wh-").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].sku").value("WH-1000XM5"));
+    }
+
+    @Test
+    void shouldReflectUpdatesAndDeletesInSearchResults() throws Exception {
+        Long id = createProduct("Wireless Headphones", "WH-1000XM5");
+
+        testProductDto.setName("Studio Monitor");
+        testProductDto.setSku("SM-5");
+        mockMvc.perform(put("/api/products/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testProductDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/search").param("q", "wireless"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/products/search").param("q", "studio"))
+                .andExpect(jsonPath("$[0].id").value(id));
+
+        mockMvc.perform(delete("/api/products/{id}", id))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/products/search").param("q", "studio"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenSearchQueryIsBlank() throws Exception {
+        mockMvc.perform(get("/api/products/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldExportProductsAsNdjson() throws Exception {
+        Product savedProduct = saveWithStock(testProduct, 50);
+
+        MvcResult result = mockMvc.perform(get("/api/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":" + savedProduct.getId()
+                        + ",\"name\":\"Test Product\",\"sku\":\"TEST-001\",\"price\":99.99,\"stock\":50,"
+                        + "\"activeStatus\":true,\"version\":0}\n"));
+    }
+
+    @Test
+    void shouldExportProductsAsCsv() throws Exception {
+        testProduct.setName("Cable, USB-C");
+        Product savedProduct = saveWithStock(testProduct, 50);
+
+        MvcResult result = mockMvc.perform(get("/api/products/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string("id,name,sku,price,stock,activeStatus,version\n"
+                        + savedProduct.getId() + ",\"Cable, USB-C\",TEST-001,99.99,50,true,0\n"));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenExportFormatIsUnsupported() throws Exception {
+        mockMvc.perform(get("/api/products/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldImportProductsFromCsvAndReportInvalidRows() throws Exception {
+        String csv = "name,sku,price,stock\n"
+                + "\"Cable, USB-C\",CSV-001,9.99,100\n"
+                + "Broken,CSV-002,-1,5\n"
+                + "Adapter,CSV-003,14.50,0\n";
+
+        mockMvc.perform(post("/api/products/import")
+                .param("format", "csv")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(3))
+                .andExpect(jsonPath("$.importedRows").value(2))
+                .andExpect(jsonPath("$.failedRows").value(1))
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].sku").value("CSV-002"))
+                .andExpect(jsonPath("$.errors[0].messages[0]").value("price: Price must be positive"))
+                .andExpect(jsonPath("$.errorsTruncated").value(false));
+
+        assertEquals(2, repository.count());
+    }
+
+    @Test
+    void shouldUpsertExistingProductsBySkuWhenImportingNdjson() throws Exception {
+        Product savedProduct = saveWithStock(testProduct, 50);
+
+        // Load the product into the cache so the import has to invalidate it
+        mockMvc.perform(get("/api/products/{id}", savedProduct.getId()))
+                .andExpect(jsonPath("$.stock").value(50));
+
+        String ndjson = "{\"name\":\"Renamed Product\",\"sku\":\"TEST-001\",\"price\":89.99,\"stock\":75}\n"
+                + "{\"name\":\"Imported Product\",\"sku\":\"NDJSON-001\",\"price\":5.00,\"stock\":10,\"activeStatus\":false}\n"
+                + "not json\n";
+
+        mockMvc.perform(post("/api/products/import")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(3))
+                .andExpect(jsonPath("$.importedRows").value(2))
+                .andExpect(jsonPath("$.failedRows").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+
+        mockMvc.perform(get("/api/products/{id}", savedProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed Product"))
+                .andExpect(jsonPath("$.stock").value(75))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenImportCsvHeaderIsIncomplete() throws Exception {
+        mockMvc.perform(post("/api/products/import")
+                .param("format", "csv")
+                .contentType("text/csv")
+                .content("name,sku,price\nWidget,W-1,1.00\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenETagMatches() throws Exception {
+        Product savedProduct = saveWithStock(testProduct, 50);
+        String eTag = "\"" + savedProduct.getId() + "-0.0\"";
+
+        mockMvc.perform(get("/api/products/{id}", savedProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+
+        mockMvc.perform(get("/api/products/{id}", savedProduct.getId())
+                .header("If-None-Match", "\"other\", " + eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(put("/api/products/{id}", savedProduct.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testProductDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + savedProduct.getId() + "-1.1\""));
+
+        mockMvc.perform(get("/api/products/{id}", savedProduct.getId())
+                .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("New Product"));
+    }
+
+    @Test
+    void shouldReturnNotFoundForConditionalGetOfNonExistentProduct() throws Exception {
+        mockMvc.perform(get("/api/products/{id}", 999L)
+                .header("If-None-Match", "\"999-0\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldUpdateOnlyWhenIfMatchIsCurrent() throws Exception {
+        Product savedProduct = saveWithStock(testProduct, 50);
+        String currentETag = "\"" + savedProduct.getId() + "-0.0\"";
+
+        mockMvc.perform(put("/api/products/{id}", savedProduct.getId())
+                .header("If-Match", currentETag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testProductDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+
+        // The same tag is now stale
+        mockMvc.perform(put("/api/products/{id}", savedProduct.getId())
+                .header("If-Match", currentETag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testProductDto)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/api/products/{id}", savedProduct.getId())
+                .header("If-Match", "W/\"" + savedProduct.getId() + "-1.1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testProductDto)))
+                .andExpect(status().isPreconditionFailed());
+
+        testProductDto.setName("Renamed Product");
+        mockMvc.perform(put("/api/products/{id}", savedProduct.getId())
+                .header("If-Match", "*")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testProductDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(2));
+    }
+
+    @Test
+    void shouldVersionStockSeparatelyFromCatalog() throws Exception {
+        Product savedProduct = saveWithStock(testProduct, 50);
+        ProductRequestDto restock = ProductRequestDto.builder()
+                .name(testProduct.getName())
+                .sku(testProduct.getSku())
+                .price(testProduct.getPrice())
+                .stock(80)
+                .activeStatus(true)
+                .build();
+
+        mockMvc.perform(put("/api/products/{id}", savedProduct.getId())
+                .header("If-Match", "\"" + savedProduct.getId() + "-0.0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(restock)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(80))
+                .andExpect(jsonPath("$.version").value(0))
+                .andExpect(jsonPath("$.inventoryVersion").value(1))
+                .andExpect(header().string("ETag", "\"" + savedProduct.getId() + "-0.1\""));
+
+        // A stock change alone still invalidates earlier tags
+        mockMvc.perform(put("/api/products/{id}", savedProduct.getId())
+                .header("If-Match", "\"" + savedProduct.getId() + "-0.0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(restock)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void shouldGetProductByIdSuccessfully() throws Exception {
-        Product savedProduct = repository.save(testProduct);
+        Product savedProduct = saveWithStock(testProduct, 50);
 
         mockMvc.perform(get("/api/products/{id}", savedProduct.getId()))
                 .andExpect(status().isOk())
@@ -159,6 +505,47 @@ public class TestProductController {
                 .andExpect(jsonPath("$.activeStatus").value(true));
     }
 
+    @Test
+    void shouldGetProductsInBatchPreservingRequestOrder() throws Exception {
+        Product first = saveWithStock(testProduct, 50);
+        Product second = saveWithStock(Product.builder()
+                .name("Second Product")
+                .sku("TEST-002")
+                .price(new BigDecimal("149.99"))
+                .activeStatus(true)
+                .build(), 30);
+
+        mockMvc.perform(get("/api/products/batch")
+                .param("ids", second.getId() + "," + 999 + "," + first.getId() + "," + second.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products", hasSize(2)))
+                .andExpect(jsonPath("$.products[0].id").value(second.getId()))
+                .andExpect(jsonPath("$.products[1].id").value(first.getId()))
+                .andExpect(jsonPath("$.missingIds", hasSize(1)))
+                .andExpect(jsonPath("$.missingIds[0]").value(999));
+    }
+
+    @Test
+    void shouldGetProductsInBatchFromRequestBody() throws Exception {
+        Product savedProduct = saveWithStock(testProduct, 50);
+
+        mockMvc.perform(post("/api/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [" + savedProduct.getId() + ", 999]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products", hasSize(1)))
+                .andExpect(jsonPath("$.products[0].name").value("Test Product"))
+                .andExpect(jsonPath("$.missingIds[0]").value(999));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenBatchRequestHasNoIds() throws Exception {
+        mockMvc.perform(post("/api/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldReturnNotFoundWhenGettingNonExistentProduct() throws Exception {
         mockMvc.perform(get("/api/products/{id}", 999L))
@@ -167,7 +554,7 @@ public class TestProductController {
 
     @Test
     void shouldUpdateProductSuccessfully() throws Exception {
-        Product savedProduct = repository.save(testProduct);
+        Product savedProduct = saveWithStock(testProduct, 50);
 
         ProductRequestDto updateDto = ProductRequestDto.builder()
                 .name("Updated Product")
@@ -189,6 +576,34 @@ public class TestProductController {
                 .andExpect(jsonPath("$.activeStatus").value(false));
     }
 
+    @Test
+    void shouldNotServeStaleCachedProductAfterUpdateOrStockChange() throws Exception {
+        Product savedProduct = saveWithStock(testProduct, 50);
+
+        // Warm the cache
+        mockMvc.perform(get("/api/products/{id}", savedProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Test Product"));
+
+        mockMvc.perform(put("/api/products/{id}", savedProduct.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testProductDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/{id}", savedProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("New Product"))
+                .andExpect(jsonPath("$.stock").value(25));
+
+        mockMvc.perform(put("/api/products/{id}/reduce-stock", savedProduct.getId())
+                .param("quantity", "5"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/{id}", savedProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(20));
+    }
+
     @Test
     void shouldReturnNotFoundWhenUpdatingNonExistentProduct() throws Exception {
         mockMvc.perform(put("/api/products/{id}", 999L)
@@ -199,7 +614,7 @@ public class TestProductController {
 
     @Test
     void shouldReturnBadRequestWhenUpdatingWithInvalidData() throws Exception {
-        Product savedProduct = repository.save(testProduct);
+        Product savedProduct = saveWithStock(testProduct, 50);
 
         ProductRequestDto invalidUpdate = ProductRequestDto.builder()
                 .name("") // Invalid: blank name
@@ -216,7 +631,7 @@ public class TestProductController {
 
     @Test
     void shouldDeleteProductSuccessfully() throws Exception {
-        Product savedProduct = repository.save(testProduct);
+        Product savedProduct = saveWithStock(testProduct, 50);
 
         mockMvc.perform(delete("/api/products/{id}", savedProduct.getId()))
                 .andExpect(status().isNoContent());
@@ -235,7 +650,7 @@ public class TestProductController {
 
     @Test
     void shouldCheckStockSuccessfully() throws Exception {
-        Product savedProduct = repository.save(testProduct);
+        Product savedProduct = saveWithStock(testProduct, 50);
 
         mockMvc.perform(get("/api/products/{id}/stock", savedProduct.getId())
                 .param("quantity", "10"))
@@ -248,7 +663,7 @@ public class TestProductController {
 
     @Test
     void shouldReturnFalseWhenCheckingStockForInsufficientQuantity() throws Exception {
-        Product savedProduct = repository.save(testProduct);
+        Product savedProduct = saveWithStock(testProduct, 50);
 
         mockMvc.perform(get("/api/products/{id}/stock", savedProduct.getId())
                 .param("quantity", "100"))
@@ -261,7 +676,7 @@ public class TestProductController {
 
     @Test
     void shouldReturnBadRequestWhenCheckingStockWithInvalidQuantity() throws Exception {
-        Product savedProduct = repository.save(testProduct);
+        Product savedProduct = saveWithStock(testProduct, 50);
 
         mockMvc.perform(get("/api/products/{id}/stock", savedProduct.getId())
                 .param("quantity", "0"))
@@ -277,12 +692,13 @@ public class TestProductController {
 
     @Test
     void shouldReduceStockSuccessfully() throws Exception {
-        Product savedProduct = repository.save(testProduct);
+        Product savedProduct = saveWithStock(testProduct, 50);
 
         mockMvc.perform(put("/api/products/{id}/reduce-stock", savedProduct.getId())
                 .param("quantity", "10"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.message").value("Stock reduced successfully"));
+                .andExpect(jsonPath("$.message").value("Stock reduced successfully"))
+                .andExpect(jsonPath("$.remainingStock").value(40));
 
         // Verify stock was reduced
         mockMvc.perform(get("/api/products/{id}", savedProduct.getId()))
@@ -292,7 +708,7 @@ public class TestProductController {
 
     @Test
     void shouldReturnConflictWhenReducingStockWithInsufficientQuantity() throws Exception {
-        Product savedProduct = repository.save(testProduct);
+        Product savedProduct = saveWithStock(testProduct, 50);
 
         mockMvc.perform(put("/api/products/{id}/reduce-stock", savedProduct.getId())
                 .param("quantity", "100"))
@@ -302,7 +718,7 @@ public class TestProductController {
 
     @Test
     void shouldReturnBadRequestWhenReducingStockWithInvalidQuantity() throws Exception {
-        Product savedProduct = repository.save(testProduct);
+        Product savedProduct = saveWithStock(testProduct, 50);
 
         mockMvc.perform(put("/api/products/{id}/reduce-stock", savedProduct.getId())
                 .param("quantity", "0"))
@@ -318,7 +734,7 @@ public class TestProductController {
 
     @Test
     void shouldHandleConcurrentStockReduction() throws Exception {
-        Product savedProduct = repository.save(testProduct);
+        Product savedProduct = saveWithStock(testProduct, 50);
 
         // Simulate concurrent stock reductions
         mockMvc.perform(put("/api/products/{id}/reduce-stock", savedProduct.getId())
@@ -340,6 +756,109 @@ public class TestProductController {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    void shouldReserveStockAndReturnPricingSuccessfully() throws Exception {
+        Product savedProduct = saveWithStock(testProduct, 50);
+
+        mockMvc.perform(put("/api/products/{id}/reserve-stock", savedProduct.getId())
+                .param("quantity", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productId").value(savedProduct.getId()))
+                .andExpect(jsonPath("$.name").value("Test Product"))
+                .andExpect(jsonPath("$.price").value(99.99))
+                // Stock lives in product_inventory, so the catalog version the price belongs to is unchanged
+                .andExpect(jsonPath("$.version").value(savedProduct.getVersion()))
+                .andExpect(jsonPath("$.reservedQuantity").value(5))
+                .andExpect(jsonPath("$.remainingStock").value(45));
+    }
+
+    @Test
+    void shouldReturnConflictWhenReservingMoreThanAvailableStock() throws Exception {
+        Product savedProduct = saveWithStock(testProduct, 50);
+
+        mockMvc.perform(put("/api/products/{id}/reserve-stock", savedProduct.getId())
+                .param("quantity", "51"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Insufficient stock"));
+
+        mockMvc.perform(get("/api/products/{id}", savedProduct.getId()))
+                .andExpect(jsonPath("$.stock").value(50));
+    }
+
+    @Test
+    void shouldReturnUnprocessableEntityWhenReservingInactiveProduct() throws Exception {
+        testProduct.setActiveStatus(false);
+        Product savedProduct = saveWithStock(testProduct, 50);
+
+        mockMvc.perform(put("/api/products/{id}/reserve-stock", savedProduct.getId())
+                .param("quantity", "1"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error").value("Product unavailable"));
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenReservingNonExistentProduct() throws Exception {
+        mockMvc.perform(put("/api/products/{id}/reserve-stock", 999L)
+                .param("quantity", "1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReserveStockForSeveralProductsInOneRequest() throws Exception {
+        Product first = saveWithStock(testProduct, 50);
+        Product second = saveWithStock(Product.builder()
+                .name("Second Product")
+                .sku("TEST-002")
+                .price(new BigDecimal("149.99"))
+                .activeStatus(true)
+                .build(), 30);
+
+        mockMvc.perform(put("/api/products/reserve-stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lines\":[{\"productId\":" + second.getId() + ",\"quantity\":3},"
+                        + "{\"productId\":" + first.getId() + ",\"quantity\":5},"
+                        + "{\"productId\":" + second.getId() + ",\"quantity\":1}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservations", hasSize(2)))
+                .andExpect(jsonPath("$.reservations[0].productId").value(second.getId()))
+                .andExpect(jsonPath("$.reservations[0].name").value("Second Product"))
+                .andExpect(jsonPath("$.reservations[0].reservedQuantity").value(4))
+                .andExpect(jsonPath("$.reservations[0].remainingStock").value(26))
+                .andExpect(jsonPath("$.reservations[1].productId").value(first.getId()))
+                .andExpect(jsonPath("$.reservations[1].price").value(99.99))
+                .andExpect(jsonPath("$.reservations[1].reservedQuantity").value(5))
+                .andExpect(jsonPath("$.reservations[1].remainingStock").value(45));
+    }
+
+    @Test
+    void shouldReserveNothingWhenAnyLineCannotBeReserved() throws Exception {
+        Product first = saveWithStock(testProduct, 50);
+        Product second = saveWithStock(Product.builder()
+                .name("Second Product")
+                .sku("TEST-002")
+                .price(new BigDecimal("149.99"))
+                .activeStatus(true)
+                .build(), 30);
+
+        mockMvc.perform(put("/api/products/reserve-stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lines\":[{\"productId\":" + first.getId() + ",\"quantity\":5},"
+                        + "{\"productId\":" + second.getId() + ",\"quantity\":31}]}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value(containsString(String.valueOf(second.getId()))));
+
+        // The first line was reserved before the second failed, and has been rolled back
+        mockMvc.perform(get("/api/products/{id}", first.getId()))
+                .andExpect(jsonPath("$.stock").value(50));
+        mockMvc.perform(get("/api/products/{id}", second.getId()))
+                .andExpect(jsonPath("$.stock").value(30));
+
+        mockMvc.perform(put("/api/products/reserve-stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lines\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldCreateMultipleProductsWithUniqueSkus() throws Exception {
         // Create first product
@@ -377,4 +896,228 @@ public class TestProductController {
                 .param("size", "0"))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void shouldPlaceHoldAndReduceAvailableStock() throws Exception {
+        Product savedProduct = saveWithStock(testProduct, 50);
+
+        mockMvc.perform(post("/api/products/{id}/holds", savedProduct.getId())
+                .param("quantity", "20")
+                .param("ttlSeconds", "600"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").exists())
+                .andExpect(jsonPath("$.productId").value(savedProduct.getId()))
+                .andExpect(jsonPath("$.quantity").value(20))
+                .andExpect(jsonPath("$.status").value("ACTIVE"))
+                .andExpect(jsonPath("$.expiresAt").exists());
+
+        mockMvc.perform(get("/api/products/{id}", savedProduct.getId()))
+                .andExpect(jsonPath("$.stock").value(50))
+                .andExpect(jsonPath("$.availableStock").value(30));
+
+        mockMvc.perform(get("/api/products/{id}/stock", savedProduct.getId())
+                .param("quantity", "40"))
+                .andExpect(jsonPath("$.hasStock").value(false));
+    }
+
+    @Test
+    void shouldCommitHoldAndDeductStockOnce() throws Exception {
+        Product savedProduct = saveWithStock(testProduct, 50);
+        Long holdId = placeHold(savedProduct.getId(), 20);
+
+        mockMvc.perform(post("/api/products/holds/{holdId}/commit", holdId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMMITTED"));
+
+        mockMvc.perform(get("/api/products/{id}", savedProduct.getId()))
+                .andExpect(jsonPath("$.stock").value(30))
+                .andExpect(jsonPath("$.availableStock").value(30));
+
+        mockMvc.perform(post("/api/products/holds/{holdId}/commit", holdId))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Stock hold " + holdId + " is COMMITTED"));
+        mockMvc.perform(post("/api/products/holds/{holdId}/release", holdId))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shouldReleaseHoldAndRestoreAvailableStock() throws Exception {
+        Product savedProduct = saveWithStock(testProduct, 50);
+        Long holdId = placeHold(savedProduct.getId(), 20);
+
+        mockMvc.perform(post("/api/products/holds/{holdId}/release", holdId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RELEASED"));
+
+        mockMvc.perform(get("/api/products/{id}", savedProduct.getId()))
+                .andExpect(jsonPath("$.stock").value(50))
+                .andExpect(jsonPath("$.availableStock").value(50));
+
+        mockMvc.perform(get("/api/products/holds/{holdId}", holdId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RELEASED"));
+    }
+
+    @Test
+    void shouldNotSellOrHoldStockThatIsAlreadyHeld() throws Exception {
+        Product savedProduct = saveWithStock(testProduct, 50);
+        placeHold(savedProduct.getId(), 40);
+
+        mockMvc.perform(post("/api/products/{id}/holds", savedProduct.getId())
+                .param("quantity", "11"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(put("/api/products/{id}/reserve-stock", savedProduct.getId())
+                .param("quantity", "11"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(put("/api/products/{id}/reserve-stock", savedProduct.getId())
+                .param("quantity", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.remainingStock").value(40));
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenHoldDoesNotExist() throws Exception {
+        mockMvc.perform(post("/api/products/holds/{holdId}/commit", 999L))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/products/{id}/holds", 999L).param("quantity", "1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReserveFromOneLocationAndSplitOnlyWhenNeeded() throws Exception {
+        Product savedProduct = saveWithStock(testProduct, 50);
+
+        mockMvc.perform(put("/api/products/{id}/locations/{locationId}", savedProduct.getId(), "EAST")
+                .param("stock", "30")
+                .param("buckets", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(30))
+                .andExpect(jsonPath("$.availableStock").value(30))
+                .andExpect(jsonPath("$.buckets").value(4));
+
+        mockMvc.perform(get("/api/products/{id}", savedProduct.getId()))
+                .andExpect(jsonPath("$.stock").value(80));
+
+        // MAIN has the most stock and covers the order alone
+        mockMvc.perform(put("/api/products/{id}/reserve-stock", savedProduct.getId())
+                .param("quantity", "40"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.allocations", hasSize(1)))
+                .andExpect(jsonPath("$.allocations[0].locationId").value("MAIN"))
+                .andExpect(jsonPath("$.allocations[0].quantity").value(40));
+
+        // Neither location covers 35 units, so the fuller one gives all it has
+        mockMvc.perform(put("/api/products/{id}/reserve-stock", savedProduct.getId())
+                .param("quantity", "35"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.remainingStock").value(5))
+                .andExpect(jsonPath("$.allocations", hasSize(2)))
+                .andExpect(jsonPath("$.allocations[0].locationId").value("EAST"))
+                .andExpect(jsonPath("$.allocations[0].quantity").value(30))
+                .andExpect(jsonPath("$.allocations[1].locationId").value("MAIN"))
+                .andExpect(jsonPath("$.allocations[1].quantity").value(5));
+
+        mockMvc.perform(get("/api/products/{id}/locations", savedProduct.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].locationId").value("EAST"))
+                .andExpect(jsonPath("$[0].stock").value(0))
+                .andExpect(jsonPath("$[0].buckets").value(4))
+                .andExpect(jsonPath("$[1].locationId").value("MAIN"))
+                .andExpect(jsonPath("$[1].stock").value(5));
+
+        mockMvc.perform(put("/api/products/{id}/reserve-stock", savedProduct.getId())
+                .param("quantity", "6"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shouldReturnHeldUnitsToTheLocationsTheyCameFrom() throws Exception {
+        Product savedProduct = saveWithStock(testProduct, 5);
+        mockMvc.perform(put("/api/products/{id}/locations/{locationId}", savedProduct.getId(), "EAST")
+                .param("stock", "10")
+                .param("buckets", "2"))
+                .andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(post("/api/products/{id}/holds", savedProduct.getId())
+                .param("quantity", "12"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.allocations", hasSize(2)))
+                .andExpect(jsonPath("$.allocations[0].locationId").value("EAST"))
+                .andExpect(jsonPath("$.allocations[0].quantity").value(10))
+                .andExpect(jsonPath("$.allocations[1].locationId").value("MAIN"))
+                .andExpect(jsonPath("$.allocations[1].quantity").value(2))
+                .andReturn();
+        Long holdId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(put("/api/products/{id}/locations/{locationId}", savedProduct.getId(), "EAST")
+                .param("stock", "9"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(post("/api/products/holds/{holdId}/release", holdId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/{id}/locations", savedProduct.getId()))
+                .andExpect(jsonPath("$[0].locationId").value("EAST"))
+                .andExpect(jsonPath("$[0].availableStock").value(10))
+                .andExpect(jsonPath("$[1].locationId").value("MAIN"))
+                .andExpect(jsonPath("$[1].availableStock").value(5));
+    }
+
+    @Test
+    void shouldReturnUnsoldUnitsToStock() throws Exception {
+        Product savedProduct = saveWithStock(testProduct, 50);
+
+        mockMvc.perform(put("/api/products/{id}/reserve-stock", savedProduct.getId())
+                .param("quantity", "20"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/products/{id}/return-stock", savedProduct.getId())
+                .param("quantity", "15"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(45));
+
+        mockMvc.perform(get("/api/products/{id}", savedProduct.getId()))
+                .andExpect(jsonPath("$.stock").value(45));
+
+        mockMvc.perform(put("/api/products/{id}/return-stock", 999L)
+                .param("quantity", "1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReturnNotFoundForLocationsOfNonExistentProduct() throws Exception {
+        mockMvc.perform(get("/api/products/{id}/locations", 999L))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put("/api/products/{id}/locations/{locationId}", 999L, "EAST")
+                .param("stock", "1"))
+                .andExpect(status().isNotFound());
+    }
+
+    private Long createProduct(String name, String sku) throws Exception {
+        testProductDto.setName(name);
+        testProductDto.setSku(sku);
+        MvcResult result = mockMvc.perform(post("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testProductDto)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private Long placeHold(Long productId, int quantity) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/products/{id}/holds", productId)
+                .param("quantity", String.valueOf(quantity)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private Product saveWithStock(Product product, int stock) {
+        Product saved = repository.save(product);
+        inventoryRepository.save(ProductInventory.builder().productId(saved.getId()).stock(stock).build());
+        return saved;
+    }
 }
@@ -0,0 +1,111 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.dto.StockAvailabilityResponseDto;
+import com.rapidcart.product_service.entity.Product;
+import com.rapidcart.product_service.entity.ProductInventory;
+import com.rapidcart.product_service.repository.ProductInventoryRepository;
+import com.rapidcart.product_service.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-call cost benchmark for {@link ProductAvailabilityService}.
+ *
+ * <p>Compares the availability check with the previous read path, which loaded the product
+ * entity twice in a read-write transaction, and verifies the JDBC statements, entity loads
+ * and flushes per call of each. The hold sweeper is disabled so that its statements are not
+ * counted.</p>
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "product.hold.sweeper.enabled=false"
+})
+@ActiveProfiles("test")
+public class ProductAvailabilityBenchmarkTest {
+
+    private static final int ITERATIONS = 2_000;
+
+    @Autowired
+    private ProductAvailabilityService productAvailabilityService;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductInventoryRepository inventoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        product = repository.save(Product.builder()
+                .name("Availability Product")
+                .sku("AVAIL-001")
+                .price(new BigDecimal("9.99"))
+                .activeStatus(true)
+                .build());
+        inventoryRepository.save(ProductInventory.builder().productId(product.getId()).stock(50).build());
+    }
+
+    @Test
+    void shouldCheckAvailabilityWithOneStatementAndNoFlush() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        Long id = product.getId();
+
+        Cost before = measure(() -> readWrite.execute(status -> {
+            Product loaded = repository.findById(id).orElseThrow();
+            // The previous path read the stock a second time through hasStock
+            return inventoryRepository.findStockByProductId(id).orElseThrow() >= 10 && loaded.getActiveStatus();
+        }));
+        Cost after = measure(() -> productAvailabilityService.checkAvailability(id, 10));
+
+        StockAvailabilityResponseDto availability = productAvailabilityService.checkAvailability(id, 10);
+        assertTrue(availability.getHasStock());
+        assertEquals(50, availability.getAvailableStock());
+
+        assertEquals(1.0, after.statements);
+        assertEquals(0.0, after.entityLoads);
+        assertEquals(0.0, after.flushes);
+        assertTrue(before.entityLoads > 0);
+    }
+
+    private Cost measure(Runnable call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            call.run();
+        }
+
+        statistics.clear();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.run();
+        }
+
+        return new Cost(
+                (double) statistics.getPrepareStatementCount() / ITERATIONS,
+                (double) statistics.getEntityLoadCount() / ITERATIONS,
+                (double) statistics.getFlushCount() / ITERATIONS);
+    }
+
+    private record Cost(double statements, double entityLoads, double flushes) {
+    }
+}
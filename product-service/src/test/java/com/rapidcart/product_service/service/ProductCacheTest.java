@@ -0,0 +1,82 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.dto.ProductResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link ProductCache}: a read model loaded before a write commits is never put
+ * back after the write's eviction, and an older read model never replaces a newer one.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProductCacheTest {
+
+    private static final Long PRODUCT_ID = 4_242L;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        productCache.invalidateAll();
+    }
+
+    @Test
+    void loadStartedBeforeACommittedWriteShouldNotBeCached() {
+        // A reader takes the generation and loads the pre-commit row...
+        long generation = productCache.generation(PRODUCT_ID);
+        ProductResponseDto preCommit = product(1, 1);
+
+        // ...while a writer commits and evicts the product...
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> productCache.evictAfterCommit(PRODUCT_ID));
+
+        // ...so the reader's put lands after the eviction and must be dropped
+        productCache.put(preCommit, generation);
+        assertTrue(productCache.get(PRODUCT_ID).isEmpty());
+
+        ProductResponseDto postCommit = product(2, 1);
+        productCache.put(postCommit, productCache.generation(PRODUCT_ID));
+        assertEquals(postCommit, productCache.get(PRODUCT_ID).orElseThrow());
+    }
+
+    @Test
+    void olderReadModelShouldNotReplaceNewerOne() {
+        long generation = productCache.generation(PRODUCT_ID);
+        ProductResponseDto newer = product(2, 5);
+
+        productCache.put(newer, generation);
+        productCache.put(product(2, 4), generation);
+        productCache.put(product(1, 5), generation);
+
+        assertEquals(newer, productCache.get(PRODUCT_ID).orElseThrow());
+    }
+
+    private static ProductResponseDto product(int version, int inventoryVersion) {
+        return ProductResponseDto.builder()
+                .id(PRODUCT_ID)
+                .name("Cached Product")
+                .sku("CACHE-001")
+                .price(new BigDecimal("10.00"))
+                .stock(10)
+                .availableStock(10)
+                .activeStatus(true)
+                .version(version)
+                .inventoryVersion(inventoryVersion)
+                .build();
+    }
+}
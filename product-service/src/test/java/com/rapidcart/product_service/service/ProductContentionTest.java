@@ -0,0 +1,153 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.dto.ProductRequestDto;
+import com.rapidcart.product_service.entity.Product;
+import com.rapidcart.product_service.entity.ProductInventory;
+import com.rapidcart.product_service.repository.ProductInventoryRepository;
+import com.rapidcart.product_service.repository.ProductRepository;
+import com.rapidcart.product_service.repository.StockHoldRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrency benchmark for contention-adaptive locking of product updates.
+ *
+ * <p>Races entity updates against conditional stock decrements on one hot product and
+ * verifies that every update eventually commits, that the product is switched to pessimistic
+ * locking under contention and back to optimistic locking once writes stop contending, and
+ * that its per-product meters are removed once it has cooled down.
+ * The lock wait threshold is raised so that slow test databases do not count as
+ * contention.</p>
+ */
+@SpringBootTest(properties = "product.contention.lock-wait-threshold=25ms")
+@ActiveProfiles("test")
+public class ProductContentionTest {
+
+    private static final int THREADS = 16;
+    private static final int UPDATES = 400;
+    private static final int DECREMENTS = 2000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductContentionTracker contentionTracker;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductInventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        stockHoldRepository.deleteAllInBatch();
+        repository.deleteAll();
+        product = repository.save(Product.builder()
+                .name("Contended Product")
+                .sku("HOT-LOCK-001")
+                .price(new BigDecimal("10.00"))
+                .activeStatus(true)
+                .build());
+        inventoryRepository.save(ProductInventory.builder().productId(product.getId()).stock(1_000_000).build());
+    }
+
+    @Test
+    void shouldCommitEveryUpdateAndAdaptLockingToContention() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean sawPessimistic = new AtomicBoolean();
+        AtomicLong maxConflicts = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < DECREMENTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                productService.decrementStock(product.getId(), 1);
+                return null;
+            }));
+        }
+        for (int i = 0; i < UPDATES; i++) {
+            int update = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                productService.updateProduct(product.getId(), request(update));
+                if (contentionTracker.isContended(product.getId())) {
+                    sawPessimistic.set(true);
+                }
+                // Sampled during the race, as the meters go away once the product cools down
+                maxConflicts.accumulateAndGet((long) counter("product.lock.conflicts"), Math::max);
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertTrue(maxConflicts.get() > 0, "expected optimistic conflicts between updates and decrements");
+        assertTrue(sawPessimistic.get(), "expected the product to switch to pessimistic locking");
+
+        int uncontendedUpdates = 0;
+        while (contentionTracker.isContended(product.getId()) && uncontendedUpdates < 100) {
+            productService.updateProduct(product.getId(), request(UPDATES + uncontendedUpdates++));
+        }
+        assertFalse(contentionTracker.isContended(product.getId()));
+        assertEquals(0, new BigDecimal("10.00").add(BigDecimal.valueOf(UPDATES + uncontendedUpdates - 1, 2))
+                .compareTo(repository.findById(product.getId()).orElseThrow().getPrice()));
+
+        for (int i = 0; i < 100 && meterRegistry.find("product.lock.conflicts")
+                .tag("productId", product.getId().toString()).counter() != null; i++) {
+            productService.updateProduct(product.getId(), request(i));
+        }
+        assertNull(meterRegistry.find("product.lock.conflicts").tag("productId", product.getId().toString()).counter(),
+                "expected the per-product meters to be removed once the product cooled down");
+        assertNull(meterRegistry.find("product.lock.wait").tag("productId", product.getId().toString()).timer());
+    }
+
+    private ProductRequestDto request(int update) {
+        ProductRequestDto dto = new ProductRequestDto();
+        dto.setName("Contended Product");
+        dto.setSku("HOT-LOCK-001");
+        dto.setPrice(new BigDecimal("10.00").add(BigDecimal.valueOf(update, 2)));
+        dto.setStock(1_000_000);
+        dto.setActiveStatus(true);
+        return dto;
+    }
+
+    private double counter(String name) {
+        return meterRegistry.find(name).tag("productId", product.getId().toString()).counters().stream()
+                .mapToDouble(c -> c.count())
+                .sum();
+    }
+}
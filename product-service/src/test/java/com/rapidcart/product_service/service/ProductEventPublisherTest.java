@@ -0,0 +1,174 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.config.RabbitMQConfig;
+import com.rapidcart.product_service.dto.ProductEvent;
+import com.rapidcart.product_service.dto.ProductEventType;
+import com.rapidcart.product_service.dto.ProductRequestDto;
+import com.rapidcart.product_service.dto.ProductResponseDto;
+import com.rapidcart.product_service.exception.InsufficientStockException;
+import com.rapidcart.product_service.repository.ProductInventoryRepository;
+import com.rapidcart.product_service.repository.ProductRepository;
+import com.rapidcart.product_service.repository.StockHoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link ProductEventPublisher}: events are only sent after commit, carry the
+ * changed fields and version, and a burst of stock changes on one product is coalesced into
+ * a single {@code STOCK_CHANGED} message. The scheduled flush is pushed out so that the test
+ * drives it explicitly.
+ */
+@SpringBootTest(properties = "product.events.stock-coalesce-window=1h")
+@ActiveProfiles("test")
+public class ProductEventPublisherTest {
+
+    private static final int DECREMENTS = 500;
+    private static final int THREADS = 16;
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private ProductEventPublisher productEventPublisher;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductInventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @BeforeEach
+    void setUp() {
+        productEventPublisher.flushStockChanges();
+        stockHoldRepository.deleteAllInBatch();
+        repository.deleteAll();
+        clearInvocations(rabbitTemplate);
+    }
+
+    @Test
+    void publishesCreatedUpdatedAndDeactivatedEventsWithChangedFields() {
+        ProductResponseDto created = productService.createProduct(request("Event Product", "EVT-001", "10.00", 20, true));
+        productService.updateProduct(created.getId(), request("Event Product", "EVT-001", "12.50", 20, true));
+        productService.deleteProduct(created.getId());
+
+        List<ProductEvent> events = sentEvents(3);
+
+        ProductEvent createdEvent = events.get(0);
+        assertEquals(ProductEventType.PRODUCT_CREATED, createdEvent.getEventType());
+        assertEquals(created.getId(), createdEvent.getProductId());
+        assertEquals("EVT-001", createdEvent.getSku());
+        assertEquals(20, createdEvent.getAvailableStock());
+        assertEquals(created.getInventoryVersion(), createdEvent.getInventoryVersion());
+
+        ProductEvent updatedEvent = events.get(1);
+        assertEquals(ProductEventType.PRODUCT_UPDATED, updatedEvent.getEventType());
+        assertEquals(0, new BigDecimal("12.50").compareTo(updatedEvent.getPrice()));
+        assertNull(updatedEvent.getName());
+        assertNull(updatedEvent.getStock());
+        assertEquals(createdEvent.getVersion() + 1, updatedEvent.getVersion());
+        assertNull(updatedEvent.getInventoryVersion());
+
+        ProductEvent deactivatedEvent = events.get(2);
+        assertEquals(ProductEventType.PRODUCT_DEACTIVATED, deactivatedEvent.getEventType());
+        assertEquals(false, deactivatedEvent.getActiveStatus());
+        assertEquals(updatedEvent.getVersion() + 1, deactivatedEvent.getVersion());
+    }
+
+    @Test
+    void unchangedUpdateAndRepeatedDeletePublishNothing() {
+        ProductResponseDto created = productService.createProduct(request("Quiet Product", "EVT-002", "5.00", 5, true));
+        productService.deleteProduct(created.getId());
+        clearInvocations(rabbitTemplate);
+
+        productService.updateProduct(created.getId(), request("Quiet Product", "EVT-002", "5.0", 5, false));
+        productService.deleteProduct(created.getId());
+
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    void rolledBackStockChangePublishesNothing() {
+        ProductResponseDto created = productService.createProduct(request("Scarce Product", "EVT-003", "5.00", 1, true));
+        clearInvocations(rabbitTemplate);
+
+        assertThrows(InsufficientStockException.class, () -> productService.reserveStock(created.getId(), 2));
+        productEventPublisher.flushStockChanges();
+
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    void coalescesBurstOfStockChangesIntoOneEvent() throws Exception {
+        ProductResponseDto created = productService.createProduct(
+                request("Flash Sale Product", "EVT-004", "9.99", DECREMENTS * 2, true));
+        clearInvocations(rabbitTemplate);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < DECREMENTS; i++) {
+                futures.add(executor.submit(() -> productService.reserveStock(created.getId(), 1)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        productEventPublisher.flushStockChanges();
+
+        ProductEvent event = sentEvents(1).get(0);
+        assertEquals(ProductEventType.STOCK_CHANGED, event.getEventType());
+        assertEquals(DECREMENTS, event.getStock());
+        assertEquals(DECREMENTS, event.getAvailableStock());
+        assertEquals(inventoryRepository.findVersionByProductId(created.getId()).orElseThrow(), event.getInventoryVersion());
+        assertNull(event.getVersion());
+    }
+
+    private List<ProductEvent> sentEvents(int expected) {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(rabbitTemplate, times(expected))
+                .convertAndSend(eq(RabbitMQConfig.EXCHANGE_NAME), anyString(), captor.capture());
+        return captor.getAllValues().stream().map(ProductEvent.class::cast).toList();
+    }
+
+    private ProductRequestDto request(String name, String sku, String price, int stock, boolean active) {
+        ProductRequestDto dto = new ProductRequestDto();
+        dto.setName(name);
+        dto.setSku(sku);
+        dto.setPrice(new BigDecimal(price));
+        dto.setStock(stock);
+        dto.setActiveStatus(active);
+        return dto;
+    }
+}
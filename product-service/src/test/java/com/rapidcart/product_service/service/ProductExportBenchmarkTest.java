@@ -0,0 +1,144 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput and memory benchmark for {@link ProductExportService}.
+ *
+ * <p>Streams a small and a ten times larger catalog to a byte-counting sink in each format.
+ * The sink samples the live heap through {@link MemoryMXBean} after a collection every
+ * {@value #SAMPLE_EVERY_BYTES} bytes written, and the peak growth over the heap before the
+ * export must not grow with the catalog: a streaming export holds one fetch of rows at a
+ * time, whatever the catalog size. Rows per second and the peak heap growth of every export
+ * are published as report entries.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProductExportBenchmarkTest {
+
+    private static final int SMALL_CATALOG = 10_000;
+    private static final int LARGE_CATALOG = 100_000;
+    private static final int SAMPLE_EVERY_BYTES = 512 << 10;
+    /**
+     * Allowed difference in peak heap growth between the two catalogs: room for the database's
+     * own result buffers, but less than holding the {@code LARGE_CATALOG - SMALL_CATALOG} extra
+     * rows would take.
+     */
+    private static final long HEAP_TOLERANCE_BYTES = 16L << 20;
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void clearCatalog() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    void shouldStreamCatalogInEveryFormatInFlatHeap(TestReporter reporter) {
+        for (ProductDataFormat format : ProductDataFormat.values()) {
+            seed(SMALL_CATALOG);
+            long smallGrowth = export(format, SMALL_CATALOG, reporter);
+            seed(LARGE_CATALOG);
+            long largeGrowth = export(format, LARGE_CATALOG, reporter);
+            repository.deleteAllInBatch();
+
+            assertTrue(largeGrowth <= smallGrowth + HEAP_TOLERANCE_BYTES, String.format(Locale.ROOT,
+                    "Export %s grew the heap by %d KB for %d rows but by %d KB for %d rows",
+                    format, largeGrowth / 1024, LARGE_CATALOG, smallGrowth / 1024, SMALL_CATALOG));
+        }
+    }
+
+    /**
+     * Exports the catalog and returns the peak live heap growth observed while it streamed.
+     */
+    private long export(ProductDataFormat format, int catalogSize, TestReporter reporter) {
+        long heapBefore = liveHeap();
+        HeapSamplingOutputStream sink = new HeapSamplingOutputStream();
+
+        long startedAt = System.nanoTime();
+        long exported = productExportService.export(format, sink);
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        assertEquals(catalogSize, exported);
+        assertTrue(sink.bytes > 0, "Export " + format + " wrote nothing");
+        long growth = Math.max(0, sink.peakHeap - heapBefore);
+        reporter.publishEntry("export." + format + "." + catalogSize, String.format(Locale.ROOT,
+                "%.0f rows/s, peak heap growth %d KB", exported / (elapsedNanos / 1_000_000_000.0), growth / 1024));
+        return growth;
+    }
+
+    private void seed(int catalogSize) {
+        repository.deleteAllInBatch();
+        List<Object[]> rows = new ArrayList<>(catalogSize);
+        for (int i = 1; i <= catalogSize; i++) {
+            rows.add(new Object[]{1_000_000L + i, "Product " + i, "EXPORT-" + i, new BigDecimal("19.99")});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO products (id, name, sku, price, active_status, version) VALUES (?, ?, ?, ?, true, 0)",
+                rows);
+        jdbcTemplate.update("INSERT INTO product_inventory (product_id, stock, reserved_stock, version) " +
+                "SELECT id, MOD(id, 100), 0, 0 FROM products");
+    }
+
+    private static long liveHeap() {
+        System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Counts the bytes written and samples the live heap every {@value #SAMPLE_EVERY_BYTES} bytes.
+     */
+    private static class HeapSamplingOutputStream extends OutputStream {
+
+        private long bytes;
+        private long nextSampleAt = SAMPLE_EVERY_BYTES;
+        private long peakHeap;
+
+        @Override
+        public void write(int b) {
+            written(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            written(len);
+        }
+
+        private void written(int len) {
+            bytes += len;
+            if (bytes >= nextSampleAt) {
+                nextSampleAt += SAMPLE_EVERY_BYTES;
+                peakHeap = Math.max(peakHeap, liveHeap());
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.dto.ProductImportResultDto;
+import com.rapidcart.product_service.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput benchmark for {@link ProductImportService}.
+ *
+ * <p>Imports a generated catalog in each format, then re-imports it so every row takes
+ * the update path, and verifies that every row is imported on both runs. The rows per second
+ * of each run are published as report entries.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProductImportBenchmarkTest {
+
+    private static final int CATALOG_SIZE = 50_000;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAllInBatch();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    void shouldImportCatalogInEveryFormat(TestReporter reporter) {
+        for (ProductDataFormat format : ProductDataFormat.values()) {
+            byte[] file = generate(format);
+
+            ProductImportResultDto inserted = run(format, file, "insert", reporter);
+            ProductImportResultDto updated = run(format, file, "update", reporter);
+
+            assertEquals(CATALOG_SIZE, inserted.getImportedRows());
+            assertEquals(CATALOG_SIZE, updated.getImportedRows());
+            assertEquals(CATALOG_SIZE, repository.count());
+
+            repository.deleteAllInBatch();
+        }
+    }
+
+    private ProductImportResultDto run(ProductDataFormat format, byte[] file, String path, TestReporter reporter) {
+        ProductImportResultDto result = productImportService.importProducts(format, new ByteArrayInputStream(file));
+        reporter.publishEntry("import." + format + "." + path + ".rowsPerSecond",
+                Long.toString(result.getRowsPerSecond()));
+        return result;
+    }
+
+    private static byte[] generate(ProductDataFormat format) {
+        StringBuilder file = new StringBuilder();
+        if (format == ProductDataFormat.CSV) {
+            file.append("name,sku,price,stock,activeStatus\n");
+        }
+        for (int i = 1; i <= CATALOG_SIZE; i++) {
+            if (format == ProductDataFormat.CSV) {
+                file.append("Product ").append(i).append(",IMPORT-").append(i).append(",19.99,")
+                        .append(i % 100).append(",true\n");
+            } else {
+                file.append("{\"name\":\"Product ").append(i).append("\",\"sku\":\"IMPORT-").append(i)
+                        .append("\",\"price\":19.99,\"stock\":").append(i % 100).append(",\"activeStatus\":true}\n");
+            }
+        }
+        return file.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,150 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.dto.ProductRequestDto;
+import com.rapidcart.product_service.entity.Product;
+import com.rapidcart.product_service.entity.ProductInventory;
+import com.rapidcart.product_service.repository.ProductInventoryRepository;
+import com.rapidcart.product_service.repository.ProductRepository;
+import com.rapidcart.product_service.repository.StockHoldRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that pessimistic writes and writes that lock stock buckets give up once
+ * {@code product.contention.lock-timeout} has passed instead of waiting for a row lock
+ * indefinitely.
+ *
+ * <p>The timeout is set well below H2's own default lock timeout of two seconds, so the
+ * failure can only come from {@link RowLockTimeout}.</p>
+ */
+@SpringBootTest(properties = "product.contention.lock-timeout=" + ProductLockTimeoutTest.LOCK_TIMEOUT_MS + "ms")
+@ActiveProfiles("test")
+public class ProductLockTimeoutTest {
+
+    static final long LOCK_TIMEOUT_MS = 300;
+    private static final long H2_DEFAULT_LOCK_TIMEOUT_MS = 2000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductContentionTracker contentionTracker;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductInventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private StockLocationService stockLocationService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        stockHoldRepository.deleteAllInBatch();
+        repository.deleteAll();
+        product = repository.save(Product.builder()
+                .name("Locked Product")
+                .sku("LOCK-TIMEOUT-001")
+                .price(new BigDecimal("10.00"))
+                .activeStatus(true)
+                .build());
+        inventoryRepository.save(ProductInventory.builder().productId(product.getId()).stock(100).build());
+    }
+
+    @AfterEach
+    void releaseLocks() {
+        release.countDown();
+    }
+
+    @Test
+    void pessimisticUpdateShouldGiveUpAtLockTimeout() throws Exception {
+        // Two conflicts put the product in pessimistic mode
+        contentionTracker.recordConflict(product.getId());
+        contentionTracker.recordConflict(product.getId());
+        assertTrue(contentionTracker.isContended(product.getId()));
+
+        CompletableFuture<Void> holder = holdLock(() -> repository.findByIdForUpdate(product.getId()));
+
+        long startedAt = System.nanoTime();
+        assertThrows(PessimisticLockingFailureException.class,
+                () -> productService.updateProduct(product.getId(), request()));
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        assertTrue(waitedMs >= LOCK_TIMEOUT_MS && waitedMs < H2_DEFAULT_LOCK_TIMEOUT_MS,
+                "Gave up on the row lock after " + waitedMs + " ms");
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertEquals(0, new BigDecimal("10.00").compareTo(repository.findById(product.getId()).orElseThrow().getPrice()));
+    }
+
+    @Test
+    void bucketLockShouldGiveUpAtLockTimeout() throws Exception {
+        CompletableFuture<Void> holder = holdLock(() -> inventoryRepository.findByProductIdForUpdate(product.getId()));
+
+        long startedAt = System.nanoTime();
+        assertThrows(PessimisticLockingFailureException.class,
+                () -> stockLocationService.setLocationStock(product.getId(), "WAREHOUSE-2", 10, null));
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        assertTrue(waitedMs >= LOCK_TIMEOUT_MS && waitedMs < H2_DEFAULT_LOCK_TIMEOUT_MS,
+                "Gave up on the bucket locks after " + waitedMs + " ms");
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertEquals(100, inventoryRepository.findStockByProductId(product.getId()).orElseThrow());
+    }
+
+    /**
+     * Takes a row lock in a transaction on another thread and holds it until released.
+     */
+    private CompletableFuture<Void> holdLock(Runnable lockingRead) throws InterruptedException {
+        CountDownLatch locked = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    lockingRead.run();
+                    locked.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+        return holder;
+    }
+
+    private ProductRequestDto request() {
+        ProductRequestDto dto = new ProductRequestDto();
+        dto.setName("Locked Product");
+        dto.setSku("LOCK-TIMEOUT-001");
+        dto.setPrice(new BigDecimal("12.00"));
+        dto.setStock(100);
+        dto.setActiveStatus(true);
+        return dto;
+    }
+}
@@ -0,0 +1,111 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.dto.ProductSearchHitDto;
+import com.rapidcart.product_service.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latency benchmark comparing {@link ProductSearchIndex} with an equivalent SQL
+ * {@code LIKE '%q%'} query.
+ *
+ * <p>Seeds the catalog, runs each query repeatedly against both and verifies that the
+ * index answers it with hits and in less mean time per query than the SQL scan.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProductSearchBenchmarkTest {
+
+    private static final int CATALOG_SIZE = 50_000;
+
+    private static final int ITERATIONS = 200;
+
+    private static final int LIMIT = 10;
+
+    private static final String[] ADJECTIVES = {
+            "Wireless", "Portable", "Compact", "Ergonomic", "Smart", "Premium", "Classic", "Rugged"
+    };
+
+    private static final String[] NOUNS = {
+            "Headphones", "Speaker", "Keyboard", "Mouse", "Monitor", "Charger", "Camera", "Router",
+            "Microphone", "Tablet"
+    };
+
+    private static final String[] QUERIES = {"wire", "wireless head", "rugged cam", "sku-4999", "tab"};
+
+    private static final String LIKE_QUERY =
+            "SELECT id, name, sku, price FROM products " +
+            "WHERE active_status = true AND (LOWER(name) LIKE ? OR LOWER(sku) LIKE ?) " +
+            "ORDER BY sku LIMIT " + LIMIT;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAllInBatch();
+        List<Object[]> rows = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 1; i <= CATALOG_SIZE; i++) {
+            String name = ADJECTIVES[i % ADJECTIVES.length] + " " + NOUNS[(i / ADJECTIVES.length) % NOUNS.length] + " " + i;
+            rows.add(new Object[]{2_000_000L + i, name, "SKU-" + i, new BigDecimal("19.99")});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO products (id, name, sku, price, active_status, version) VALUES (?, ?, ?, ?, true, 0)",
+                rows);
+        productSearchIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllInBatch();
+        productSearchIndex.rebuild();
+    }
+
+    @Test
+    void shouldAnswerSearchesFasterThanSqlLike() {
+        for (String query : QUERIES) {
+            double indexMicros = measure(query, q -> productSearchIndex.search(q, LIMIT));
+            double likeMicros = measure(query, q -> {
+                String pattern = "%" + q.toLowerCase(Locale.ROOT) + "%";
+                return jdbcTemplate.queryForList(LIKE_QUERY, pattern, pattern);
+            });
+
+            List<ProductSearchHitDto> hits = productSearchIndex.search(query, LIMIT);
+            assertFalse(hits.isEmpty(), "no hits for '" + query + "'");
+            assertTrue(indexMicros < likeMicros, String.format(Locale.ROOT,
+                    "Search '%s': index %.1f us/query, SQL LIKE %.1f us/query", query, indexMicros, likeMicros));
+        }
+    }
+
+    private static double measure(String query, Function<String, List<?>> search) {
+        // Warm up before timing
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            search.apply(query);
+        }
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            search.apply(query);
+        }
+        return (System.nanoTime() - startedAt) / 1_000.0 / ITERATIONS;
+    }
+}
@@ -0,0 +1,72 @@
+package com.rapidcart.product_service.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies with {@code EXPLAIN} that every {@link ProductSortField}, in both directions, is
+ * served by an index, so that a page of the product listing never sorts the whole table.
+ *
+ * <p>The explained query is the one Hibernate issues for
+ * {@link ProductService#getAllProducts}, captured with a {@link StatementInspector}.</p>
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.rapidcart.product_service.service.ProductSortIndexTest$CapturedStatements")
+@ActiveProfiles("test")
+public class ProductSortIndexTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void everySortFieldShouldReadRowsInIndexOrder() {
+        for (ProductSortField field : ProductSortField.values()) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                CapturedStatements.SQL.clear();
+                productService.getAllProducts(PageRequest.of(0, PAGE_SIZE, field.sort(direction)));
+
+                List<String> listings = CapturedStatements.SQL.stream()
+                        .filter(sql -> sql.contains(" order by "))
+                        .toList();
+                assertEquals(1, listings.size(), "Expected one listing query, got " + listings);
+                String sql = listings.get(0);
+                String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, PAGE_SIZE);
+
+                assertTrue(plan.contains("index sorted"),
+                        "Sorting products by " + field + " " + direction + " is not served by an index:\n"
+                                + sql + "\n" + plan);
+            }
+        }
+    }
+
+    /**
+     * Records the SQL of every statement Hibernate prepares.
+     */
+    public static class CapturedStatements implements StatementInspector {
+
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
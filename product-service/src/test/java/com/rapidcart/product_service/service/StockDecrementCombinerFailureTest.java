@@ -0,0 +1,104 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.entity.Product;
+import com.rapidcart.product_service.entity.ProductInventory;
+import com.rapidcart.product_service.repository.ProductInventoryRepository;
+import com.rapidcart.product_service.repository.ProductRepository;
+import com.rapidcart.product_service.repository.StockHoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Verifies that a combined batch failing with an {@link Error} fails every caller queued on the
+ * product instead of leaving them waiting for a hand-off, and that later decrements of the
+ * product still go through.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class StockDecrementCombinerFailureTest {
+
+    private static final int INITIAL_STOCK = 100;
+    private static final int REQUESTS = 64;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private StockDecrementCombiner combiner;
+
+    @MockitoSpyBean
+    private StockAllocator stockAllocator;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductInventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        stockHoldRepository.deleteAllInBatch();
+        repository.deleteAll();
+        product = repository.save(Product.builder()
+                .name("Combined Product")
+                .sku("HOT-COMBINE-FAIL")
+                .price(new BigDecimal("19.99"))
+                .activeStatus(true)
+                .build());
+        inventoryRepository.save(ProductInventory.builder().productId(product.getId()).stock(INITIAL_STOCK).build());
+    }
+
+    @Test
+    void errorInBatchShouldFailEveryQueuedCallerAndKeepTheLaneUsable() throws Exception {
+        doThrow(new StackOverflowError("allocator blew the stack"))
+                .when(stockAllocator).allocate(anyLong(), anyInt(), any());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<OptionalInt>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return combiner.decrement(product.getId(), 1);
+            }));
+        }
+
+        start.countDown();
+        for (Future<OptionalInt> future : futures) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, failure.getCause());
+        }
+        executor.shutdown();
+        assertEquals(INITIAL_STOCK, inventoryRepository.findStockByProductId(product.getId()).orElseThrow());
+
+        doCallRealMethod().when(stockAllocator).allocate(anyLong(), anyInt(), any());
+        assertEquals(OptionalInt.of(INITIAL_STOCK - 1), combiner.decrement(product.getId(), 1));
+    }
+}
@@ -0,0 +1,120 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.entity.Product;
+import com.rapidcart.product_service.entity.ProductInventory;
+import com.rapidcart.product_service.repository.ProductInventoryRepository;
+import com.rapidcart.product_service.repository.ProductRepository;
+import com.rapidcart.product_service.repository.StockHoldRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load benchmark for {@link StockDecrementCombiner} on a single hot SKU.
+ *
+ * <p>Fires more concurrent single-unit decrements at one product than it has stock, once with
+ * one transaction per request and once combined, and verifies in both runs that exactly
+ * {@code stock} requests succeed, each with a distinct remaining stock, and the product never
+ * oversells, and that the combined run wrote fewer batches than it had requests.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class StockDecrementCombiningBenchmarkTest {
+
+    private static final int INITIAL_STOCK = 1500;
+    private static final int REQUESTS = 2000;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private StockDecrementCombiner combiner;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductInventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        stockHoldRepository.deleteAllInBatch();
+        repository.deleteAll();
+    }
+
+    @Test
+    void combinedDecrementsShouldNeverOversellAndShouldShareUpdates() throws Exception {
+        run("single", combiner::decrementAlone);
+
+        DistributionSummary batchSizes = meterRegistry.get("product.stock.combined.batch.size").summary();
+        long batchesBefore = batchSizes.count();
+        run("combined", combiner::decrement);
+
+        long batches = batchSizes.count() - batchesBefore;
+        assertTrue(batches > 0 && batches < REQUESTS,
+                REQUESTS + " combined decrements were written in " + batches + " batches");
+    }
+
+    private void run(String mode, BiFunction<Long, Integer, OptionalInt> decrement) throws Exception {
+        Product product = repository.save(Product.builder()
+                .name("Flash Sale Product")
+                .sku("HOT-COMBINE-" + mode)
+                .price(new BigDecimal("19.99"))
+                .activeStatus(true)
+                .build());
+        inventoryRepository.save(ProductInventory.builder().productId(product.getId()).stock(INITIAL_STOCK).build());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        Set<Integer> remainingStocks = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                decrement.apply(product.getId(), 1).ifPresentOrElse(
+                        remainingStocks::add,
+                        rejected::incrementAndGet);
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(IntStream.range(0, INITIAL_STOCK).boxed().collect(Collectors.toSet()), remainingStocks);
+        assertEquals(REQUESTS - INITIAL_STOCK, rejected.get());
+        assertEquals(0, inventoryRepository.findStockByProductId(product.getId()).orElseThrow());
+    }
+}
@@ -0,0 +1,106 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.entity.Product;
+import com.rapidcart.product_service.entity.ProductInventory;
+import com.rapidcart.product_service.repository.ProductInventoryRepository;
+import com.rapidcart.product_service.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Concurrency benchmark for the conditional stock decrement,
+ * {@link ProductInventoryRepository#decrementStockIfAvailable(Long, String, Integer, Integer)}.
+ *
+ * <p>Fires more concurrent single-unit decrements at one product than it has stock, each in
+ * its own transaction, and verifies that exactly {@code stock} of them succeed, the rest are
+ * rejected, and the product never oversells. Decrements per second are published as a report
+ * entry for comparison between runs.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class StockDecrementConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 200;
+    private static final int CONCURRENT_REQUESTS = 250;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductInventoryRepository inventoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        product = repository.save(Product.builder()
+                .name("Hot Product")
+                .sku("HOT-001")
+                .price(new BigDecimal("49.99"))
+                .activeStatus(true)
+                .build());
+        inventoryRepository.save(ProductInventory.builder().productId(product.getId()).stock(INITIAL_STOCK).build());
+    }
+
+    @Test
+    void shouldNeverOversellUnderConcurrentDecrements(TestReporter reporter) throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                Integer updated = transactionTemplate.execute(status -> inventoryRepository.decrementStockIfAvailable(
+                        product.getId(), ProductInventory.DEFAULT_LOCATION, 0, 1));
+                if (updated == 1) {
+                    succeeded.incrementAndGet();
+                } else {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        reporter.publishEntry("decrementsPerSecond",
+                String.format(Locale.ROOT, "%.0f", CONCURRENT_REQUESTS / (elapsedNanos / 1_000_000_000.0)));
+
+        assertEquals(INITIAL_STOCK, succeeded.get());
+        assertEquals(CONCURRENT_REQUESTS - INITIAL_STOCK, rejected.get());
+        assertEquals(0, inventoryRepository.findStockByProductId(product.getId()).orElseThrow());
+    }
+}
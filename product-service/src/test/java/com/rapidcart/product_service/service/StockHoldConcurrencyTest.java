@@ -0,0 +1,147 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.entity.Product;
+import com.rapidcart.product_service.entity.ProductInventory;
+import com.rapidcart.product_service.entity.StockHoldStatus;
+import com.rapidcart.product_service.exception.InsufficientStockException;
+import com.rapidcart.product_service.exception.StockHoldNotActiveException;
+import com.rapidcart.product_service.repository.ProductInventoryRepository;
+import com.rapidcart.product_service.repository.ProductRepository;
+import com.rapidcart.product_service.repository.StockHoldRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrency benchmark for {@link StockHoldService} and {@link StockHoldSweeper} on a
+ * single hot product.
+ *
+ * <p>Fires more concurrent single-unit holds at one product than it has stock and verifies
+ * that exactly {@code stock} of them succeed, then expires them all through the sweeper.
+ * The scheduled sweep is pushed out so that the test drives it explicitly.</p>
+ */
+@SpringBootTest(properties = "product.hold.sweep-interval=1h")
+@ActiveProfiles("test")
+public class StockHoldConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 1500;
+    private static final int HOLD_REQUESTS = 2000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private StockHoldService stockHoldService;
+
+    @Autowired
+    private StockHoldSweeper stockHoldSweeper;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductInventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        stockHoldRepository.deleteAllInBatch();
+        repository.deleteAll();
+        product = repository.save(Product.builder()
+                .name("Hot Product")
+                .sku("HOT-HOLD-001")
+                .price(new BigDecimal("49.99"))
+                .activeStatus(true)
+                .build());
+        inventoryRepository.save(ProductInventory.builder().productId(product.getId()).stock(INITIAL_STOCK).build());
+    }
+
+    @Test
+    void shouldNeverOverHoldAndShouldExpireAllHolds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < HOLD_REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    stockHoldService.placeHold(product.getId(), 1, Duration.ofMinutes(10));
+                    succeeded.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(INITIAL_STOCK, succeeded.get());
+        assertEquals(HOLD_REQUESTS - INITIAL_STOCK, rejected.get());
+        assertEquals(INITIAL_STOCK, reservedStock());
+
+        double expiredBefore = meterRegistry.counter("product.holds.expired").count();
+        jdbcTemplate.update("UPDATE stock_holds SET expires_at = ?", Timestamp.from(
+                Instant.now().minusSeconds(1)));
+
+        stockHoldSweeper.sweep();
+
+        assertEquals(0, reservedStock());
+        assertEquals(INITIAL_STOCK, inventoryRepository.findStockByProductId(product.getId()).orElseThrow());
+        assertEquals(INITIAL_STOCK, meterRegistry.counter("product.holds.expired").count() - expiredBefore);
+        assertTrue(stockHoldRepository.findAll().stream()
+                .allMatch(hold -> hold.getStatus() == StockHoldStatus.EXPIRED));
+    }
+
+    @Test
+    void shouldNotCommitHoldPastItsExpiry() {
+        Long holdId = stockHoldService.placeHold(product.getId(), 5, Duration.ofMinutes(10)).getId();
+        jdbcTemplate.update("UPDATE stock_holds SET expires_at = ? WHERE id = ?", Timestamp.from(
+                Instant.now().minusSeconds(1)), holdId);
+
+        StockHoldNotActiveException ex = assertThrows(StockHoldNotActiveException.class,
+                () -> stockHoldService.commitHold(holdId));
+        assertEquals("Stock hold " + holdId + " is EXPIRED", ex.getMessage());
+        assertEquals(INITIAL_STOCK, inventoryRepository.findStockByProductId(product.getId()).orElseThrow());
+    }
+
+    private int reservedStock() {
+        return inventoryRepository.findStockLevelByProductId(product.getId()).orElseThrow().getReservedStock();
+    }
+}
@@ -0,0 +1,112 @@
+package com.rapidcart.product_service.service;
+
+import com.rapidcart.product_service.entity.Product;
+import com.rapidcart.product_service.entity.ProductInventory;
+import com.rapidcart.product_service.exception.InsufficientStockException;
+import com.rapidcart.product_service.repository.ProductInventoryRepository;
+import com.rapidcart.product_service.repository.ProductRepository;
+import com.rapidcart.product_service.repository.StockHoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Load benchmark for sharded stock buckets on a single hot SKU.
+ *
+ * <p>Fires more concurrent single-unit reservations at one product than it has stock, once with
+ * its stock in one bucket and once spread over {@value #BUCKETS} buckets, and verifies in both
+ * runs that exactly {@code stock} reservations succeed and every bucket ends empty, so the
+ * product never oversells.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class StockShardingBenchmarkTest {
+
+    private static final int INITIAL_STOCK = 800;
+    private static final int REQUESTS = 1000;
+    private static final int THREADS = 16;
+    private static final int BUCKETS = 8;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockLocationService stockLocationService;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private ProductInventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockHoldRepository stockHoldRepository;
+
+    @BeforeEach
+    void setUp() {
+        stockHoldRepository.deleteAllInBatch();
+        repository.deleteAll();
+    }
+
+    @Test
+    void shardedStockShouldNeverOversell() throws Exception {
+        run(1);
+        run(BUCKETS);
+    }
+
+    private void run(int buckets) throws Exception {
+        Product product = repository.save(Product.builder()
+                .name("Flash Sale Product")
+                .sku("HOT-SHARD-" + buckets)
+                .price(new BigDecimal("19.99"))
+                .activeStatus(true)
+                .build());
+        inventoryRepository.save(ProductInventory.builder().productId(product.getId()).stock(0).build());
+        stockLocationService.setLocationStock(product.getId(), ProductInventory.DEFAULT_LOCATION, INITIAL_STOCK, buckets);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    productService.reserveStock(product.getId(), 1);
+                    reserved.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(INITIAL_STOCK, reserved.get());
+        assertEquals(REQUESTS - INITIAL_STOCK, rejected.get());
+        List<ProductInventory> rows = inventoryRepository.findByProductId(product.getId());
+        assertEquals(buckets, rows.size());
+        rows.forEach(row -> assertEquals(0, row.getStock()));
+    }
+}